@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+# Несколько узлов приложения на одной машине поверх Postgres из docker compose (порт 5435):
+# у каждого свой порт, node-id, node-url и каталог журналов. Узлы работают, пока скрипт
+# не остановлен (Ctrl+C). Нужен JDK 22+.
+#
+# Пример: NODES=3 ./run-local.sh
+# Нагрузка на все узлы сразу: java -cp ../loadtest/build GameSimulation url=http://localhost:8501,http://localhost:8502
+set -euo pipefail
+
+cd "$(dirname "$0")"
+NODES=${NODES:-2}
+BASE_PORT=${BASE_PORT:-8501}
+DB_URL=${DB_URL:-jdbc:postgresql://localhost:5435/mygame}
+
+(cd .. && mvn -B -q package -DskipTests)
+JAR=$(ls ../target/*.jar | grep -v original | head -n 1)
+
+pids=()
+trap 'kill "${pids[@]}" 2>/dev/null || true' EXIT
+
+for i in $(seq 1 "$NODES"); do
+  port=$((BASE_PORT + i - 1))
+  mkdir -p "journal/node-$i"
+  java -jar "$JAR" --spring.profiles.active=cluster --server.port="$port" \
+    --spring.datasource.url="$DB_URL" \
+    --game.cluster.node-id="node-$i" --game.cluster.node-url="http://localhost:$port" \
+    --game.journal.dir="journal/node-$i" ${APP_ARGS:-} > "node-$i.log" 2>&1 &
+  pids+=($!)
+done
+
+for i in $(seq 1 "$NODES"); do
+  port=$((BASE_PORT + i - 1))
+  for _ in $(seq 1 120); do
+    if curl -fs "http://localhost:${port}/actuator/health" > /dev/null; then
+      echo "node-$i: http://localhost:${port} (log: cluster/node-$i.log)"
+      break
+    fi
+    sleep 1
+  done
+done
+
+wait
@@ -0,0 +1,63 @@
+package org.example.service;
+
+import org.example.dto.CategoryDto;
+import org.example.dto.GameDto;
+import org.example.entity.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость построения DTO доски: GameService (GET /api/games/{id} запущенной игры)
+ * и CategoryService — из состояния движка и из сущностей JPA.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BoardMappingBenchmark {
+
+    // категории x вопросы в категории x команды: обычная доска, большая, предельная
+    @Param({"6x5x4", "20x10x50", "100x50x500"})
+    public String size;
+
+    private SyntheticBoard board;
+    private List<Category> categories;
+
+    @Setup
+    public void setup() {
+        board = new SyntheticBoard(size);
+        categories = board.game.getCategories();
+    }
+
+    @Benchmark
+    public GameDto gameMapToDto() {
+        return board.gameService.getGame(SyntheticBoard.GAME_ID);
+    }
+
+    @Benchmark
+    public List<CategoryDto> categoryMapToDtoLive() {
+        return board.categoryService.getCategoriesByGame(SyntheticBoard.GAME_ID);
+    }
+
+    @Benchmark
+    public void categoryMapToDtoEntity(Blackhole blackhole) {
+        for (Category category : categories) {
+            blackhole.consume(board.categoryService.mapToDto(category));
+        }
+    }
+}
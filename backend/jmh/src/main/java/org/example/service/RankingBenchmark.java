@@ -0,0 +1,51 @@
+package org.example.service;
+
+import org.example.dto.RankingDto;
+import org.example.dto.TeamDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Рейтинг запущенной игры: полный список (TeamService.getRanking) и топ-10.
+ * Доска минимальная, меняется только число команд.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RankingBenchmark {
+
+    @Param({"4", "50", "500", "5000"})
+    public int teams;
+
+    private SyntheticBoard board;
+
+    @Setup
+    public void setup() {
+        board = new SyntheticBoard("1x1x" + teams);
+    }
+
+    @Benchmark
+    public List<TeamDto> getRanking() {
+        return board.teamService.getRanking(SyntheticBoard.GAME_ID);
+    }
+
+    @Benchmark
+    public RankingDto getTopTeams() {
+        return board.teamService.getTopTeams(SyntheticBoard.GAME_ID, 10);
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.service;
+
+import org.example.cluster.GameLeaseManager;
+import org.example.engine.GameJournalManager;
+import org.example.engine.GameStateEngine;
+import org.example.entity.Category;
+import org.example.entity.Game;
+import org.example.entity.GameStatus;
+import org.example.entity.Question;
+import org.example.entity.Team;
+
+import java.lang.reflect.Field;
+
+/**
+ * Синтетическая игра и сервисы, собранные без Spring и БД. Игра загружается в движок,
+ * поэтому чтения идут тем же путём, что и у запущенной игры в приложении.
+ * Журнал выключен (флаг game.journal.enabled не проставлен), файлы не создаются;
+ * менеджер аренд тоже вне кластерного режима и всегда отдаёт игру этому узлу.
+ */
+final class SyntheticBoard {
+
+    static final long GAME_ID = 1;
+
+    final Game game;
+    final GameStateEngine engine = new GameStateEngine();
+    final QuestionService questionService = new QuestionService();
+    final CategoryService categoryService = new CategoryService();
+    final TeamService teamService = new TeamService();
+    final GameService gameService = new GameService();
+
+    /**
+     * @param size "категории x вопросы в категории x команды", например "6x5x4"
+     */
+    SyntheticBoard(String size) {
+        String[] parts = size.split("x");
+        this.game = game(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+
+        inject(engine, "journalManager", new GameJournalManager());
+        inject(engine, "leaseManager", new GameLeaseManager());
+        inject(engine, "enabled", true);
+        inject(categoryService, "questionService", questionService);
+        inject(categoryService, "gameStateEngine", engine);
+        inject(teamService, "gameStateEngine", engine);
+        inject(gameService, "gameStateEngine", engine);
+        inject(gameService, "teamService", teamService);
+        inject(gameService, "categoryService", categoryService);
+        engine.load(game);
+    }
+
+    // Ответы на часть вопросов и разные счета, чтобы рейтинг не был вырожденным
+    private static Game game(int categories, int questions, int teams) {
+        Game game = new Game();
+        game.setId(GAME_ID);
+        game.setTitle("Benchmark");
+        game.setStatus(GameStatus.STARTED);
+        long questionId = 1;
+        for (int c = 0; c < categories; c++) {
+            Category category = new Category();
+            category.setId((long) c + 1);
+            category.setGame(game);
+            category.setName("Category " + c);
+            for (int q = 0; q < questions; q++) {
+                Question question = new Question();
+                question.setId(questionId++);
+                question.setCategory(category);
+                question.setQuestionText("Question text " + c + "-" + q + " of a realistic length, about one sentence.");
+                question.setAnswerText("Answer " + c + "-" + q);
+                question.setPoints(100 * (q % 5 + 1));
+                question.setAnswered(q % 3 == 0);
+                category.getQuestions().add(question);
+            }
+            game.getCategories().add(category);
+        }
+        for (int t = 0; t < teams; t++) {
+            Team team = new Team();
+            team.setId((long) t + 1);
+            team.setGame(game);
+            team.setName("Team " + t);
+            team.setScore((t * 7919) % 5000);
+            game.getTeams().add(team);
+        }
+        return game;
+    }
+
+    private static void inject(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + target.getClass().getSimpleName() + "." + name, e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Все команды всех игр жмут кнопку одновременно: games игр по teams команд, в каждом раунде
+ * ведущие открывают очередной вопрос, затем все games × teams нажатий уходят разом (барьер).
+ * Проверяется, что в каждом раунде ровно один победитель и все нажатия знают, кто он;
+ * печатаются задержки нажатий.
+ *
+ * Параметры: url, games, teams, rounds.
+ */
+public class BuzzerLoad {
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> params = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            params.put(pair[0], pair.length > 1 ? pair[1] : "");
+        }
+        String url = params.getOrDefault("url", "http://localhost:8500");
+        int games = Integer.parseInt(params.getOrDefault("games", "50"));
+        int teams = Integer.parseInt(params.getOrDefault("teams", "8"));
+        int rounds = Integer.parseInt(params.getOrDefault("rounds", "10"));
+
+        List<long[]> questionIds = new ArrayList<>();
+        List<long[]> teamIds = new ArrayList<>();
+        for (int g = 0; g < games; g++) {
+            StringBuilder body = new StringBuilder("{\"title\":\"Buzzer\",\"categories\":[{\"name\":\"C\",\"questions\":[");
+            for (int q = 0; q < rounds; q++) {
+                body.append(q > 0 ? "," : "").append("{\"questionText\":\"Q\",\"answerText\":\"A\",\"points\":100}");
+            }
+            body.append("]}],\"teams\":[");
+            for (int t = 0; t < teams; t++) {
+                body.append(t > 0 ? "," : "").append("{\"name\":\"Team ").append(t).append("\"}");
+            }
+            body.append("]}");
+            Map<?, ?> game = (Map<?, ?>) Json.parse(send(url + "/api/games/setup", body.toString()));
+            send(url + "/api/games/" + game.get("id") + "/start", "");
+            questionIds.add(((List<?>) ((Map<?, ?>) ((List<?>) game.get("categories")).get(0)).get("questions")).stream()
+                    .mapToLong(question -> ((Number) ((Map<?, ?>) question).get("id")).longValue()).toArray());
+            teamIds.add(((List<?>) game.get("teams")).stream()
+                    .mapToLong(team -> ((Number) ((Map<?, ?>) team).get("id")).longValue()).toArray());
+        }
+
+        LatencyRecorder latencies = new LatencyRecorder();
+        AtomicInteger violations = new AtomicInteger();
+        for (int round = 0; round < rounds; round++) {
+            for (int g = 0; g < games; g++) {
+                send(url + "/api/questions/" + questionIds.get(g)[round] + "/select", null);
+            }
+            CyclicBarrier start = new CyclicBarrier(games * teams);
+            List<Future<Press>> presses = new ArrayList<>();
+            try (ExecutorService devices = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int g = 0; g < games; g++) {
+                    for (int t = 0; t < teams; t++) {
+                        long questionId = questionIds.get(g)[round];
+                        long teamId = teamIds.get(g)[t];
+                        presses.add(devices.submit(() -> {
+                            start.await();
+                            long sent = System.nanoTime();
+                            String result = send(url + "/api/questions/" + questionId + "/buzz", "{\"teamId\":" + teamId + "}");
+                            return new Press((Map<?, ?>) Json.parse(result), System.nanoTime() - sent);
+                        }));
+                    }
+                }
+            }
+            for (int g = 0; g < games; g++) {
+                Object winner = null;
+                int won = 0;
+                for (int t = 0; t < teams; t++) {
+                    Press press = presses.get(g * teams + t).get();
+                    latencies.record(press.nanos(), 200);
+                    Map<?, ?> result = press.result();
+                    winner = winner == null ? result.get("winnerTeamId") : winner;
+                    if (!winner.equals(result.get("winnerTeamId"))) {
+                        violations.incrementAndGet();
+                    }
+                    if (Boolean.TRUE.equals(result.get("won"))) {
+                        won++;
+                    }
+                }
+                if (won != 1) {
+                    violations.incrementAndGet();
+                }
+            }
+        }
+        System.out.printf("%d games x %d teams x %d rounds: %d presses, %d arbitration violations%n",
+                games, teams, rounds, latencies.count(), violations.get());
+        System.out.printf("buzz latency p50=%.2fms p99=%.2fms max=%.2fms%n",
+                latencies.percentileMs(50), latencies.percentileMs(99), latencies.percentileMs(100));
+    }
+
+    record Press(Map<?, ?> result, long nanos) {
+    }
+
+    private static String send(String url, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url));
+        if (body != null) {
+            request.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+        HttpResponse<String> response = CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(url + " -> " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
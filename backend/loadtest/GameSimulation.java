@@ -0,0 +1,232 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Симуляция одновременных живых игр через REST API с тем же порядком запросов, что дают
+ * Home.tsx (создание игры, категорий, вопросов и команд поштучно, старт) и Game.tsx
+ * (доска, рейтинг, подписка на события, затем для каждого вопроса — выбор, ответ,
+ * закрытие с начислением очков и рейтинг, в конце — завершение игры).
+ *
+ * Каждый из games клиентов играет игры одну за другой, пока не истечёт duration,
+ * так что одновременно живёт ровно games игр. В конце печатается сводка по каждому
+ * эндпоинту: число запросов, ошибки, rps, p50/p95/p99/max.
+ *
+ * Параметры: url (несколько узлов кластера — через запятую, запросы идут на случайный узел,
+ * редиректы к владельцу игры выполняются клиентом), games, duration (с), categories, questions (на категорию), teams,
+ * think (мс паузы ведущего между действиями), sse (true — держать два потока событий
+ * на игру, как открытые Game и Leaderboard), out (CSV).
+ */
+public class GameSimulation {
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final String[] urls;
+    private final int categories;
+    private final int questions;
+    private final int teams;
+    private final int thinkMs;
+    private final boolean sse;
+
+    private final Map<String, LatencyRecorder> stats = new HashMap<>();
+    private final AtomicLong events;
+    private int gamesPlayed;
+
+    GameSimulation(Map<String, String> params, AtomicLong events) {
+        this.urls = params.getOrDefault("url", "http://localhost:8500").split(",");
+        this.categories = Integer.parseInt(params.getOrDefault("categories", "5"));
+        this.questions = Integer.parseInt(params.getOrDefault("questions", "5"));
+        this.teams = Integer.parseInt(params.getOrDefault("teams", "4"));
+        this.thinkMs = Integer.parseInt(params.getOrDefault("think", "0"));
+        this.sse = Boolean.parseBoolean(params.getOrDefault("sse", "true"));
+        this.events = events;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> params = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            params.put(pair[0], pair.length > 1 ? pair[1] : "");
+        }
+        int games = Integer.parseInt(params.getOrDefault("games", "50"));
+        int duration = Integer.parseInt(params.getOrDefault("duration", "60"));
+
+        AtomicLong events = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + Duration.ofSeconds(duration).toNanos();
+        List<Future<GameSimulation>> futures = new ArrayList<>();
+        try (ExecutorService hosts = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < games; i++) {
+                futures.add(hosts.submit(() -> {
+                    GameSimulation host = new GameSimulation(params, events);
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            host.playGame();
+                        } catch (Exception e) {
+                            // Игра сорвалась (например, не создалась) — ошибка уже учтена в статистике
+                        }
+                    }
+                    return host;
+                }));
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, LatencyRecorder> total = new TreeMap<>();
+        int played = 0;
+        for (Future<GameSimulation> future : futures) {
+            GameSimulation host = future.get();
+            played += host.gamesPlayed;
+            host.stats.forEach((endpoint, recorder) ->
+                    total.computeIfAbsent(endpoint, key -> new LatencyRecorder()).merge(recorder));
+        }
+        report(total, games, played, events.get(), seconds, params.get("out"));
+    }
+
+    void playGame() throws Exception {
+        // Home.tsx: игра, категории, вопросы и команды по одному запросу на элемент
+        long gameId = id(call("POST /api/games", "/api/games", "{\"title\":\"Simulated game\"}"));
+        List<Long> questionIds = new ArrayList<>();
+        for (int c = 0; c < categories; c++) {
+            long categoryId = id(call("POST /api/games/{id}/categories", "/api/games/" + gameId + "/categories",
+                    "{\"name\":\"Category " + c + "\"}"));
+            for (int q = 0; q < questions; q++) {
+                questionIds.add(id(call("POST /api/categories/{id}/questions", "/api/categories/" + categoryId + "/questions",
+                        "{\"questionText\":\"Question " + c + "-" + q + "\",\"points\":" + 100 * (q + 1)
+                                + ",\"answerText\":\"Answer\"}")));
+            }
+        }
+        List<Long> teamIds = new ArrayList<>();
+        for (int t = 0; t < teams; t++) {
+            teamIds.add(id(call("POST /api/games/{id}/teams", "/api/games/" + gameId + "/teams",
+                    "{\"name\":\"Team " + t + "\"}")));
+        }
+        call("POST /api/games/{id}/start", "/api/games/" + gameId + "/start", "");
+
+        // Game.tsx: доска, рейтинг и поток событий; Leaderboard открывает ещё один поток
+        List<CompletableFuture<?>> streams = new ArrayList<>();
+        if (sse) {
+            streams.add(subscribe(gameId));
+            streams.add(subscribe(gameId));
+        }
+        try {
+            call("GET /api/games/{id}", "/api/games/" + gameId, null);
+            call("GET /api/games/{id}/ranking", "/api/games/" + gameId + "/ranking", null);
+
+            Collections.shuffle(questionIds);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (Long questionId : questionIds) {
+                call("GET /api/questions/{id}/select", "/api/questions/" + questionId + "/select", null);
+                think();
+                call("GET /api/questions/{id}/answer", "/api/questions/" + questionId + "/answer", null);
+                think();
+                // Примерно каждый пятый вопрос остаётся без правильного ответа
+                String body = random.nextInt(5) == 0 ? "{}"
+                        : "{\"teamId\":" + teamIds.get(random.nextInt(teamIds.size())) + "}";
+                call("POST /api/questions/{id}/resolve", "/api/questions/" + questionId + "/resolve", body);
+                call("GET /api/games/{id}/ranking", "/api/games/" + gameId + "/ranking", null);
+            }
+            call("POST /api/games/{id}/finish", "/api/games/" + gameId + "/finish", "");
+            gamesPlayed++;
+        } finally {
+            streams.forEach(stream -> stream.cancel(true));
+        }
+    }
+
+    private String call(String endpoint, String path, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url() + path)).timeout(Duration.ofSeconds(30));
+        if (body != null) {
+            request.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+        LatencyRecorder recorder = stats.computeIfAbsent(endpoint, key -> new LatencyRecorder());
+        long sent = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            recorder.record(System.nanoTime() - sent, -1);
+            throw e;
+        }
+        recorder.record(System.nanoTime() - sent, response.statusCode());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(endpoint + " -> " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    // События только считаются; соединение закрывается отменой после завершения игры
+    private CompletableFuture<?> subscribe(long gameId) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url() + "/api/games/" + gameId + "/events"))
+                .header("Accept", "text/event-stream")
+                .build();
+        return CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofLines())
+                .thenAccept(response -> {
+                    try (Stream<String> lines = response.body()) {
+                        lines.filter(line -> line.startsWith("event:")).forEach(line -> events.incrementAndGet());
+                    }
+                });
+    }
+
+    private String url() {
+        return urls[ThreadLocalRandom.current().nextInt(urls.length)];
+    }
+
+    private void think() throws InterruptedException {
+        if (thinkMs > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(thinkMs / 2, thinkMs + 1));
+        }
+    }
+
+    private static long id(String json) {
+        return ((Number) ((Map<?, ?>) Json.parse(json)).get("id")).longValue();
+    }
+
+    private static void report(Map<String, LatencyRecorder> total, int games, int played, long events,
+                               double seconds, String out) throws Exception {
+        System.out.printf("%d concurrent games, %d finished in %.1fs, %d SSE events received%n%n",
+                games, played, seconds, events);
+        System.out.printf("%-38s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "rps", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        StringBuilder csv = new StringBuilder("endpoint,games,requests,errors,rps,p50_ms,p95_ms,p99_ms,max_ms\n");
+        LatencyRecorder all = new LatencyRecorder();
+        for (Map.Entry<String, LatencyRecorder> entry : total.entrySet()) {
+            line(entry.getKey(), entry.getValue(), games, seconds, csv);
+            all.merge(entry.getValue());
+        }
+        line("ALL", all, games, seconds, csv);
+        if (out != null) {
+            java.nio.file.Files.writeString(java.nio.file.Path.of(out), csv.toString());
+        }
+    }
+
+    private static void line(String endpoint, LatencyRecorder recorder, int games, double seconds, StringBuilder csv) {
+        double rps = recorder.count() / seconds;
+        System.out.printf(Locale.ROOT, "%-38s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", endpoint, recorder.count(),
+                recorder.errors(), rps, recorder.percentileMs(50), recorder.percentileMs(95),
+                recorder.percentileMs(99), recorder.percentileMs(100));
+        csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f%n", endpoint, games,
+                recorder.count(), recorder.errors(), rps, recorder.percentileMs(50), recorder.percentileMs(95),
+                recorder.percentileMs(99), recorder.percentileMs(100)));
+    }
+}
@@ -0,0 +1,108 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Минимальный JSON-парсер для ответов API: объекты, массивы, строки, числа, литералы
+final class Json {
+    private final String text;
+    private int pos;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    static Object parse(String text) {
+        return new Json(text).value();
+    }
+
+    private Object value() {
+        skipWhitespace();
+        char c = text.charAt(pos);
+        if (c == '{') {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (text.charAt(pos) == '}') {
+                pos++;
+                return map;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = string();
+                skipWhitespace();
+                pos++; // ':'
+                map.put(key, value());
+                skipWhitespace();
+                if (text.charAt(pos++) == '}') {
+                    return map;
+                }
+            }
+        }
+        if (c == '[') {
+            List<Object> list = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (text.charAt(pos) == ']') {
+                pos++;
+                return list;
+            }
+            while (true) {
+                list.add(value());
+                skipWhitespace();
+                if (text.charAt(pos++) == ']') {
+                    return list;
+                }
+            }
+        }
+        if (c == '"') {
+            return string();
+        }
+        int start = pos;
+        while (pos < text.length() && ",}] \n\r\t".indexOf(text.charAt(pos)) < 0) {
+            pos++;
+        }
+        String token = text.substring(start, pos);
+        return switch (token) {
+            case "true" -> Boolean.TRUE;
+            case "false" -> Boolean.FALSE;
+            case "null" -> null;
+            default -> token.contains(".") || token.contains("e") || token.contains("E")
+                    ? (Object) Double.parseDouble(token) : (Object) Long.parseLong(token);
+        };
+    }
+
+    private String string() {
+        StringBuilder result = new StringBuilder();
+        pos++; // '"'
+        while (true) {
+            char c = text.charAt(pos++);
+            if (c == '"') {
+                return result.toString();
+            }
+            if (c == '\\') {
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n' -> result.append('\n');
+                    case 't' -> result.append('\t');
+                    case 'r' -> result.append('\r');
+                    case 'b' -> result.append('\b');
+                    case 'f' -> result.append('\f');
+                    case 'u' -> {
+                        result.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    }
+                    default -> result.append(escaped);
+                }
+            } else {
+                result.append(c);
+            }
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Нагрузочный тест без зависимостей: java -cp build LoadBenchmark key=value ... (сборка — см. README).
+ * Создаёт игру через /api/games/setup, запускает её и гоняет выбранный сценарий
+ * с заданным числом одновременных клиентов (закрытый цикл: клиент шлёт следующий
+ * запрос сразу после ответа на предыдущий).
+ *
+ * Параметры: url, label, scenario (get|resolve), concurrency, duration (с), warmup (с),
+ * categories, questions (на категорию), teams, out (CSV для сводной таблицы).
+ * Прогон resolve заканчивается раньше duration, если на доске кончились вопросы.
+ */
+public class LoadBenchmark {
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> params = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            params.put(pair[0], pair.length > 1 ? pair[1] : "");
+        }
+        String url = params.getOrDefault("url", "http://localhost:8500");
+        String label = params.getOrDefault("label", "default");
+        String scenario = params.getOrDefault("scenario", "get");
+        int concurrency = Integer.parseInt(params.getOrDefault("concurrency", "500"));
+        int duration = Integer.parseInt(params.getOrDefault("duration", "30"));
+        int warmup = Integer.parseInt(params.getOrDefault("warmup", "10"));
+        // Чтение идёт по доске обычного размера; для resolve нужен запас вопросов на весь прогон
+        boolean resolve = scenario.equals("resolve");
+        int categories = Integer.parseInt(params.getOrDefault("categories", resolve ? "100" : "6"));
+        int questions = Integer.parseInt(params.getOrDefault("questions", resolve ? "1000" : "5"));
+        int teams = Integer.parseInt(params.getOrDefault("teams", "8"));
+
+        if (warmup > 0) {
+            run(workload(scenario, url, setupGame(url, categories, questions, teams)), concurrency, warmup);
+        }
+        Board board = setupGame(url, categories, questions, teams);
+        System.out.printf("Game %d: %d questions, %d teams%n", board.gameId, board.questionIds.length,
+                board.teamIds.length);
+        Workload workload = workload(scenario, url, board);
+        Result result = run(workload, concurrency, duration);
+        result.print(label, scenario, concurrency);
+        if (params.containsKey("out")) {
+            result.append(Path.of(params.get("out")), label, scenario, concurrency);
+        }
+    }
+
+    private static Workload workload(String scenario, String url, Board board) {
+        return switch (scenario) {
+            case "get" -> new GetGame(url, board);
+            case "resolve" -> new ResolveQuestion(url, board);
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        };
+    }
+
+    private static Result run(Workload workload, int concurrency, int seconds) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + Duration.ofSeconds(seconds).toNanos();
+        List<Future<LatencyRecorder>> futures = new ArrayList<>();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(workers.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        int status;
+                        try {
+                            status = workload.call();
+                        } catch (Exhausted e) {
+                            break;
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        recorder.record(System.nanoTime() - sent, status);
+                    }
+                    return recorder;
+                }));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        LatencyRecorder total = new LatencyRecorder();
+        for (Future<LatencyRecorder> future : futures) {
+            total.merge(future.get());
+        }
+        return new Result(total, elapsed);
+    }
+
+    private static Board setupGame(String url, int categories, int questions, int teams) throws Exception {
+        StringBuilder body = new StringBuilder("{\"title\":\"Load test\",\"categories\":[");
+        for (int c = 0; c < categories; c++) {
+            body.append(c > 0 ? "," : "").append("{\"name\":\"Category ").append(c).append("\",\"questions\":[");
+            for (int q = 0; q < questions; q++) {
+                body.append(q > 0 ? "," : "")
+                        .append("{\"questionText\":\"Question ").append(c).append('-').append(q)
+                        .append("\",\"answerText\":\"Answer\",\"points\":").append(100 * (q % 5 + 1)).append('}');
+            }
+            body.append("]}");
+        }
+        body.append("],\"teams\":[");
+        for (int t = 0; t < teams; t++) {
+            body.append(t > 0 ? "," : "").append("{\"name\":\"Team ").append(t).append("\"}");
+        }
+        body.append("]}");
+
+        Map<?, ?> game = (Map<?, ?>) Json.parse(post(url + "/api/games/setup", body.toString()));
+        long gameId = ((Number) game.get("id")).longValue();
+        post(url + "/api/games/" + gameId + "/start", "");
+
+        List<Long> questionIds = new ArrayList<>();
+        for (Object category : (List<?>) game.get("categories")) {
+            for (Object question : (List<?>) ((Map<?, ?>) category).get("questions")) {
+                questionIds.add(((Number) ((Map<?, ?>) question).get("id")).longValue());
+            }
+        }
+        List<Long> teamIds = new ArrayList<>();
+        for (Object team : (List<?>) game.get("teams")) {
+            teamIds.add(((Number) ((Map<?, ?>) team).get("id")).longValue());
+        }
+        return new Board(gameId, questionIds.stream().mapToLong(Long::longValue).toArray(),
+                teamIds.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private static String post(String url, String body) throws Exception {
+        HttpResponse<String> response = CLIENT.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(url + " -> " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    record Board(long gameId, long[] questionIds, long[] teamIds) {
+    }
+
+    interface Workload {
+        int call() throws Exception;
+    }
+
+    // Вопросы кончились: поток клиента завершается
+    static class Exhausted extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    // Полная доска игры: основной сценарий чтения
+    record GetGame(String url, Board board) implements Workload {
+        @Override
+        public int call() throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/games/" + board.gameId())).GET().build();
+            return CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+    }
+
+    // Каждый запрос закрывает свой вопрос, очки уходят командам по кругу
+    static class ResolveQuestion implements Workload {
+        private final String url;
+        private final Board board;
+        private final AtomicInteger next = new AtomicInteger();
+
+        ResolveQuestion(String url, Board board) {
+            this.url = url;
+            this.board = board;
+        }
+
+        @Override
+        public int call() throws Exception {
+            int i = next.getAndIncrement();
+            if (i >= board.questionIds().length) {
+                throw new Exhausted();
+            }
+            long teamId = board.teamIds()[i % board.teamIds().length];
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create(url + "/api/questions/" + board.questionIds()[i] + "/resolve"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"teamId\":" + teamId + "}"))
+                    .build();
+            return CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+    }
+
+    static class Result {
+        private final LatencyRecorder latencies;
+        private final double seconds;
+
+        Result(LatencyRecorder latencies, long elapsedNanos) {
+            this.latencies = latencies;
+            this.seconds = elapsedNanos / 1e9;
+        }
+
+        double throughput() {
+            return latencies.count() / seconds;
+        }
+
+        double percentileMs(double p) {
+            return latencies.percentileMs(p);
+        }
+
+        void print(String label, String scenario, int concurrency) {
+            System.out.printf("%-10s %-8s c=%-5d requests=%-8d errors=%-6d rps=%-10.1f p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                    label, scenario, concurrency, latencies.count(), latencies.errors(), throughput(),
+                    percentileMs(50), percentileMs(99), percentileMs(99.9), percentileMs(100));
+        }
+
+        void append(Path out, String label, String scenario, int concurrency) throws Exception {
+            if (!Files.exists(out)) {
+                Files.writeString(out, "label,scenario,concurrency,requests,errors,rps,p50_ms,p99_ms,p999_ms,max_ms\n");
+            }
+            Files.writeString(out, String.format(java.util.Locale.ROOT, "%s,%s,%d,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f%n",
+                    label, scenario, concurrency, latencies.count(), latencies.errors(), throughput(),
+                    percentileMs(50), percentileMs(99), percentileMs(99.9), percentileMs(100)),
+                    StandardOpenOption.APPEND);
+        }
+    }
+}
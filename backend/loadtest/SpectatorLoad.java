@@ -0,0 +1,118 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Зрители одной игры: открывает viewers соединений /api/games/{id}/spectate и, пока ведущий
+ * закрывает вопросы (resolve раз в interval мс), считает полученные кадры. Каждое изменение
+ * доски должно дойти до каждого зрителя хотя бы последним кадром.
+ *
+ * Параметры: url, viewers, interval (мс между действиями ведущего), questions (число действий).
+ */
+public class SpectatorLoad {
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> params = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            params.put(pair[0], pair.length > 1 ? pair[1] : "");
+        }
+        String url = params.getOrDefault("url", "http://localhost:8500");
+        int viewers = Integer.parseInt(params.getOrDefault("viewers", "2000"));
+        int interval = Integer.parseInt(params.getOrDefault("interval", "200"));
+        int questions = Integer.parseInt(params.getOrDefault("questions", "20"));
+
+        StringBuilder body = new StringBuilder("{\"title\":\"Spectators\",\"categories\":[{\"name\":\"C\",\"questions\":[");
+        for (int q = 0; q < questions; q++) {
+            body.append(q > 0 ? "," : "").append("{\"questionText\":\"Q").append(q)
+                    .append("\",\"answerText\":\"A\",\"points\":100}");
+        }
+        body.append("]}],\"teams\":[{\"name\":\"Team\"}]}");
+        Map<?, ?> game = (Map<?, ?>) Json.parse(post(url + "/api/games/setup", body.toString()));
+        long gameId = ((Number) game.get("id")).longValue();
+        long teamId = ((Number) ((Map<?, ?>) ((List<?>) game.get("teams")).get(0)).get("id")).longValue();
+        List<Long> questionIds = new ArrayList<>();
+        for (Object question : (List<?>) ((Map<?, ?>) ((List<?>) game.get("categories")).get(0)).get("questions")) {
+            questionIds.add(((Number) ((Map<?, ?>) question).get("id")).longValue());
+        }
+        post(url + "/api/games/" + gameId + "/start", "");
+
+        AtomicInteger connected = new AtomicInteger();
+        AtomicLong frames = new AtomicLong();
+        int[] lastVersion = new int[viewers];
+        List<CompletableFuture<?>> streams = new ArrayList<>();
+        for (int i = 0; i < viewers; i++) {
+            int viewer = i;
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/games/" + gameId + "/spectate")).build();
+            streams.add(CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofLines()).thenAccept(response -> {
+                connected.incrementAndGet();
+                try (Stream<String> lines = response.body()) {
+                    lines.filter(line -> line.startsWith("id: ")).forEach(line -> {
+                        frames.incrementAndGet();
+                        lastVersion[viewer] = Integer.parseInt(line.substring(4));
+                    });
+                }
+            }));
+        }
+        long start = System.nanoTime();
+        while (connected.get() < viewers && System.nanoTime() - start < Duration.ofSeconds(60).toNanos()) {
+            Thread.sleep(100);
+        }
+        System.out.printf("%d of %d viewers connected in %.1fs%n", connected.get(), viewers, (System.nanoTime() - start) / 1e9);
+
+        long actions = System.nanoTime();
+        for (Long questionId : questionIds) {
+            post(url + "/api/questions/" + questionId + "/resolve", "{\"teamId\":" + teamId + "}");
+            Thread.sleep(interval);
+        }
+        // Последняя версия доски: старт (1) плюс по одной на каждый закрытый вопрос
+        int finalVersion = 1 + questionIds.size();
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        int upToDate = 0;
+        while (System.nanoTime() < deadline) {
+            upToDate = 0;
+            for (int version : lastVersion) {
+                if (version == finalVersion) {
+                    upToDate++;
+                }
+            }
+            if (upToDate == viewers) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        System.out.printf("%d actions, %d frames received (%.1f per viewer), %d viewers saw the final board, %.1fs%n",
+                questionIds.size(), frames.get(), frames.get() / (double) viewers, upToDate,
+                (System.nanoTime() - actions) / 1e9);
+        streams.forEach(stream -> stream.cancel(true));
+        System.exit(0);
+    }
+
+    private static String post(String url, String body) throws Exception {
+        HttpResponse<String> response = CLIENT.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(url + " -> " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# Сравнение режимов выполнения запросов: platform (пул Tomcat) и virtual (виртуальные потоки).
+# Для каждого режима поднимает приложение, прогоняет сценарии get и resolve и пишет
+# сводку в results.csv. Нужны JDK 22+ и запущенный Postgres (docker compose up db).
+#
+# Пример: ./run-benchmark.sh concurrency=1000 duration=60
+# Дополнительные аргументы передаются в LoadBenchmark (см. описание в LoadBenchmark.java).
+# Аргументы приложения задаются через APP_ARGS, например
+# APP_ARGS="--game.engine.enabled=false" — замер пути через JDBC без движка в памяти.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+BACKEND_DIR=..
+PORT=${PORT:-8500}
+URL="http://localhost:${PORT}"
+OUT=${OUT:-results.csv}
+MODES=${MODES:-"platform virtual"}
+SCENARIOS=${SCENARIOS:-"get resolve"}
+
+(cd "$BACKEND_DIR" && mvn -B -q package -DskipTests)
+JAR=$(ls "$BACKEND_DIR"/target/*.jar | grep -v original | head -n 1)
+javac -d build *.java
+
+for mode in $MODES; do
+  profile_args=()
+  jvm_args=(-Xmx2g -XX:+UseG1GC)
+  if [ "$mode" = "virtual" ]; then
+    profile_args=(--spring.profiles.active=virtual)
+    # Печатает стек, если виртуальный поток закрепился за носителем (synchronized + блокировка)
+    jvm_args+=(-Djdk.tracePinnedThreads=short)
+  fi
+  journal_dir=$(mktemp -d)
+  log_file="app-${mode}.log"
+
+  java "${jvm_args[@]}" -jar "$JAR" --server.port="$PORT" --game.journal.dir="$journal_dir" \
+    "${profile_args[@]}" ${APP_ARGS:-} > "$log_file" 2>&1 &
+  app_pid=$!
+  trap 'kill $app_pid 2>/dev/null || true' EXIT
+
+  for _ in $(seq 1 120); do
+    if curl -fs "${URL}/actuator/health" > /dev/null; then
+      break
+    fi
+    sleep 1
+  done
+
+  for scenario in $SCENARIOS; do
+    java -cp build LoadBenchmark url="$URL" label="$mode" scenario="$scenario" out="$OUT" "$@"
+  done
+
+  kill "$app_pid"
+  wait "$app_pid" || true
+  rm -rf "$journal_dir"
+  if grep -q "VirtualThread.*pinned\|onPinned" "$log_file"; then
+    echo "WARNING: pinned virtual threads reported, see $log_file"
+  fi
+done
+
+echo
+column -s, -t < "$OUT"
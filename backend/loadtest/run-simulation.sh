@@ -0,0 +1,32 @@
+#!/usr/bin/env bash
+# Сколько одновременных игр выдерживает один экземпляр: поднимает приложение на H2
+# (профиль loadtest, Postgres не нужен) и гоняет GameSimulation — полный цикл игр
+# через REST API. Нужен JDK 22+.
+#
+# Пример: ./run-simulation.sh games=200 duration=120 think=500
+# Режим виртуальных потоков: PROFILES=loadtest,virtual ./run-simulation.sh
+# Против уже запущенного приложения: java -cp build GameSimulation url=http://host:8500 ...
+set -euo pipefail
+
+cd "$(dirname "$0")"
+PORT=${PORT:-8500}
+PROFILES=${PROFILES:-loadtest}
+
+(cd .. && mvn -B -q package -Ploadtest -DskipTests)
+JAR=$(ls ../target/*.jar | grep -v original | head -n 1)
+javac -d build *.java
+
+journal_dir=$(mktemp -d)
+java -Xmx2g -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$PROFILES" \
+  --game.journal.dir="$journal_dir" ${APP_ARGS:-} > app-simulation.log 2>&1 &
+app_pid=$!
+trap 'kill $app_pid 2>/dev/null || true; rm -rf "$journal_dir"' EXIT
+
+for _ in $(seq 1 120); do
+  if curl -fs "http://localhost:${PORT}/actuator/health" > /dev/null; then
+    break
+  fi
+  sleep 1
+done
+
+java -cp build GameSimulation url="http://localhost:${PORT}" out=simulation.csv "$@"
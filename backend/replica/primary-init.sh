@@ -0,0 +1,5 @@
+#!/bin/sh
+# Пользователь для потоковой репликации; выполняется один раз при создании базы primary
+set -e
+psql -v ON_ERROR_STOP=1 -U "$POSTGRES_USER" -d "$POSTGRES_DB" -c "CREATE ROLE repl WITH REPLICATION LOGIN PASSWORD 'repl'"
+echo "host replication repl all scram-sha-256" >> "$PGDATA/pg_hba.conf"
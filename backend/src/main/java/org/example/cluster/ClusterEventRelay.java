@@ -0,0 +1,184 @@
+package org.example.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.dto.GameEventDto;
+import org.example.event.GameEventStream;
+import org.example.event.SpectatorHub;
+import org.example.search.QuestionIndex;
+import org.example.search.QuestionIndexChange;
+import org.example.service.ContentCache;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пересылка событий игр между узлами через Postgres LISTEN/NOTIFY: событие, закоммиченное
+ * на узле-владельце, получают подписчики SSE и зрители на всех узлах. Слушатель держит
+ * собственное соединение вне пула и переподключается при обрыве; события, пришедшие
+ * за время обрыва, теряются, клиент досинхронизируется по ETag доски.
+ * Вторым каналом узлы сообщают друг другу об изменённых досках: получатель сбрасывает
+ * кэш содержимого этой игры и перечитывает её в поисковый индекс.
+ */
+@Component
+@ConditionalOnProperty(name = "game.cluster.enabled", havingValue = "true")
+public class ClusterEventRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterEventRelay.class);
+
+    private static final String CHANNEL = "game_events";
+    private static final String INDEX_CHANNEL = "question_index";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GameLeaseManager leaseManager;
+
+    @Autowired
+    private GameEventStream eventStream;
+
+    @Autowired
+    private SpectatorHub spectatorHub;
+
+    @Autowired
+    private QuestionIndex questionIndex;
+
+    @Autowired
+    private ContentCache contentCache;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    @PostConstruct
+    public void init() {
+        running = true;
+        listener = new Thread(this::listen, "game-events-relay");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        listener.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameEvent(GameEventDto event) {
+        try {
+            String payload = objectMapper.writeValueAsString(new Envelope(leaseManager.getNodeId(), event));
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Cannot relay game event {}", event, e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionIndexChange(QuestionIndexChange change) {
+        try {
+            String payload = objectMapper.writeValueAsString(new IndexEnvelope(leaseManager.getNodeId(), change.gameId()));
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, INDEX_CHANNEL, payload);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Cannot relay question index change for game {}", change.gameId(), e);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                    statement.execute("LISTEN " + INDEX_CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            if (INDEX_CHANNEL.equals(notification.getName())) {
+                                refreshBoard(notification.getParameter());
+                            } else {
+                                deliver(notification.getParameter());
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Game event relay connection lost, reconnecting", e);
+                    sleep();
+                }
+            }
+        }
+    }
+
+    private void deliver(String payload) {
+        try {
+            Envelope envelope = objectMapper.readValue(payload, Envelope.class);
+            // Свои события узел уже разослал локально
+            if (!leaseManager.getNodeId().equals(envelope.origin())) {
+                eventStream.deliver(envelope.event());
+                spectatorHub.onRemoteEvent(envelope.event());
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Malformed game event notification: {}", payload, e);
+        }
+    }
+
+    private void refreshBoard(String payload) {
+        try {
+            IndexEnvelope envelope = objectMapper.readValue(payload, IndexEnvelope.class);
+            if (!leaseManager.getNodeId().equals(envelope.origin())) {
+                contentCache.evictGame(envelope.gameId());
+                questionIndex.refresh(envelope.gameId());
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Malformed question index notification: {}", payload, e);
+        } catch (RuntimeException e) {
+            log.warn("Cannot refresh board from notification: {}", payload, e);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    record Envelope(String origin, GameEventDto event) {
+    }
+
+    record IndexEnvelope(String origin, Long gameId) {
+    }
+}
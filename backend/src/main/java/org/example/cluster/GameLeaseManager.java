@@ -0,0 +1,135 @@
+package org.example.cluster;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Аренды запущенных игр в таблице game_leases. Узел, взявший аренду, единолично держит
+ * игру в памяти и пишет её в БД; аренда продлевается по расписанию и переходит
+ * к другому узлу только после истечения. Вне кластерного режима все методы — заглушки:
+ * единственный узел владеет всеми играми.
+ */
+@Component
+public class GameLeaseManager {
+
+    @Value("${game.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${game.cluster.node-id:}")
+    private String nodeId;
+
+    @Value("${game.cluster.node-url:}")
+    private String nodeUrl;
+
+    @Value("${game.cluster.lease-ttl-ms:15000}")
+    private long leaseTtlMs;
+
+    @Value("${server.port:8080}")
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() throws UnknownHostException {
+        String host = InetAddress.getLocalHost().getHostName();
+        if (nodeId.isBlank()) {
+            nodeId = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        if (nodeUrl.isBlank()) {
+            nodeUrl = "http://" + host + ":" + port;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Берёт или продлевает аренду игры. Чужая аренда перехватывается только после истечения;
+     * при одновременной попытке двух узлов строку получает один, второй ждёт его коммита
+     * и получает false.
+     */
+    public boolean tryAcquire(Long gameId) {
+        if (!enabled) {
+            return true;
+        }
+        return jdbcTemplate.update("""
+                INSERT INTO game_leases (game_id, node_id, node_url, expires_at)
+                VALUES (?, ?, ?, now() + ? * interval '1 millisecond')
+                ON CONFLICT (game_id) DO UPDATE
+                SET node_id = EXCLUDED.node_id, node_url = EXCLUDED.node_url, expires_at = EXCLUDED.expires_at
+                WHERE game_leases.node_id = EXCLUDED.node_id OR game_leases.expires_at < now()
+                """, gameId, nodeId, nodeUrl, leaseTtlMs) > 0;
+    }
+
+    // Действующий владелец игры или null, если аренды нет или она истекла
+    public Owner findOwner(Long gameId) {
+        if (!enabled) {
+            return null;
+        }
+        List<Owner> owners = jdbcTemplate.query(
+                "SELECT node_id, node_url FROM game_leases WHERE game_id = ? AND expires_at > now()",
+                (rs, rowNum) -> new Owner(rs.getString("node_id"), rs.getString("node_url")), gameId);
+        return owners.isEmpty() ? null : owners.get(0);
+    }
+
+    // Продлевает аренды этого узла; возвращает игры, аренду которых уже забрал другой узел
+    public List<Long> renew(Collection<Long> gameIds) {
+        List<Long> lost = new ArrayList<>();
+        if (!enabled || gameIds.isEmpty()) {
+            return lost;
+        }
+        List<Long> ids = List.copyOf(gameIds);
+        List<Object[]> args = ids.stream().map(id -> new Object[]{leaseTtlMs, id, nodeId}).toList();
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE game_leases SET expires_at = now() + ? * interval '1 millisecond' WHERE game_id = ? AND node_id = ?",
+                args);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                lost.add(ids.get(i));
+            }
+        }
+        return lost;
+    }
+
+    public void release(Long gameId) {
+        if (enabled) {
+            jdbcTemplate.update("DELETE FROM game_leases WHERE game_id = ? AND node_id = ?", gameId, nodeId);
+        }
+    }
+
+    /**
+     * Проверка владения в транзакции записи: строка аренды блокируется до коммита,
+     * так что перехватить игру посреди записи другой узел не может. Если аренда
+     * истекла или перешла к другому узлу, запись отменяется.
+     */
+    public void checkOwned(Long gameId) {
+        if (!enabled) {
+            return;
+        }
+        List<String> owner = jdbcTemplate.queryForList(
+                "SELECT node_id FROM game_leases WHERE game_id = ? AND node_id = ? AND expires_at > now() FOR UPDATE",
+                String.class, gameId, nodeId);
+        if (owner.isEmpty()) {
+            throw new IllegalStateException("Game lease lost: " + gameId);
+        }
+    }
+
+    public record Owner(String nodeId, String nodeUrl) {
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.cluster;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.engine.GameStateEngine;
+import org.example.entity.GameStatus;
+import org.example.repository.GameRepository;
+import org.example.routing.GameRequestResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Маршрутизация запросов к запущенной игре на узел-владелец. Запрос к чужой игре получает
+ * 307 на адрес владельца (метод и тело сохраняются), так что все изменения игры
+ * проходят через один узел и сериализуются его LiveGame. Игру без владельца узел забирает себе.
+ * Игры в подготовке и завершённые обслуживает любой узел прямо из БД, поток событий
+ * и канал зрителей — тоже (события приходят через {@link ClusterEventRelay}).
+ */
+@Component
+@ConditionalOnProperty(name = "game.cluster.enabled", havingValue = "true")
+public class GameOwnershipInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private GameStateEngine gameStateEngine;
+
+    @Autowired
+    private GameLeaseManager leaseManager;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameRequestResolver gameRequestResolver;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || CorsUtils.isPreFlightRequest(request)) {
+            return true;
+        }
+        // Поток событий и канал зрителей обслуживает любой узел
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Long gameId = pattern == null || pattern.endsWith("/events") || pattern.endsWith("/spectate")
+                ? null : gameRequestResolver.resolveGameId(request);
+        if (gameId == null || gameStateEngine.find(gameId) != null
+                || gameRepository.findStatusById(gameId).orElse(null) != GameStatus.STARTED) {
+            return true;
+        }
+        GameLeaseManager.Owner owner = leaseManager.findOwner(gameId);
+        if (owner == null || owner.nodeId().equals(leaseManager.getNodeId())) {
+            if (gameStateEngine.takeOver(gameId) != null) {
+                return true;
+            }
+            owner = leaseManager.findOwner(gameId);
+            if (owner == null || owner.nodeId().equals(leaseManager.getNodeId())) {
+                return true;
+            }
+        }
+        String location = owner.nodeUrl() + request.getRequestURI();
+        if (request.getQueryString() != null) {
+            location += "?" + request.getQueryString();
+        }
+        response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        response.setHeader(HttpHeaders.LOCATION, location);
+        return false;
+    }
+}
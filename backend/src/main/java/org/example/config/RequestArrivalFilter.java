@@ -0,0 +1,31 @@
+package org.example.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Время прихода запроса (System.nanoTime) в атрибуте {@link #ARRIVED_AT}. Фильтр стоит
+ * первым, до кластерной маршрутизации и выбора реплики: нажатие кнопки сравнивается
+ * по моменту приёма, а не по тому, сколько запрос провёл в перехватчиках.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestArrivalFilter extends OncePerRequestFilter {
+
+    public static final String ARRIVED_AT = "org.example.requestArrivedAt";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        request.setAttribute(ARRIVED_AT, System.nanoTime());
+        chain.doFilter(request, response);
+    }
+}
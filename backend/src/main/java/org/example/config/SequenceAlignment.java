@@ -0,0 +1,49 @@
+package org.example.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Сдвигает последовательности id за максимальные существующие id. Таблицы, созданные
+ * до перехода с IDENTITY на последовательности (нужны для пакетной вставки), уже содержат
+ * строки, а новые последовательности начинаются с 1.
+ */
+@Component
+public class SequenceAlignment {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceAlignment.class);
+
+    // Должно совпадать с allocationSize в @SequenceGenerator сущностей
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> TABLES = List.of("games", "teams", "categories", "questions");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Зависимость гарантирует, что схема (и последовательности) уже созданы Hibernate
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void align() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+        for (String table : TABLES) {
+            String sequence = table + "_seq";
+            jdbcTemplate.queryForObject("SELECT setval('" + sequence + "', GREATEST(nextval('" + sequence + "'), " +
+                    "(SELECT COALESCE(MAX(id), 0) FROM " + table + ") + " + ALLOCATION_SIZE + "))", Long.class);
+        }
+        log.info("Id sequences aligned with existing rows");
+    }
+}
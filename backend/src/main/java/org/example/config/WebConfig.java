@@ -1,19 +1,42 @@
 package org.example.config;
 
+import org.example.cluster.GameOwnershipInterceptor;
+import org.example.routing.ReplicaRoutingInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    // Есть только в кластерном режиме (game.cluster.enabled=true)
+    @Autowired(required = false)
+    private GameOwnershipInterceptor gameOwnershipInterceptor;
+
+    // Есть только при чтении с реплики (game.replica.enabled=true); после кластерной маршрутизации
+    @Autowired(required = false)
+    private ReplicaRoutingInterceptor replicaRoutingInterceptor;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
                 .allowedOriginPatterns("*")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "HEAD", "PATCH")
                 .allowedHeaders("*")
+                .exposedHeaders("ETag")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (gameOwnershipInterceptor != null) {
+            registry.addInterceptor(gameOwnershipInterceptor).addPathPatterns("/api/**");
+        }
+        if (replicaRoutingInterceptor != null) {
+            registry.addInterceptor(replicaRoutingInterceptor).addPathPatterns("/api/**");
+        }
+    }
+}
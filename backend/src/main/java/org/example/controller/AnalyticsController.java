@@ -0,0 +1,25 @@
+package org.example.controller;
+
+import org.example.dto.AnalyticsDto;
+import org.example.service.GameStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    @Autowired
+    private GameStatsService gameStatsService;
+
+    @GetMapping
+    public ResponseEntity<AnalyticsDto> getAnalytics() {
+        return ResponseEntity.ok(gameStatsService.getAnalytics());
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<AnalyticsDto> rebuild() {
+        return ResponseEntity.ok(gameStatsService.rebuild());
+    }
+}
@@ -1,13 +1,25 @@
 package org.example.controller;
 
+import org.example.dto.CreateBoardDto;
 import org.example.dto.CreateGameDto;
+import org.example.dto.GameChangesDto;
 import org.example.dto.GameDto;
+import org.example.dto.GamePageDto;
+import org.example.dto.GenerateBoardDto;
+import org.example.dto.QuestionTimerDto;
+import org.example.entity.GameStatus;
+import org.example.event.GameEventStream;
+import org.example.event.SpectatorHub;
 import org.example.service.GameService;
+import org.example.service.QuestionTimerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/games")
@@ -16,19 +28,77 @@ public class GameController {
     @Autowired
     private GameService gameService;
 
+    @Autowired
+    private GameEventStream gameEventStream;
+
+    @Autowired
+    private SpectatorHub spectatorHub;
+
+    @Autowired
+    private QuestionTimerService questionTimerService;
+
     @PostMapping
     public ResponseEntity<GameDto> createGame(@RequestBody CreateGameDto dto) {
         return ResponseEntity.ok(gameService.createGame(dto));
     }
 
+    // Создание игры со всей доской и командами одним запросом
+    @PostMapping("/setup")
+    public ResponseEntity<GameDto> setupGame(@RequestBody CreateBoardDto dto) {
+        return ResponseEntity.ok(gameService.setupGame(dto));
+    }
+
+    // Доска из случайных вопросов банка: N категорий × уровни стоимости
+    @PostMapping("/generate")
+    public ResponseEntity<GameDto> generateGame(@RequestBody GenerateBoardDto dto) {
+        return ResponseEntity.ok(gameService.generateGame(dto));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<GameDto> getGame(@PathVariable Long id) {
-        return ResponseEntity.ok(gameService.getGame(id));
+    public ResponseEntity<GameDto> getGame(@PathVariable Long id, WebRequest request) {
+        // Версия читается до доски: в худшем случае клиент получит более свежие данные со старым ETag
+        String etag = String.valueOf(gameService.getVersion(id));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(gameService.getGame(id));
     }
 
+    // Что изменилось после версии клиента (ETag доски или version прошлого ответа)
+    @GetMapping("/{id}/changes")
+    public ResponseEntity<GameChangesDto> getChanges(@PathVariable Long id, @RequestParam long since) {
+        return ResponseEntity.ok(gameService.getChanges(id, since));
+    }
+
+    // Таймер открытого вопроса (например, после перезагрузки страницы ведущего); 204 — таймер не идёт
+    @GetMapping("/{id}/timer")
+    public ResponseEntity<QuestionTimerDto> getTimer(@PathVariable Long id) {
+        QuestionTimerDto timer = questionTimerService.getTimer(id);
+        return timer != null ? ResponseEntity.ok(timer) : ResponseEntity.noContent().build();
+    }
+
+    // Поток событий игры: question-answered и score-changed
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToEvents(@PathVariable Long id) {
+        return gameEventStream.subscribe(id);
+    }
+
+    // Канал зрителей: SSE-события snapshot с доской (без неоткрытых ответов) и рейтингом
+    @GetMapping(value = "/{id}/spectate", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> spectate(@PathVariable Long id) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .cacheControl(CacheControl.noCache())
+                .header("X-Accel-Buffering", "no")
+                .body(spectatorHub.subscribe(id));
+    }
+
+    // Краткий список игр постранично: cursor — id последней игры предыдущей страницы
     @GetMapping
-    public ResponseEntity<List<GameDto>> getAllGames() {
-        return ResponseEntity.ok(gameService.getAllGames());
+    public ResponseEntity<GamePageDto> getGames(@RequestParam(required = false) GameStatus status,
+                                                @RequestParam(required = false) Long cursor,
+                                                @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(gameService.getGames(status, cursor, limit));
     }
 
     @DeleteMapping("/{id}")
@@ -42,6 +112,12 @@ public class GameController {
         return ResponseEntity.ok(gameService.startGame(id));
     }
 
+    // Отмена последнего действия ведущего (закрытие вопроса или начисление очков)
+    @PostMapping("/{id}/undo")
+    public ResponseEntity<GameDto> undoLastAction(@PathVariable Long id) {
+        return ResponseEntity.ok(gameService.undoLastAction(id));
+    }
+
     @PostMapping("/{id}/finish")
     public ResponseEntity<GameDto> finishGame(@PathVariable Long id) {
         return ResponseEntity.ok(gameService.finishGame(id));
@@ -1,16 +1,23 @@
 package org.example.controller;
 
+import org.example.config.RequestArrivalFilter;
+import org.example.dto.BuzzResultDto;
 import org.example.dto.CreateQuestionDto;
+import org.example.dto.CreatedQuestionDto;
 import org.example.dto.QuestionDto;
+import org.example.dto.QuestionSearchHitDto;
+import org.example.dto.QuestionTimerDto;
 import org.example.dto.UpdateQuestionDto;
+import org.example.service.BuzzerService;
 import org.example.service.QuestionService;
-import org.example.service.TeamService;
+import org.example.service.QuestionTimerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api")
@@ -20,13 +27,32 @@ public class QuestionController {
     private QuestionService questionService;
 
     @Autowired
-    private TeamService teamService;
+    private BuzzerService buzzerService;
+
+    @Autowired
+    private QuestionTimerService questionTimerService;
 
     @PostMapping("/categories/{categoryId}/questions")
-    public ResponseEntity<QuestionDto> createQuestion(@PathVariable Long categoryId, @RequestBody CreateQuestionDto dto) {
+    public ResponseEntity<CreatedQuestionDto> createQuestion(@PathVariable Long categoryId, @RequestBody CreateQuestionDto dto) {
         return ResponseEntity.ok(questionService.createQuestion(categoryId, dto));
     }
 
+    // Поиск по банку вопросов всех игр: ранжирование, префиксы, опечатки
+    @GetMapping("/questions/search")
+    public ResponseEntity<List<QuestionSearchHitDto>> searchQuestions(@RequestParam String q,
+                                                                      @RequestParam(required = false) Integer minPoints,
+                                                                      @RequestParam(required = false) Integer maxPoints,
+                                                                      @RequestParam(required = false) String category,
+                                                                      @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(questionService.searchQuestions(q, minPoints, maxPoints, category, limit));
+    }
+
+    // Проверка текста на повтор до сохранения вопроса
+    @PostMapping("/questions/similar")
+    public ResponseEntity<List<QuestionSearchHitDto>> findSimilar(@RequestBody Map<String, String> body) {
+        return ResponseEntity.ok(questionService.findSimilar(body.get("questionText"), null));
+    }
+
     @GetMapping("/questions/{id}")
     public ResponseEntity<QuestionDto> getQuestion(@PathVariable Long id) {
         return ResponseEntity.ok(questionService.getQuestion(id));
@@ -61,11 +87,36 @@ public class QuestionController {
     // Для разрешения вопроса: mark answered, optionally award to team
     @PostMapping("/questions/{id}/resolve")
     public ResponseEntity<QuestionDto> resolveQuestion(@PathVariable Long id, @RequestBody Map<String, Long> body) {
-        QuestionDto question = questionService.markAsAnswered(id);
-        Long teamId = body.get("teamId");
-        if (teamId != null) {
-            teamService.awardPoints(teamId, question.getPoints());
-        }
-        return ResponseEntity.ok(question);
+        return ResponseEntity.ok(questionService.resolveQuestion(id, body.get("teamId")));
+    }
+
+    // Нажатие кнопки командой; время нажатия — приход запроса, до перехватчиков.
+    // Ответ приходит по окончании окна арбитража, поток запроса его не ждёт
+    @PostMapping("/questions/{id}/buzz")
+    public CompletableFuture<ResponseEntity<BuzzResultDto>> buzz(@PathVariable Long id, @RequestBody Map<String, Long> body,
+                                                                 @RequestAttribute(RequestArrivalFilter.ARRIVED_AT) long pressedAt) {
+        return buzzerService.buzz(id, body.get("teamId"), pressedAt).thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping("/questions/{id}/buzzer")
+    public ResponseEntity<BuzzResultDto> getBuzzer(@PathVariable Long id) {
+        return ResponseEntity.ok(buzzerService.getBuzzer(id));
+    }
+
+    // Ведущий не засчитал ответ нажавшей команды
+    @PostMapping("/questions/{id}/buzzer/reject")
+    public ResponseEntity<BuzzResultDto> rejectBuzz(@PathVariable Long id) {
+        return ResponseEntity.ok(buzzerService.rejectBuzz(id));
+    }
+
+    // Таймер ответа запускается выбором вопроса; пауза и продолжение — по команде ведущего
+    @PostMapping("/questions/{id}/timer/pause")
+    public ResponseEntity<QuestionTimerDto> pauseTimer(@PathVariable Long id) {
+        return ResponseEntity.ok(questionTimerService.pause(id));
+    }
+
+    @PostMapping("/questions/{id}/timer/resume")
+    public ResponseEntity<QuestionTimerDto> resumeTimer(@PathVariable Long id) {
+        return ResponseEntity.ok(questionTimerService.resume(id));
     }
 }
\ No newline at end of file
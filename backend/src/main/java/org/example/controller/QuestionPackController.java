@@ -0,0 +1,42 @@
+package org.example.controller;
+
+import org.example.dto.PackImportResultDto;
+import org.example.service.QuestionPackService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+// Пакеты вопросов в формате JSON Lines: одна строка — {category, questionText, answerText, points}
+@RestController
+@RequestMapping("/api/games")
+public class QuestionPackController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private QuestionPackService questionPackService;
+
+    @PostMapping(value = "/pack", consumes = NDJSON)
+    public ResponseEntity<PackImportResultDto> importNewGame(@RequestParam String title, InputStream body) {
+        return ResponseEntity.ok(questionPackService.importIntoNewGame(title, body));
+    }
+
+    @PostMapping(value = "/{gameId}/pack", consumes = NDJSON)
+    public ResponseEntity<PackImportResultDto> importIntoGame(@PathVariable Long gameId, InputStream body) {
+        return ResponseEntity.ok(questionPackService.importIntoGame(gameId, body));
+    }
+
+    @GetMapping("/{gameId}/pack")
+    public ResponseEntity<StreamingResponseBody> exportPack(@PathVariable Long gameId) {
+        questionPackService.checkGameExists(gameId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"game-" + gameId + ".jsonl\"")
+                .body(output -> questionPackService.exportPack(gameId, output));
+    }
+}
@@ -1,12 +1,17 @@
 package org.example.controller;
 
 import org.example.dto.CreateTeamDto;
+import org.example.dto.RankedTeamDto;
+import org.example.dto.RankingDto;
 import org.example.dto.TeamDto;
 import org.example.dto.UpdateTeamDto;
+import org.example.service.GameService;
 import org.example.service.TeamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,6 +22,9 @@ public class TeamController {
     @Autowired
     private TeamService teamService;
 
+    @Autowired
+    private GameService gameService;
+
     @PostMapping("/games/{gameId}/teams")
     public ResponseEntity<TeamDto> createTeam(@PathVariable Long gameId, @RequestBody CreateTeamDto dto) {
         return ResponseEntity.ok(teamService.createTeam(gameId, dto));
@@ -28,8 +36,12 @@ public class TeamController {
     }
 
     @GetMapping("/games/{gameId}/teams")
-    public ResponseEntity<List<TeamDto>> getTeamsByGame(@PathVariable Long gameId) {
-        return ResponseEntity.ok(teamService.getTeamsByGame(gameId));
+    public ResponseEntity<List<TeamDto>> getTeamsByGame(@PathVariable Long gameId, WebRequest request) {
+        String etag = String.valueOf(gameService.getVersion(gameId));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(teamService.getTeamsByGame(gameId));
     }
 
     @PutMapping("/teams/{id}")
@@ -44,7 +56,26 @@ public class TeamController {
     }
 
     @GetMapping("/games/{gameId}/ranking")
-    public ResponseEntity<List<TeamDto>> getRanking(@PathVariable Long gameId) {
-        return ResponseEntity.ok(teamService.getRanking(gameId));
+    public ResponseEntity<List<TeamDto>> getRanking(@PathVariable Long gameId, WebRequest request) {
+        String etag = String.valueOf(gameService.getVersion(gameId));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(teamService.getRanking(gameId));
+    }
+
+    @GetMapping("/games/{gameId}/ranking/top")
+    public ResponseEntity<RankingDto> getTopTeams(@PathVariable Long gameId, @RequestParam(defaultValue = "10") int n) {
+        return ResponseEntity.ok(teamService.getTopTeams(gameId, n));
+    }
+
+    @GetMapping("/games/{gameId}/ranking/changes")
+    public ResponseEntity<RankingDto> getRankingChanges(@PathVariable Long gameId, @RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(teamService.getRankingChanges(gameId, since));
+    }
+
+    @GetMapping("/teams/{id}/rank")
+    public ResponseEntity<RankedTeamDto> getTeamRank(@PathVariable Long id) {
+        return ResponseEntity.ok(teamService.getTeamRank(id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package org.example.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Сводная статистика по завершённым играм
+@Data
+public class AnalyticsDto {
+    private long games;
+    private Double averageWinningScore;
+    private Double averageScoreSpread;
+    private Integer maxScoreSpread;
+    private List<AnswerRateDto> byPoints;
+    private List<AnswerRateDto> byCategory;
+    private List<UnansweredQuestionDto> mostUnanswered;
+    // Последние завершённые игры: победный счёт и разброс
+    private List<GameScoreDto> recentGames;
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,13 @@
+package org.example.dto;
+
+import lombok.Data;
+
+// Доля отвеченных вопросов по стоимости или по названию категории
+@Data
+public class AnswerRateDto {
+    private String categoryName;
+    private Integer points;
+    private long questions;
+    private long answered;
+    private double answerRate;
+}
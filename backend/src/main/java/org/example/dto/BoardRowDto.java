@@ -0,0 +1,18 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Плоская строка доски: категория и (возможно отсутствующий) вопрос из одного left join
+@Data
+@AllArgsConstructor
+public class BoardRowDto {
+    private Long gameId;
+    private Long categoryId;
+    private String categoryName;
+    private Long questionId;
+    private String questionText;
+    private String answerText;
+    private Integer points;
+    private Boolean answered;
+}
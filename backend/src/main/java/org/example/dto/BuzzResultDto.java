@@ -0,0 +1,14 @@
+package org.example.dto;
+
+import lombok.Data;
+
+// Состояние кнопки вопроса; won и teamId заполняются в ответе на нажатие команды
+@Data
+public class BuzzResultDto {
+    private Long questionId;
+    private Long teamId;
+    private boolean won;
+    private Long winnerTeamId;
+    // Время от открытия кнопки до нажатия победителя
+    private Long reactionMicros;
+}
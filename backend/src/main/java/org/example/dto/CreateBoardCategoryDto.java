@@ -0,0 +1,12 @@
+package org.example.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CreateBoardCategoryDto {
+    private String name;
+    private List<CreateQuestionDto> questions = new ArrayList<>();
+}
@@ -0,0 +1,14 @@
+package org.example.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Вся доска целиком: игра, категории с вопросами и команды
+@Data
+public class CreateBoardDto {
+    private String title;
+    private List<CreateBoardCategoryDto> categories = new ArrayList<>();
+    private List<CreateTeamDto> teams = new ArrayList<>();
+}
@@ -0,0 +1,13 @@
+package org.example.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+
+// Ответ на создание вопроса: сам вопрос и почти совпадающие вопросы из банка всех игр
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class CreatedQuestionDto extends QuestionDto {
+    private List<QuestionSearchHitDto> similarQuestions;
+}
@@ -0,0 +1,15 @@
+package org.example.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Изменения с версии клиента; если full, вместо изменений передаётся вся игра в game
+@Data
+public class GameChangesDto {
+    private long version;
+    private boolean full;
+    private GameDto game;
+    private List<QuestionStateDto> questions;
+    private List<TeamDto> teams;
+}
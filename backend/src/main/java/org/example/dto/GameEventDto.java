@@ -0,0 +1,87 @@
+package org.example.dto;
+
+import lombok.Data;
+import org.example.entity.GameStatus;
+
+@Data
+public class GameEventDto {
+    public static final String QUESTION_ANSWERED = "question-answered";
+    public static final String QUESTION_REOPENED = "question-reopened";
+    public static final String SCORE_CHANGED = "score-changed";
+    public static final String BUZZER_OPENED = "buzzer-opened";
+    public static final String BUZZER_WON = "buzzer-won";
+    public static final String TIMER_STARTED = "timer-started";
+    public static final String TIMER_PAUSED = "timer-paused";
+    public static final String TIMER_RESUMED = "timer-resumed";
+    public static final String TIMER_EXPIRED = "timer-expired";
+    public static final String STATUS_CHANGED = "status-changed";
+
+    private String type;
+    private Long gameId;
+    private Long questionId;
+    private Long teamId;
+    private Integer score;
+    // Для событий таймера: сколько осталось на момент события
+    private Long remainingMs;
+    // Для status-changed: новый статус игры
+    private GameStatus status;
+
+    public static GameEventDto questionAnswered(Long gameId, Long questionId) {
+        GameEventDto event = new GameEventDto();
+        event.setType(QUESTION_ANSWERED);
+        event.setGameId(gameId);
+        event.setQuestionId(questionId);
+        return event;
+    }
+
+    public static GameEventDto questionReopened(Long gameId, Long questionId) {
+        GameEventDto event = new GameEventDto();
+        event.setType(QUESTION_REOPENED);
+        event.setGameId(gameId);
+        event.setQuestionId(questionId);
+        return event;
+    }
+
+    public static GameEventDto scoreChanged(Long gameId, Long teamId, int score) {
+        GameEventDto event = new GameEventDto();
+        event.setType(SCORE_CHANGED);
+        event.setGameId(gameId);
+        event.setTeamId(teamId);
+        event.setScore(score);
+        return event;
+    }
+
+    public static GameEventDto buzzerOpened(Long gameId, Long questionId) {
+        GameEventDto event = new GameEventDto();
+        event.setType(BUZZER_OPENED);
+        event.setGameId(gameId);
+        event.setQuestionId(questionId);
+        return event;
+    }
+
+    public static GameEventDto buzzerWon(Long gameId, Long questionId, Long teamId) {
+        GameEventDto event = new GameEventDto();
+        event.setType(BUZZER_WON);
+        event.setGameId(gameId);
+        event.setQuestionId(questionId);
+        event.setTeamId(teamId);
+        return event;
+    }
+
+    public static GameEventDto statusChanged(Long gameId, GameStatus status) {
+        GameEventDto event = new GameEventDto();
+        event.setType(STATUS_CHANGED);
+        event.setGameId(gameId);
+        event.setStatus(status);
+        return event;
+    }
+
+    public static GameEventDto timer(String type, Long gameId, Long questionId, long remainingMs) {
+        GameEventDto event = new GameEventDto();
+        event.setType(type);
+        event.setGameId(gameId);
+        event.setQuestionId(questionId);
+        event.setRemainingMs(remainingMs);
+        return event;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package org.example.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class GamePageDto {
+    private List<GameSummaryDto> items;
+    private Long nextCursor; // id последней игры страницы, null если дальше ничего нет
+}
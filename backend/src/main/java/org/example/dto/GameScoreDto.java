@@ -0,0 +1,14 @@
+package org.example.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class GameScoreDto {
+    private Long gameId;
+    private String title;
+    private LocalDateTime finishedAt;
+    private Integer winningScore;
+    private Integer scoreSpread;
+}
@@ -0,0 +1,20 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.entity.GameStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GameSummaryDto {
+    private Long id;
+    private String title;
+    private GameStatus status;
+    private long teamCount;
+    private long questionCount;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package org.example.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Параметры доски, собираемой из банка вопросов
+@Data
+public class GenerateBoardDto {
+    private String title;
+    private int categoryCount = 6;
+    private List<Integer> points = new ArrayList<>(List.of(100, 200, 300, 400, 500, 600));
+    // Только из этих категорий банка; пусто — из любых
+    private List<String> categoryNames = new ArrayList<>();
+    // Не брать вопросы, уже звучавшие в последних K играх
+    private int excludeLastGames;
+    // Для воспроизводимой доски
+    private Long seed;
+    private List<CreateTeamDto> teams = new ArrayList<>();
+}
@@ -0,0 +1,10 @@
+package org.example.dto;
+
+import lombok.Data;
+
+@Data
+public class PackImportResultDto {
+    private Long gameId;
+    private int createdCategories;
+    private int importedQuestions;
+}
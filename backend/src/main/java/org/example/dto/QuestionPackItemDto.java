@@ -0,0 +1,16 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Одна строка пакета вопросов (JSON Lines)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionPackItemDto {
+    private String category;
+    private String questionText;
+    private String answerText;
+    private int points;
+}
@@ -0,0 +1,16 @@
+package org.example.dto;
+
+import lombok.Data;
+
+@Data
+public class QuestionSearchHitDto {
+    private Long id;
+    private Long gameId;
+    private Long categoryId;
+    private String categoryName;
+    private String questionText;
+    private String answerText;
+    private int points;
+    // Релевантность поиска или, для похожих вопросов, доля общих слов (0..1)
+    private double score;
+}
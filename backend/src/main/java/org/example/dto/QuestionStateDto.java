@@ -0,0 +1,9 @@
+package org.example.dto;
+
+import lombok.Data;
+
+@Data
+public class QuestionStateDto {
+    private Long id;
+    private boolean answered;
+}
@@ -0,0 +1,11 @@
+package org.example.dto;
+
+import lombok.Data;
+
+@Data
+public class QuestionTimerDto {
+    private Long questionId;
+    private long durationMs;
+    private long remainingMs;
+    private boolean paused;
+}
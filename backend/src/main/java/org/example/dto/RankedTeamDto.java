@@ -0,0 +1,11 @@
+package org.example.dto;
+
+import lombok.Data;
+
+@Data
+public class RankedTeamDto {
+    private Long id;
+    private String name;
+    private int score;
+    private int rank;
+}
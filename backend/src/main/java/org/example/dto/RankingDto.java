@@ -0,0 +1,11 @@
+package org.example.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class RankingDto {
+    private long version;
+    private List<RankedTeamDto> teams;
+}
@@ -0,0 +1,17 @@
+package org.example.dto;
+
+import lombok.Data;
+import org.example.entity.GameStatus;
+
+import java.util.List;
+
+// Доска и рейтинг для зрителей: answerText есть только у вопросов, на которые уже ответили
+@Data
+public class SpectatorSnapshotDto {
+    private Long gameId;
+    private String title;
+    private GameStatus status;
+    private long version;
+    private List<CategoryDto> categories;
+    private List<RankedTeamDto> ranking;
+}
@@ -0,0 +1,12 @@
+package org.example.dto;
+
+import lombok.Data;
+
+@Data
+public class UnansweredQuestionDto {
+    private String questionText;
+    private String categoryName;
+    private int points;
+    // В скольких завершённых играх вопрос остался без ответа
+    private long times;
+}
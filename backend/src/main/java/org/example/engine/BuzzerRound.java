@@ -0,0 +1,118 @@
+package org.example.engine;
+
+import lombok.Getter;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Кнопка для одного открытого вопроса. Всё состояние раунда — одна неизменяемая запись
+ * в AtomicReference, так что нажатия и решение сравниваются и меняются одним CAS без блокировок.
+ * Побеждает нажатие с наименьшим временем прихода (System.nanoTime при приёме запроса),
+ * а не то, чей CAS прошёл первым: первое нажатие лишь открывает окно арбитража,
+ * по истечении которого победитель фиксируется и остальные нажатия отклоняются.
+ */
+public class BuzzerRound {
+
+    public enum Outcome {
+        // Первое нажатие раунда: вызывающий отвечает за decide() по истечении окна
+        OPENED,
+        ACCEPTED,
+        // Победитель уже определён
+        LATE
+    }
+
+    @Getter
+    private final Long questionId;
+
+    @Getter
+    private final long openedAt;
+
+    // Команды, которым ведущий не засчитал ответ: в этом вопросе они больше не нажимают
+    private final Set<Long> lockedOut;
+
+    private final AtomicReference<State> state = new AtomicReference<>(new State(null, false));
+    private final CompletableFuture<Press> winner = new CompletableFuture<>();
+
+    BuzzerRound(Long questionId, long openedAt, Set<Long> lockedOut) {
+        this.questionId = questionId;
+        this.openedAt = openedAt;
+        this.lockedOut = Set.copyOf(lockedOut);
+    }
+
+    public Outcome press(Long teamId, long pressedAt) {
+        if (lockedOut.contains(teamId)) {
+            throw new RuntimeException("Team is locked out of this question");
+        }
+        // Запрос пришёл до открытия этого раунда (например, до повторного открытия после отклонённого ответа)
+        if (pressedAt < openedAt) {
+            throw new RuntimeException("Press arrived before the buzzer opened");
+        }
+        Press press = new Press(teamId, pressedAt);
+        while (true) {
+            State current = state.get();
+            if (current.decided()) {
+                return Outcome.LATE;
+            }
+            Press earliest = current.earliest();
+            if (earliest != null && earliest.pressedAt() <= pressedAt) {
+                return Outcome.ACCEPTED;
+            }
+            if (state.compareAndSet(current, new State(press, false))) {
+                return earliest == null ? Outcome.OPENED : Outcome.ACCEPTED;
+            }
+        }
+    }
+
+    // Закрывает окно арбитража; повторный вызов возвращает того же победителя
+    public Press decide() {
+        while (true) {
+            State current = state.get();
+            if (current.decided()) {
+                return current.earliest();
+            }
+            if (state.compareAndSet(current, new State(current.earliest(), true))) {
+                winner.complete(current.earliest());
+                return current.earliest();
+            }
+        }
+    }
+
+    // Вопрос разрешён или кнопка сброшена до конца окна: раунд закрывается без победителя
+    public void cancel() {
+        while (true) {
+            State current = state.get();
+            if (current.decided()) {
+                return;
+            }
+            if (state.compareAndSet(current, new State(null, true))) {
+                winner.complete(null);
+                return;
+            }
+        }
+    }
+
+    // Завершается победителем или null, если раунд отменён
+    public CompletableFuture<Press> getWinner() {
+        return winner;
+    }
+
+    // Новый раунд того же вопроса без победителя этого раунда
+    BuzzerRound reopen(long now) {
+        Press press = winner.getNow(null);
+        if (press == null) {
+            throw new RuntimeException("Buzzer has no winner to reject");
+        }
+        Set<Long> teams = new HashSet<>(lockedOut);
+        teams.add(press.teamId());
+        return new BuzzerRound(questionId, now, teams);
+    }
+
+    public record Press(Long teamId, long pressedAt) {
+    }
+
+    private record State(Press earliest, boolean decided) {
+    }
+}
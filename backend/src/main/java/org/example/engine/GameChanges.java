@@ -0,0 +1,7 @@
+package org.example.engine;
+
+import java.util.Map;
+
+// Изменения игры после версии клиента: answered вопросов и счёт команд на момент version
+public record GameChanges(long version, Map<Long, Boolean> questions, Map<Long, Integer> teams) {
+}
@@ -0,0 +1,62 @@
+package org.example.engine;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Журнал действий одной игры. Записи добавляются и ждут fsync под блокировкой {@link LiveGame}
+ * до изменения памяти, поэтому порядок в файле совпадает с порядком изменений, а в памяти
+ * есть только подтверждённые действия. Group commit объединяет fsync записей разных игр.
+ */
+public class GameJournal {
+
+    // Журнал для режима без файлов: все записи сразу считаются сохранёнными
+    static final GameJournal DISABLED = new GameJournal(null, null, null, 0);
+
+    private final GameJournalManager manager;
+    private final Path path;
+    private final FileChannel channel;
+    private long nextSeq;
+
+    GameJournal(GameJournalManager manager, Path path, FileChannel channel, long nextSeq) {
+        this.manager = manager;
+        this.path = path;
+        this.channel = channel;
+        this.nextSeq = nextSeq;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    FileChannel getChannel() {
+        return channel;
+    }
+
+    CompletableFuture<Void> append(long version, JournalRecord.Type type, Long questionId, Long teamId, int points) {
+        if (channel == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        JournalRecord record = new JournalRecord(nextSeq++, version, type, questionId, teamId, points);
+        return manager.enqueue(this, record.encode());
+    }
+
+    // После неудачной записи: файл начинается заново со START и текущего состояния игры
+    GameJournal restart(LiveGame live) {
+        if (channel == null) {
+            return this;
+        }
+        manager.close(this);
+        return manager.create(live);
+    }
+
+    static void await(CompletableFuture<Void> durable) {
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Journal write failed", e.getCause());
+        }
+    }
+}
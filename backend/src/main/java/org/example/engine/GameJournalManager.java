@@ -0,0 +1,287 @@
+package org.example.engine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Файлы журналов игр: один файл на запущенную игру, записи только дописываются в конец.
+ * Все записи проходят через одну очередь: поток записи забирает всё накопившееся,
+ * пишет в каналы и делает один fsync на каждый затронутый файл (group commit),
+ * после чего подтверждает всю пачку разом.
+ */
+@Component
+public class GameJournalManager {
+
+    private static final Logger log = LoggerFactory.getLogger(GameJournalManager.class);
+
+    private static final Pattern FILE_NAME = Pattern.compile("game-(\\d+)\\.journal");
+
+    @Value("${game.journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${game.journal.dir:journal}")
+    private String dir;
+
+    @Value("${game.journal.fsync:true}")
+    private boolean fsync;
+
+    @Value("${game.journal.max-batch:1024}")
+    private int maxBatch;
+
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+    private Thread writer;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(Paths.get(dir));
+        running = true;
+        writer = new Thread(this::writeLoop, "game-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Начинает новый журнал игры, затирая оставшийся от прошлых запусков файл.
+     * Первой записью всегда идёт START, за ней — значения, отличающиеся от исходных.
+     */
+    GameJournal create(LiveGame live) {
+        if (!enabled) {
+            return GameJournal.DISABLED;
+        }
+        Path path = pathOf(live.getId());
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            GameJournal journal = new GameJournal(this, path, channel, 1);
+            try {
+                GameJournal.await(live.writeBaseline(journal));
+            } catch (RuntimeException e) {
+                close(journal);
+                throw e;
+            }
+            return journal;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create journal " + path, e);
+        }
+    }
+
+    /**
+     * Читает журнал игры. Повреждённый хвост (запись, оборванная при падении процесса)
+     * отрезается. Пустой список — журнала нет или он не начинается с START.
+     */
+    List<JournalRecord> read(Long gameId) {
+        if (!enabled) {
+            return List.of();
+        }
+        Path path = pathOf(gameId);
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+        List<JournalRecord> records = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(JournalRecord.SIZE * 256);
+            long valid = 0;
+            boolean corrupted = false;
+            while (!corrupted && channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.remaining() >= JournalRecord.SIZE) {
+                    JournalRecord record = JournalRecord.decode(buffer);
+                    if (record == null) {
+                        corrupted = true;
+                        break;
+                    }
+                    records.add(record);
+                    valid += JournalRecord.SIZE;
+                }
+                buffer.compact();
+            }
+            if (valid < channel.size()) {
+                log.warn("Truncating journal {} from {} to {} bytes", path, channel.size(), valid);
+                channel.truncate(valid);
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read journal " + path, e);
+        }
+        if (records.isEmpty() || records.get(0).type() != JournalRecord.Type.START) {
+            return List.of();
+        }
+        return records;
+    }
+
+    boolean exists(Long gameId) {
+        return enabled && Files.exists(pathOf(gameId));
+    }
+
+    // Продолжает существующий журнал после восстановления
+    GameJournal reopen(Long gameId, long nextSeq) {
+        Path path = pathOf(gameId);
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+            return new GameJournal(this, path, channel, nextSeq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal " + path, e);
+        }
+    }
+
+    // Игра завершена или удалена: журнал больше не нужен, состояние уже в БД
+    void delete(GameJournal journal) {
+        if (journal.getChannel() == null) {
+            return;
+        }
+        try {
+            journal.getChannel().close();
+            Files.deleteIfExists(journal.getPath());
+        } catch (IOException e) {
+            log.warn("Cannot delete journal {}", journal.getPath(), e);
+        }
+    }
+
+    void close(GameJournal journal) {
+        if (journal.getChannel() == null) {
+            return;
+        }
+        try {
+            journal.getChannel().close();
+        } catch (IOException e) {
+            log.warn("Cannot close journal {}", journal.getPath(), e);
+        }
+    }
+
+    // Удаляет журналы игр, которых нет среди запущенных (завершены до падения процесса или удалены)
+    void deleteAllExcept(Set<Long> gameIds) {
+        if (!enabled) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(dir), "game-*.journal")) {
+            for (Path file : files) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches() && !gameIds.contains(Long.parseLong(matcher.group(1)))) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Cannot clean up journal directory {}", dir, e);
+        }
+    }
+
+    CompletableFuture<Void> enqueue(GameJournal journal, ByteBuffer data) {
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        if (!running) {
+            durable.completeExceptionally(new IllegalStateException("Journal writer is stopped"));
+            return durable;
+        }
+        queue.add(new PendingWrite(journal, data, durable));
+        return durable;
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        // Порядок записей одного журнала сохраняется: очередь общая и FIFO
+        Map<GameJournal, IOException> failures = new HashMap<>();
+        Set<GameJournal> touched = new LinkedHashSet<>();
+        for (PendingWrite write : batch) {
+            if (failures.containsKey(write.journal())) {
+                continue;
+            }
+            try {
+                while (write.data().hasRemaining()) {
+                    write.journal().getChannel().write(write.data());
+                }
+                touched.add(write.journal());
+            } catch (IOException e) {
+                failures.put(write.journal(), e);
+            }
+        }
+        if (fsync) {
+            for (GameJournal journal : touched) {
+                if (failures.containsKey(journal)) {
+                    continue;
+                }
+                try {
+                    journal.getChannel().force(false);
+                } catch (IOException e) {
+                    failures.put(journal, e);
+                }
+            }
+        }
+        for (PendingWrite write : batch) {
+            IOException failure = failures.get(write.journal());
+            if (failure != null) {
+                log.error("Journal write failed: {}", write.journal().getPath(), failure);
+                write.durable().completeExceptionally(failure);
+            } else {
+                write.durable().complete(null);
+            }
+        }
+    }
+
+    private Path pathOf(Long gameId) {
+        return Paths.get(dir, "game-" + gameId + ".journal");
+    }
+
+    private record PendingWrite(GameJournal journal, ByteBuffer data, CompletableFuture<Void> durable) {
+    }
+}
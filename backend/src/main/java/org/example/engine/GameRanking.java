@@ -0,0 +1,217 @@
+package org.example.engine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Рейтинг команд игры, поддерживаемый инкрементально. Команды упорядочены по (score desc, id asc),
+ * поэтому при равенстве очков порядок стабилен. Порядок хранится в декартовом дереве с размерами
+ * поддеревьев: изменение счёта и место команды — O(log n) без пересортировки.
+ * Для каждой команды запоминается версия игры, в которой менялись её счёт или место.
+ * Класс не потокобезопасен: доступ идёт под блокировкой {@link LiveGame}.
+ */
+class GameRanking {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::score).reversed()
+            .thenComparing(Entry::teamId);
+
+    private Node root;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, Long> changedAt = new HashMap<>();
+
+    GameRanking(Collection<LiveTeam> teams) {
+        for (LiveTeam team : teams) {
+            Entry entry = new Entry(team.getId(), team.getScore());
+            root = insert(root, new Node(entry));
+            entries.put(team.getId(), entry);
+        }
+    }
+
+    /**
+     * Меняет счёт команды. Команды между её прежним и новым местом сдвигаются на одно место,
+     * поэтому тоже попадают в изменения этой версии.
+     *
+     * @param version версия игры, в которой произошло изменение
+     */
+    void update(Long teamId, int score, long version) {
+        Entry previous = entries.get(teamId);
+        if (previous != null && previous.score() == score) {
+            return;
+        }
+        Entry entry = new Entry(teamId, score);
+        if (previous != null) {
+            root = remove(root, previous);
+        }
+        root = insert(root, new Node(entry));
+        entries.put(teamId, entry);
+        changedAt.put(teamId, version);
+        if (previous != null) {
+            boolean up = ORDER.compare(entry, previous) < 0;
+            for (Long shifted : between(up ? entry : previous, up ? previous : entry)) {
+                changedAt.put(shifted, version);
+            }
+        }
+    }
+
+    List<Long> top(int n) {
+        List<Long> result = new ArrayList<>(Math.min(n, entries.size()));
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        while ((node != null || !path.isEmpty()) && result.size() < n) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+            node = path.pop();
+            result.add(node.entry.teamId());
+            node = node.right;
+        }
+        return result;
+    }
+
+    // Место команды, начиная с 1
+    int rankOf(Long teamId) {
+        Entry entry = entries.get(teamId);
+        if (entry == null) {
+            throw new RuntimeException("Team not found");
+        }
+        int ahead = 0;
+        Node node = root;
+        while (node != null) {
+            int compare = ORDER.compare(entry, node.entry);
+            if (compare <= 0) {
+                node = node.left;
+            } else {
+                ahead += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return ahead + 1;
+    }
+
+    // Команды, у которых после версии since менялись счёт или место, в порядке рейтинга
+    List<Long> changedSince(long since) {
+        List<Long> result = new ArrayList<>();
+        for (Long teamId : top(entries.size())) {
+            if (changedAt.getOrDefault(teamId, 0L) > since) {
+                result.add(teamId);
+            }
+        }
+        return result;
+    }
+
+    // Команды строго между двумя записями рейтинга
+    private List<Long> between(Entry low, Entry high) {
+        List<Long> result = new ArrayList<>();
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        while (node != null || !path.isEmpty()) {
+            while (node != null) {
+                path.push(node);
+                // Левое поддерево целиком не больше low — спускаться в него незачем
+                node = ORDER.compare(node.entry, low) > 0 ? node.left : null;
+            }
+            node = path.pop();
+            if (ORDER.compare(node.entry, high) >= 0) {
+                break;
+            }
+            if (ORDER.compare(node.entry, low) > 0) {
+                result.add(node.entry.teamId());
+            }
+            node = node.right;
+        }
+        return result;
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.priority > node.priority) {
+            Node[] parts = split(node, added.entry);
+            added.left = parts[0];
+            added.right = parts[1];
+            return added.update();
+        }
+        if (ORDER.compare(added.entry, node.entry) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return node.update();
+    }
+
+    private static Node remove(Node node, Entry entry) {
+        int compare = ORDER.compare(entry, node.entry);
+        if (compare == 0) {
+            return merge(node.left, node.right);
+        }
+        if (compare < 0) {
+            node.left = remove(node.left, entry);
+        } else {
+            node.right = remove(node.right, entry);
+        }
+        return node.update();
+    }
+
+    // Записи меньше entry и остальные
+    private static Node[] split(Node node, Entry entry) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (ORDER.compare(node.entry, entry) < 0) {
+            Node[] parts = split(node.right, entry);
+            node.right = parts[0];
+            return new Node[]{node.update(), parts[1]};
+        }
+        Node[] parts = split(node.left, entry);
+        node.left = parts[1];
+        return new Node[]{parts[0], node.update()};
+    }
+
+    // Все записи left меньше записей right
+    private static Node merge(Node left, Node right) {
+        if (left == null || right == null) {
+            return left != null ? left : right;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return left.update();
+        }
+        right.left = merge(left, right.left);
+        return right.update();
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private record Entry(Long teamId, int score) {
+    }
+
+    private static final class Node {
+        private final Entry entry;
+        // Приоритет из перемешанного id: дерево сбалансировано в среднем и одинаково от запуска к запуску
+        private final long priority;
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(Entry entry) {
+            this.entry = entry;
+            long mixed = entry.teamId() * 0x9E3779B97F4A7C15L;
+            this.priority = (mixed ^ (mixed >>> 31)) * 0xBF58476D1CE4E5B9L;
+        }
+
+        private Node update() {
+            size = 1 + size(left) + size(right);
+            return this;
+        }
+    }
+}
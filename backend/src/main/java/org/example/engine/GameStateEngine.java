@@ -0,0 +1,355 @@
+package org.example.engine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.cluster.GameLeaseManager;
+import org.example.entity.Game;
+import org.example.entity.GameStatus;
+import org.example.repository.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Авторитетное состояние запущенных игр. Доска и команды загружаются один раз при старте
+ * игры, все чтения и изменения фазы STARTED обслуживаются из памяти, а изменения
+ * пакетами дописываются в таблицы questions/teams в фоне (write-behind).
+ * При завершении игры состояние сбрасывается в БД синхронно. Действия игры пишутся
+ * в журнал ({@link GameJournalManager}), по которому состояние восстанавливается при запуске.
+ * В кластерном режиме движок держит только игры, аренду которых взял этот узел ({@link GameLeaseManager}).
+ */
+@Component
+public class GameStateEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(GameStateEngine.class);
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GameJournalManager journalManager;
+
+    @Autowired
+    private GameLeaseManager leaseManager;
+
+    @Value("${game.engine.enabled:true}")
+    private boolean enabled;
+
+    @Value("${game.engine.change-log-size:256}")
+    private int changeLogSize;
+
+    private final Map<Long, LiveGame> games = new ConcurrentHashMap<>();
+    private final Map<Long, Long> gameIdByQuestion = new ConcurrentHashMap<>();
+    private final Map<Long, Long> gameIdByTeam = new ConcurrentHashMap<>();
+    private final Map<Long, Long> gameIdByCategory = new ConcurrentHashMap<>();
+    private final ReentrantLock takeOverLock = new ReentrantLock();
+
+    // Запись в БД всегда идёт в собственной транзакции: откат вызывающего кода
+    // не должен отменять уже снятые из памяти изменения
+    private TransactionTemplate writeTransaction;
+
+    @PostConstruct
+    public void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public LiveGame find(Long gameId) {
+        return games.get(gameId);
+    }
+
+    public LiveGame findByQuestion(Long questionId) {
+        Long gameId = gameIdByQuestion.get(questionId);
+        return gameId == null ? null : games.get(gameId);
+    }
+
+    public LiveGame findByTeam(Long teamId) {
+        Long gameId = gameIdByTeam.get(teamId);
+        return gameId == null ? null : games.get(gameId);
+    }
+
+    public LiveGame findByCategory(Long categoryId) {
+        Long gameId = gameIdByCategory.get(categoryId);
+        return gameId == null ? null : games.get(gameId);
+    }
+
+    /**
+     * Строит состояние из сущности игры. Вызывается внутри транзакции, чтобы можно было
+     * пройтись по ленивым коллекциям; в движке игра регистрируется только после коммита.
+     */
+    public void load(Game game) {
+        if (!enabled) {
+            return;
+        }
+        // Аренда берётся в транзакции старта: при откате она не остаётся за узлом
+        if (!leaseManager.tryAcquire(game.getId())) {
+            throw new IllegalStateException("Game is owned by another node");
+        }
+        LiveGame live = toLiveGame(game);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    live.attachJournal(journalManager.create(live));
+                    register(live);
+                }
+            });
+        } else {
+            live.attachJournal(journalManager.create(live));
+            register(live);
+        }
+    }
+
+    /**
+     * Завершение игры в транзакции вызывающего кода. Игра перестаёт принимать действия и синхронно
+     * записывается в БД, чтобы транзакция прочитала актуальное состояние; из движка она убирается
+     * только после коммита. При откате или неудачной записи игра снова принимает действия,
+     * а её журнал остаётся для восстановления.
+     */
+    public void flushForFinish(Long gameId) {
+        LiveGame live = games.get(gameId);
+        if (live == null) {
+            return;
+        }
+        live.close();
+        try {
+            flush(live);
+        } catch (RuntimeException e) {
+            live.reopen();
+            throw e;
+        }
+        afterCommit(() -> {
+            evict(gameId);
+            release(live, true);
+        }, live::reopen);
+    }
+
+    // Удаление игры: журнал удаляется после коммита, при откате остаётся для восстановления
+    public void discard(Long gameId) {
+        LiveGame live = evict(gameId);
+        if (live != null) {
+            afterCommit(() -> release(live, true), () -> release(live, false));
+        }
+    }
+
+    /**
+     * Забирает запущенную игру, у которой нет действующего владельца (узел упал или отдал аренду).
+     * Состояние строится из БД: журнал прежнего владельца остался на его диске, поэтому
+     * теряются изменения за последний интервал write-behind. Возвращает null, если аренду
+     * успел взять другой узел или игра уже не запущена.
+     */
+    public LiveGame takeOver(Long gameId) {
+        if (!enabled) {
+            return null;
+        }
+        takeOverLock.lock();
+        try {
+            LiveGame live = games.get(gameId);
+            if (live != null || !leaseManager.tryAcquire(gameId)) {
+                return live;
+            }
+            live = transactionTemplate.execute(status -> gameRepository.findById(gameId)
+                    .filter(game -> game.getStatus() == GameStatus.STARTED)
+                    .map(game -> recover(toLiveGame(game)))
+                    .orElse(null));
+            if (live == null) {
+                leaseManager.release(gameId);
+                return null;
+            }
+            register(live);
+            log.info("Took over game {}", gameId);
+            return live;
+        } finally {
+            takeOverLock.unlock();
+        }
+    }
+
+    // Продление аренд; игры, которые забрал другой узел, выгружаются без записи в БД
+    @Scheduled(fixedDelayString = "${game.cluster.lease-renew-ms:5000}")
+    public void renewLeases() {
+        if (!leaseManager.isEnabled() || games.isEmpty()) {
+            return;
+        }
+        try {
+            for (Long gameId : leaseManager.renew(games.keySet())) {
+                LiveGame live = evict(gameId);
+                if (live != null) {
+                    log.warn("Lease for game {} lost, unloading it", gameId);
+                    journalManager.delete(live.getJournal());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Lease renewal failed", e);
+        }
+    }
+
+    // Игра покинула движок: журнал удаляется (состояние в БД) или закрывается, аренда освобождается
+    private void release(LiveGame live, boolean deleteJournal) {
+        if (deleteJournal) {
+            journalManager.delete(live.getJournal());
+        } else {
+            journalManager.close(live.getJournal());
+        }
+        try {
+            leaseManager.release(live.getId());
+        } catch (RuntimeException e) {
+            log.warn("Cannot release lease for game {}", live.getId(), e);
+        }
+    }
+
+    private void afterCommit(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    private LiveGame evict(Long gameId) {
+        LiveGame live = games.remove(gameId);
+        if (live == null) {
+            return null;
+        }
+        live.close();
+        live.getQuestions().forEach(question -> gameIdByQuestion.remove(question.getId()));
+        live.getTeams().forEach(team -> gameIdByTeam.remove(team.getId()));
+        live.getCategories().forEach(category -> gameIdByCategory.remove(category.getId()));
+        return live;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadStartedGames() {
+        if (!enabled) {
+            return;
+        }
+        // В кластере узел забирает только игры со своим журналом, остальные достаются тому,
+        // к кому первым придёт запрос (takeOver)
+        transactionTemplate.executeWithoutResult(status -> gameRepository.findByStatus(GameStatus.STARTED).forEach(game -> {
+            if (!leaseManager.isEnabled() || journalManager.exists(game.getId()) && leaseManager.tryAcquire(game.getId())) {
+                register(recover(toLiveGame(game)));
+            }
+        }));
+        journalManager.deleteAllExcept(games.keySet());
+        log.info("Loaded {} started games into memory", games.size());
+    }
+
+    // Если у игры есть журнал, он авторитетнее БД: write-behind мог не успеть до падения процесса.
+    // Журнал с версией ниже, чем в БД, устарел: игрой успел поуправлять другой узел
+    private LiveGame recover(LiveGame live) {
+        List<JournalRecord> records = journalManager.read(live.getId());
+        if (records.isEmpty() || records.get(records.size() - 1).version() < live.getVersion()) {
+            live.attachJournal(journalManager.create(live));
+            return live;
+        }
+        live.replay(records);
+        live.attachJournal(journalManager.reopen(live.getId(), records.get(records.size() - 1).seq() + 1));
+        log.info("Replayed {} journal records for game {}", records.size(), live.getId());
+        return live;
+    }
+
+    @Scheduled(fixedDelayString = "${game.engine.flush-interval-ms:500}")
+    public void flushAll() {
+        for (LiveGame live : games.values()) {
+            try {
+                flush(live);
+            } catch (RuntimeException e) {
+                log.warn("Write-behind flush failed for game {}", live.getId(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushAll();
+    }
+
+    private void flush(LiveGame live) {
+        LiveGame.FlushBatch batch = live.drainDirty();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            writeTransaction.executeWithoutResult(status -> write(batch));
+        } catch (RuntimeException e) {
+            live.restoreDirty(batch);
+            throw e;
+        }
+    }
+
+    private void write(LiveGame.FlushBatch batch) {
+        leaseManager.checkOwned(batch.gameId());
+        if (!batch.questions().isEmpty()) {
+            List<Object[]> args = new ArrayList<>();
+            batch.questions().forEach((id, answered) -> args.add(new Object[]{answered, id}));
+            jdbcTemplate.batchUpdate("UPDATE questions SET answered = ? WHERE id = ?", args);
+        }
+        if (!batch.teams().isEmpty()) {
+            List<Object[]> args = new ArrayList<>();
+            batch.teams().forEach((id, score) -> args.add(new Object[]{score, id}));
+            jdbcTemplate.batchUpdate("UPDATE teams SET score = ? WHERE id = ?", args);
+        }
+        if (batch.version() != null) {
+            jdbcTemplate.update("UPDATE games SET version = ? WHERE id = ? AND version < ?",
+                    batch.version(), batch.gameId(), batch.version());
+        }
+    }
+
+    private void register(LiveGame live) {
+        games.put(live.getId(), live);
+        live.getQuestions().forEach(question -> gameIdByQuestion.put(question.getId(), live.getId()));
+        live.getTeams().forEach(team -> gameIdByTeam.put(team.getId(), live.getId()));
+        live.getCategories().forEach(category -> gameIdByCategory.put(category.getId(), live.getId()));
+    }
+
+    private LiveGame toLiveGame(Game game) {
+        List<LiveCategory> categories = game.getCategories().stream()
+                .map(category -> new LiveCategory(category.getId(), category.getName(), category.getQuestions().stream()
+                        .map(question -> new LiveQuestion(question.getId(), category.getId(), question.getQuestionText(),
+                                question.getAnswerText(), question.getPoints(), question.isAnswered()))
+                        .toList()))
+                .toList();
+        List<LiveTeam> teams = game.getTeams().stream()
+                .map(team -> new LiveTeam(team.getId(), team.getName(), team.getScore()))
+                .toList();
+        return new LiveGame(game.getId(), game.getTitle(), game.getVersion(), categories, teams, changeLogSize);
+    }
+}
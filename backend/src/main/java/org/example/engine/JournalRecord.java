@@ -0,0 +1,60 @@
+package org.example.engine;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Запись журнала игры фиксированного размера:
+ * seq(8) version(8) type(4) questionId(8) teamId(8) points(4) crc32(4).
+ * Отсутствующие id хранятся как 0.
+ */
+public record JournalRecord(long seq, long version, Type type, Long questionId, Long teamId, int points) {
+
+    static final int SIZE = 44;
+    private static final int PAYLOAD = SIZE - 4;
+
+    public enum Type {
+        // BASELINE — значение, отличное от исходного на момент START (игры, запущенные без журнала).
+        // FINISH больше не пишется: он остался в журналах прежних версий и при восстановлении пропускается
+        START, BASELINE, SELECT, RESOLVE, AWARD, UNDO, FINISH
+    }
+
+    ByteBuffer encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+        buffer.putLong(seq);
+        buffer.putLong(version);
+        buffer.putInt(type.ordinal());
+        buffer.putLong(questionId != null ? questionId : 0);
+        buffer.putLong(teamId != null ? teamId : 0);
+        buffer.putInt(points);
+        buffer.putInt(checksum(buffer.array()));
+        return buffer.flip();
+    }
+
+    // null, если запись повреждена (например, оборвана при падении процесса)
+    static JournalRecord decode(ByteBuffer buffer) {
+        byte[] bytes = new byte[SIZE];
+        buffer.get(bytes);
+        ByteBuffer data = ByteBuffer.wrap(bytes);
+        if (data.getInt(PAYLOAD) != checksum(bytes)) {
+            return null;
+        }
+        long seq = data.getLong();
+        long version = data.getLong();
+        int type = data.getInt();
+        long questionId = data.getLong();
+        long teamId = data.getLong();
+        int points = data.getInt();
+        if (type < 0 || type >= Type.values().length) {
+            return null;
+        }
+        return new JournalRecord(seq, version, Type.values()[type], questionId != 0 ? questionId : null,
+                teamId != 0 ? teamId : null, points);
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, PAYLOAD);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.engine;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class LiveCategory {
+    private final Long id;
+    private final String name;
+    private final List<LiveQuestion> questions;
+
+    LiveCategory(Long id, String name, List<LiveQuestion> questions) {
+        this.id = id;
+        this.name = name;
+        this.questions = List.copyOf(questions);
+    }
+}
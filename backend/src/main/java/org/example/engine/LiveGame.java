@@ -0,0 +1,562 @@
+package org.example.engine;
+
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Состояние запущенной игры в памяти. Структура доски и состав команд после старта
+ * не меняются, поэтому изменяемыми остаются только флаг answered и счёт команд.
+ * Все изменения выполняются под блокировкой игры, так что действия ведущего
+ * в рамках одной игры строго последовательны. Каждое действие сначала дописывается
+ * в журнал игры и ждёт fsync и только потом меняет состояние в памяти.
+ */
+public class LiveGame {
+
+    @Getter
+    private final Long id;
+
+    @Getter
+    private final String title;
+
+    @Getter
+    private final List<LiveCategory> categories;
+
+    private final Map<Long, LiveQuestion> questions = new LinkedHashMap<>();
+    private final Map<Long, LiveTeam> teams = new LinkedHashMap<>();
+
+    // Изменения, ещё не записанные в БД
+    private final Set<Long> dirtyQuestions = new LinkedHashSet<>();
+    private final Set<Long> dirtyTeams = new LinkedHashSet<>();
+
+    private final GameRanking ranking;
+
+    private long version;
+    private boolean versionDirty;
+
+    private boolean closed;
+
+    // ReentrantLock вместо монитора: ожидание на нём не закрепляет виртуальный поток за носителем
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private GameJournal journal = GameJournal.DISABLED;
+    private boolean journalBroken;
+    private final Deque<Action> undoable = new ArrayDeque<>();
+
+    // Кнопка открытого вопроса: нажатия идут мимо блокировки игры
+    private final AtomicReference<BuzzerRound> buzzer = new AtomicReference<>();
+
+    // Последние изменения по версиям для дельта-синхронизации клиентов; полны начиная с changeLogFloor
+    private final Deque<Change> changeLog = new ArrayDeque<>();
+    private final int changeLogSize;
+    private long changeLogFloor;
+
+    LiveGame(Long id, String title, long version, List<LiveCategory> categories, List<LiveTeam> teams,
+             int changeLogSize) {
+        this.id = id;
+        this.title = title;
+        this.version = version;
+        this.changeLogSize = changeLogSize;
+        this.changeLogFloor = version;
+        this.categories = List.copyOf(categories);
+        for (LiveCategory category : this.categories) {
+            for (LiveQuestion question : category.getQuestions()) {
+                questions.put(question.getId(), question);
+            }
+        }
+        for (LiveTeam team : teams) {
+            this.teams.put(team.getId(), team);
+        }
+        this.ranking = new GameRanking(teams);
+    }
+
+    public LiveQuestion getQuestion(Long questionId) {
+        LiveQuestion question = questions.get(questionId);
+        if (question == null) {
+            throw new RuntimeException("Question not found");
+        }
+        return question;
+    }
+
+    public LiveTeam getTeam(Long teamId) {
+        LiveTeam team = teams.get(teamId);
+        if (team == null) {
+            throw new RuntimeException("Team not found");
+        }
+        return team;
+    }
+
+    public LiveCategory getCategory(Long categoryId) {
+        return categories.stream()
+                .filter(category -> category.getId().equals(categoryId))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Category not found"));
+    }
+
+    public long getVersion() {
+        lock.lock();
+        try {
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long bumpVersion() {
+        versionDirty = true;
+        return ++version;
+    }
+
+    public Collection<LiveTeam> getTeams() {
+        return teams.values();
+    }
+
+    Collection<LiveQuestion> getQuestions() {
+        return questions.values();
+    }
+
+    public LiveQuestion markAnswered(Long questionId) {
+        return resolve(questionId, null);
+    }
+
+    // Выбор вопроса ничего не меняет, но попадает в журнал, чтобы ход игры можно было восстановить
+    public LiveQuestion select(Long questionId) {
+        lock.lock();
+        try {
+            checkOpen();
+            LiveQuestion question = getQuestion(questionId);
+            if (question.isAnswered()) {
+                throw new RuntimeException("Question already answered");
+            }
+            writeAhead(version, JournalRecord.Type.SELECT, questionId, null, 0);
+            cancel(buzzer.getAndSet(new BuzzerRound(questionId, System.nanoTime(), Set.of())));
+            return question;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public LiveTeam awardPoints(Long teamId, int points) {
+        lock.lock();
+        try {
+            checkOpen();
+            LiveTeam team = getTeam(teamId);
+            writeAhead(version + 1, JournalRecord.Type.AWARD, null, teamId, points);
+            apply(new Action(JournalRecord.Type.AWARD, null, teamId, points));
+            return team;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Отметка вопроса и начисление очков как одно действие: либо оба изменения, либо ни одного
+    public LiveQuestion resolve(Long questionId, Long teamId) {
+        lock.lock();
+        try {
+            checkOpen();
+            LiveQuestion question = getQuestion(questionId);
+            if (teamId != null) {
+                getTeam(teamId);
+            }
+            if (question.isAnswered()) {
+                throw new RuntimeException("Question already answered");
+            }
+            int points = teamId != null ? question.getPoints() : 0;
+            writeAhead(version + 1, JournalRecord.Type.RESOLVE, questionId, teamId, points);
+            closeBuzzer(questionId);
+            apply(new Action(JournalRecord.Type.RESOLVE, questionId, teamId, points));
+            return question;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Отменяет последнее изменившее состояние действие (закрытие вопроса или начисление очков).
+     * Отмены идут по стеку: повторный вызов отменяет предыдущее действие.
+     */
+    public Action undoLast() {
+        lock.lock();
+        try {
+            checkOpen();
+            restartBrokenJournal();
+            Action action = undoable.peekLast();
+            if (action == null) {
+                throw new RuntimeException("Nothing to undo");
+            }
+            writeAhead(version + 1, JournalRecord.Type.UNDO, action.questionId(), action.teamId(), action.points());
+            revertLast();
+            return action;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Запись действия в журнал до изменения памяти, под блокировкой игры: при сбое записи
+     * или fsync клиент получает ошибку, а состояние, читатели и write-behind его не видят.
+     * Неудачная запись могла попасть в файл частично или без fsync, поэтому следующее
+     * действие сначала начинает журнал заново с текущего состояния (START и отличия от исходного).
+     * Действия до перезапуска в новом журнале не видны, поэтому их отмена тоже становится недоступной:
+     * иначе UNDO при восстановлении не нашёл бы, что отменять, и отменённое вернулось бы.
+     */
+    private void writeAhead(long version, JournalRecord.Type type, Long questionId, Long teamId, int points) {
+        restartBrokenJournal();
+        try {
+            GameJournal.await(journal.append(version, type, questionId, teamId, points));
+        } catch (RuntimeException e) {
+            journalBroken = true;
+            throw e;
+        }
+    }
+
+    private void restartBrokenJournal() {
+        if (journalBroken) {
+            journal = journal.restart(this);
+            journalBroken = false;
+            undoable.clear();
+        }
+    }
+
+    // Раунд кнопки выбранного вопроса; без блокировки игры
+    public BuzzerRound getBuzzer(Long questionId) {
+        BuzzerRound round = buzzer.get();
+        if (round == null || !round.getQuestionId().equals(questionId)) {
+            throw new RuntimeException("Buzzer is not open for this question");
+        }
+        return round;
+    }
+
+    // Окно арбитража истекло: победитель фиксируется и onWinner вызывается под блокировкой игры,
+    // так что разрешение вопроса не может вклиниться между проверкой и объявлением победителя.
+    // Если раунд уже не текущий (вопрос разрешён, таймер истёк, игра закрыта), он отменяется
+    public boolean decideBuzzer(BuzzerRound round, Consumer<BuzzerRound.Press> onWinner) {
+        lock.lock();
+        try {
+            if (buzzer.get() != round) {
+                round.cancel();
+                return false;
+            }
+            onWinner.accept(round.decide());
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Ведущий не засчитал ответ победителя: кнопка открывается заново для остальных команд
+    public BuzzerRound rejectBuzz(Long questionId) {
+        BuzzerRound round = getBuzzer(questionId);
+        BuzzerRound next = round.reopen(System.nanoTime());
+        if (!buzzer.compareAndSet(round, next)) {
+            throw new RuntimeException("Buzzer was reset concurrently");
+        }
+        return next;
+    }
+
+    // Кнопка закрывается с разрешением вопроса или по истечении его таймера
+    public void closeBuzzer(Long questionId) {
+        BuzzerRound round = buzzer.get();
+        if (round != null && round.getQuestionId().equals(questionId) && buzzer.compareAndSet(round, null)) {
+            // Нажатия, ждущие конца окна, получают ответ сразу
+            round.cancel();
+        }
+    }
+
+    private static void cancel(BuzzerRound round) {
+        if (round != null) {
+            round.cancel();
+        }
+    }
+
+    private void apply(Action action) {
+        long version = bumpVersion();
+        logChange(version, action);
+        if (action.questionId() != null) {
+            questions.get(action.questionId()).setAnswered(true);
+            dirtyQuestions.add(action.questionId());
+        }
+        if (action.teamId() != null) {
+            changeScore(action.teamId(), action.points(), version);
+        }
+        undoable.addLast(action);
+    }
+
+    private void revertLast() {
+        Action action = undoable.removeLast();
+        long version = bumpVersion();
+        logChange(version, action);
+        if (action.questionId() != null) {
+            questions.get(action.questionId()).setAnswered(false);
+            dirtyQuestions.add(action.questionId());
+        }
+        if (action.teamId() != null) {
+            changeScore(action.teamId(), -action.points(), version);
+        }
+    }
+
+    private void changeScore(Long teamId, int delta, long version) {
+        LiveTeam team = teams.get(teamId);
+        team.setScore(team.getScore() + delta);
+        dirtyTeams.add(teamId);
+        ranking.update(teamId, team.getScore(), version);
+    }
+
+    private void logChange(long version, Action action) {
+        if (changeLog.size() == changeLogSize) {
+            changeLogFloor = changeLog.removeFirst().version();
+        }
+        changeLog.addLast(new Change(version, action.questionId(), action.teamId()));
+    }
+
+    /**
+     * Вопросы и команды, изменившиеся после указанной версии, с текущими значениями.
+     * null — лог изменений уже не покрывает эту версию (или она из будущего), нужен полный снимок.
+     */
+    public GameChanges getChangesSince(long since) {
+        lock.lock();
+        try {
+            if (since < changeLogFloor || since > version) {
+                return null;
+            }
+            Map<Long, Boolean> changedQuestions = new LinkedHashMap<>();
+            Map<Long, Integer> changedTeams = new LinkedHashMap<>();
+            for (Change change : changeLog) {
+                if (change.version() <= since) {
+                    continue;
+                }
+                if (change.questionId() != null) {
+                    changedQuestions.put(change.questionId(), questions.get(change.questionId()).isAnswered());
+                }
+                if (change.teamId() != null) {
+                    changedTeams.put(change.teamId(), teams.get(change.teamId()).getScore());
+                }
+            }
+            return new GameChanges(version, changedQuestions, changedTeams);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public RankingSnapshot getTopTeams(int n) {
+        lock.lock();
+        try {
+            List<Long> teamIds = ranking.top(n);
+            List<RankedTeam> result = new ArrayList<>(teamIds.size());
+            for (int i = 0; i < teamIds.size(); i++) {
+                LiveTeam team = teams.get(teamIds.get(i));
+                result.add(new RankedTeam(team.getId(), team.getName(), team.getScore(), i + 1));
+            }
+            return new RankingSnapshot(version, result);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public RankedTeam getRank(Long teamId) {
+        lock.lock();
+        try {
+            LiveTeam team = getTeam(teamId);
+            return new RankedTeam(team.getId(), team.getName(), team.getScore(), ranking.rankOf(teamId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Команды, у которых после указанной версии менялись счёт или место, с их текущими местами
+    public RankingSnapshot getRankingChangesSince(long since) {
+        lock.lock();
+        try {
+            List<RankedTeam> result = new ArrayList<>();
+            for (Long teamId : ranking.changedSince(since)) {
+                LiveTeam team = teams.get(teamId);
+                result.add(new RankedTeam(team.getId(), team.getName(), team.getScore(), ranking.rankOf(teamId)));
+            }
+            return new RankingSnapshot(version, result);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // После закрытия игра больше не принимает изменений, остаётся только дописать их в БД
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            cancel(buzzer.getAndSet(null));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void reopen() {
+        lock.lock();
+        try {
+            closed = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new RuntimeException("Game not started");
+        }
+    }
+
+    GameJournal getJournal() {
+        lock.lock();
+        try {
+            return journal;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void attachJournal(GameJournal journal) {
+        lock.lock();
+        try {
+            this.journal = journal;
+            journalBroken = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // START и значения, отличающиеся от исходных (answered = false, score = 0)
+    CompletableFuture<Void> writeBaseline(GameJournal journal) {
+        lock.lock();
+        try {
+            CompletableFuture<Void> durable = journal.append(version, JournalRecord.Type.START, null, null, 0);
+            for (LiveQuestion question : questions.values()) {
+                if (question.isAnswered()) {
+                    durable = journal.append(version, JournalRecord.Type.BASELINE, question.getId(), null, 0);
+                }
+            }
+            for (LiveTeam team : teams.values()) {
+                if (team.getScore() != 0) {
+                    durable = journal.append(version, JournalRecord.Type.BASELINE, null, team.getId(), team.getScore());
+                }
+            }
+            return durable;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Восстанавливает состояние по журналу поверх исходного. Всё восстановленное помечается
+     * изменённым, чтобы write-behind догнал БД, а версия не опускается ниже записанной в журнал.
+     */
+    void replay(List<JournalRecord> records) {
+        lock.lock();
+        try {
+            questions.values().forEach(question -> question.setAnswered(false));
+            teams.values().forEach(team -> team.setScore(0));
+            undoable.clear();
+            long journalVersion = 0;
+            for (JournalRecord record : records) {
+                switch (record.type()) {
+                    case BASELINE -> {
+                        if (record.questionId() != null && questions.containsKey(record.questionId())) {
+                            questions.get(record.questionId()).setAnswered(true);
+                        }
+                        if (record.teamId() != null && teams.containsKey(record.teamId())) {
+                            teams.get(record.teamId()).setScore(record.points());
+                        }
+                    }
+                    case RESOLVE, AWARD -> apply(new Action(record.type(), record.questionId(), record.teamId(),
+                            record.points()));
+                    case UNDO -> {
+                        if (!undoable.isEmpty()) {
+                            revertLast();
+                        }
+                    }
+                    default -> {
+                    }
+                }
+                journalVersion = Math.max(journalVersion, record.version());
+            }
+            version = Math.max(version, journalVersion);
+            bumpVersion();
+            // Состояние после восстановления не выводится из лога: клиенты с прежними версиями получат снимок
+            changeLog.clear();
+            changeLogFloor = version;
+            dirtyQuestions.addAll(questions.keySet());
+            dirtyTeams.addAll(teams.keySet());
+            teams.values().forEach(team -> ranking.update(team.getId(), team.getScore(), version));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    FlushBatch drainDirty() {
+        lock.lock();
+        try {
+            FlushBatch batch = new FlushBatch(id);
+            for (Long questionId : dirtyQuestions) {
+                batch.questions().put(questionId, questions.get(questionId).isAnswered());
+            }
+            for (Long teamId : dirtyTeams) {
+                batch.teams().put(teamId, teams.get(teamId).getScore());
+            }
+            dirtyQuestions.clear();
+            dirtyTeams.clear();
+            if (versionDirty) {
+                batch = batch.withVersion(version);
+                versionDirty = false;
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Возвращает несохранённые изменения после неудачной записи. Значения
+    // перечитываются при следующем drainDirty, поэтому достаточно вернуть id.
+    void restoreDirty(FlushBatch batch) {
+        lock.lock();
+        try {
+            dirtyQuestions.addAll(batch.questions().keySet());
+            dirtyTeams.addAll(batch.teams().keySet());
+            if (batch.version() != null) {
+                versionDirty = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Change(long version, Long questionId, Long teamId) {
+    }
+
+    // Действие, которое можно отменить: закрытие вопроса и/или начисление очков команде
+    public record Action(JournalRecord.Type type, Long questionId, Long teamId, int points) {
+    }
+
+    record FlushBatch(Long gameId, Map<Long, Boolean> questions, Map<Long, Integer> teams, Long version) {
+        FlushBatch(Long gameId) {
+            this(gameId, new LinkedHashMap<>(), new LinkedHashMap<>(), null);
+        }
+
+        FlushBatch withVersion(long version) {
+            return new FlushBatch(gameId, questions, teams, version);
+        }
+
+        boolean isEmpty() {
+            return questions.isEmpty() && teams.isEmpty() && version == null;
+        }
+    }
+}
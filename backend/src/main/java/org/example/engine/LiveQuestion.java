@@ -0,0 +1,26 @@
+package org.example.engine;
+
+import lombok.Getter;
+
+@Getter
+public class LiveQuestion {
+    private final Long id;
+    private final Long categoryId;
+    private final String questionText;
+    private final String answerText;
+    private final int points;
+    private volatile boolean answered;
+
+    LiveQuestion(Long id, Long categoryId, String questionText, String answerText, int points, boolean answered) {
+        this.id = id;
+        this.categoryId = categoryId;
+        this.questionText = questionText;
+        this.answerText = answerText;
+        this.points = points;
+        this.answered = answered;
+    }
+
+    void setAnswered(boolean answered) {
+        this.answered = answered;
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.engine;
+
+import lombok.Getter;
+
+@Getter
+public class LiveTeam {
+    private final Long id;
+    private final String name;
+    private volatile int score;
+
+    LiveTeam(Long id, String name, int score) {
+        this.id = id;
+        this.name = name;
+        this.score = score;
+    }
+
+    void setScore(int score) {
+        this.score = score;
+    }
+}
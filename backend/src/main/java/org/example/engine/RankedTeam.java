@@ -0,0 +1,4 @@
+package org.example.engine;
+
+public record RankedTeam(Long id, String name, int score, int rank) {
+}
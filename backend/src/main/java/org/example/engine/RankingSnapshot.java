@@ -0,0 +1,7 @@
+package org.example.engine;
+
+import java.util.List;
+
+// Согласованный срез рейтинга: команды и версия, на которой он снят
+public record RankingSnapshot(long version, List<RankedTeam> teams) {
+}
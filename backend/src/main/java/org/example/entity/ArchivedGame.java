@@ -0,0 +1,37 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Завершённая игра, перенесённая из горячих таблиц: доска и итоговый рейтинг одним сжатым JSON
+@Entity
+@Table(name = "archived_games")
+@Data
+public class ArchivedGame {
+    // id исходной игры
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(nullable = false)
+    private long version;
+
+    private long teamCount;
+
+    private long questionCount;
+
+    // Сжатая доска среднего размера занимает единицы килобайт
+    @Column(nullable = false, length = 1_000_000)
+    private byte[] data;
+}
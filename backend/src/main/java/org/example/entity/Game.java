@@ -2,16 +2,20 @@ package org.example.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "games")
+@Table(name = "games", indexes = @Index(name = "idx_games_status_id", columnList = "status, id"))
 @Data
 public class Game {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "games_seq")
+    @SequenceGenerator(name = "games_seq", sequenceName = "games_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -21,6 +25,18 @@ public class Game {
     @Column(nullable = false)
     private GameStatus status = GameStatus.PREPARING;
 
+    // Растёт при любом изменении игры, её доски или команд; используется как ETag
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version = 0;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    // Момент finishGame; от него отсчитывается срок хранения до архивации
+    private LocalDateTime finishedAt;
+
     @OneToMany(mappedBy = "game", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Team> teams = new ArrayList<>();
 
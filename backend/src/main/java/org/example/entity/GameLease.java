@@ -0,0 +1,25 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+// Владение запущенной игрой в кластерном режиме: игру обслуживает только узел с действующей арендой
+@Entity
+@Table(name = "game_leases")
+@Data
+public class GameLease {
+    @Id
+    @Column(name = "game_id")
+    private Long gameId;
+
+    @Column(name = "node_id", nullable = false)
+    private String nodeId;
+
+    @Column(name = "node_url", nullable = false)
+    private String nodeUrl;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
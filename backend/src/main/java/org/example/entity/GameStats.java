@@ -0,0 +1,81 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Итоги одной завершённой игры для аналитики: пишутся в finishGame и не меняются.
+ * Сводная статистика считается агрегатами по этим таблицам, без чтения questions и teams.
+ * Строки пишутся через JdbcTemplate; сущность описывает схему.
+ */
+@Entity
+@Table(name = "game_stats")
+@Data
+public class GameStats {
+    @Id
+    @Column(name = "game_id")
+    private Long gameId;
+
+    @Column(nullable = false)
+    private String title;
+
+    private LocalDateTime finishedAt;
+
+    private int teamCount;
+
+    private int questionCount;
+
+    private int answeredCount;
+
+    // null — в игре не было команд
+    private Integer winningScore;
+
+    // Разница между лучшим и худшим счётом
+    private Integer scoreSpread;
+
+    @ElementCollection
+    @CollectionTable(name = "game_stats_levels", joinColumns = @JoinColumn(name = "game_id"))
+    private List<Level> levels = new ArrayList<>();
+
+    @ElementCollection
+    @CollectionTable(name = "game_stats_unanswered", joinColumns = @JoinColumn(name = "game_id"),
+            indexes = @Index(name = "idx_game_stats_unanswered_key", columnList = "question_key"))
+    private List<Unanswered> unanswered = new ArrayList<>();
+
+    // Вопросы и ответы на одном уровне (категория, стоимость)
+    @Embeddable
+    @Data
+    public static class Level {
+        @Column(nullable = false)
+        private String categoryName;
+
+        // Название без регистра (QuestionIndex.categoryKey): одноимённые категории разных игр сводятся вместе
+        @Column(nullable = false)
+        private String categoryKey;
+
+        private int points;
+
+        private int questions;
+
+        private int answered;
+    }
+
+    @Embeddable
+    @Data
+    public static class Unanswered {
+        // Текст без регистра и пунктуации (QuestionIndex.textKey)
+        @Column(name = "question_key", nullable = false, length = 1000)
+        private String questionKey;
+
+        @Column(nullable = false, length = 1000)
+        private String questionText;
+
+        private String categoryName;
+
+        private int points;
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.event;
+
+import jakarta.annotation.PreDestroy;
+import org.example.dto.GameEventDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Поток событий игры для клиентов (SSE). Сервисы публикуют {@link GameEventDto}
+ * через ApplicationEventPublisher, а подписчики получают событие только после
+ * коммита транзакции, в которой оно произошло. У каждого подписчика своя очередь
+ * и свой пишущий поток, так что медленный клиент задерживает только себя.
+ */
+@Component
+public class GameEventStream {
+
+    @Value("${game.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${game.events.queue-size:256}")
+    private int queueSize;
+
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    // SseEmitter.send блокирует поток до приёма данных клиентом (и пишет под synchronized),
+    // поэтому у каждого пишущего подписчика свой виртуальный поток
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SseEmitter subscribe(Long gameId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.compute(gameId, (id, list) -> {
+            List<Subscriber> result = list != null ? list : new CopyOnWriteArrayList<>();
+            result.add(subscriber);
+            return result;
+        });
+        emitter.onCompletion(() -> unsubscribe(gameId, subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(gameId, subscriber));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameEvent(GameEventDto event) {
+        deliver(event);
+    }
+
+    // Рассылка события локальным подписчикам; сюда же приходят события с других узлов кластера
+    public void deliver(GameEventDto event) {
+        List<Subscriber> list = subscribers.get(event.getGameId());
+        if (list == null) {
+            return;
+        }
+        for (Subscriber subscriber : list) {
+            offer(event.getGameId(), subscriber, event);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdown();
+    }
+
+    /**
+     * События не схлопываются: клиент применяет их как дельты. Подписчик, отставший больше
+     * чем на game.events.queue-size событий, отключается; после переподключения он догоняет
+     * состояние через /api/games/{id}/changes.
+     */
+    private void offer(Long gameId, Subscriber subscriber, GameEventDto event) {
+        if (subscriber.size.incrementAndGet() > queueSize) {
+            unsubscribe(gameId, subscriber);
+            subscriber.emitter.completeWithError(new IllegalStateException("Subscriber is too slow"));
+            return;
+        }
+        subscriber.queue.add(event);
+        schedule(gameId, subscriber);
+    }
+
+    private void schedule(Long gameId, Subscriber subscriber) {
+        if (subscriber.writing.compareAndSet(false, true)) {
+            writers.execute(() -> drain(gameId, subscriber));
+        }
+    }
+
+    private void drain(Long gameId, Subscriber subscriber) {
+        try {
+            GameEventDto event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.size.decrementAndGet();
+                subscriber.emitter.send(SseEmitter.event().name(event.getType()).data(event));
+            }
+        } catch (IOException | IllegalStateException e) {
+            unsubscribe(gameId, subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.writing.set(false);
+        }
+        // Событие могло прийти между последней проверкой очереди и сбросом флага
+        if (!subscriber.queue.isEmpty()) {
+            schedule(gameId, subscriber);
+        }
+    }
+
+    private void unsubscribe(Long gameId, Subscriber subscriber) {
+        subscribers.computeIfPresent(gameId, (id, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<GameEventDto> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean writing = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package org.example.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.dto.CategoryDto;
+import org.example.dto.GameDto;
+import org.example.dto.GameEventDto;
+import org.example.dto.QuestionDto;
+import org.example.dto.RankedTeamDto;
+import org.example.dto.SpectatorSnapshotDto;
+import org.example.service.GameService;
+import org.example.service.TeamService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Канал зрителей (экраны в зале, телефоны публики): только чтение, без ответов до их раскрытия.
+ * Состояние доски и рейтинга рендерится один раз на изменение в готовый SSE-кадр (byte[]),
+ * и этот же массив пишется во все соединения игры. У каждого соединения один слот
+ * вместо очереди: медленный зритель пропускает промежуточные кадры и получает последний.
+ * На узле, который не владеет запущенной игрой, кадры собираются из последнего состояния
+ * канала и событий, пересланных владельцем: БД отстаёт от владельца на интервал write-behind.
+ */
+@Component
+public class SpectatorHub {
+
+    private static final Logger log = LoggerFactory.getLogger(SpectatorHub.class);
+
+    private static final Set<String> BOARD_EVENTS = Set.of(GameEventDto.QUESTION_ANSWERED,
+            GameEventDto.QUESTION_REOPENED, GameEventDto.SCORE_CHANGED, GameEventDto.STATUS_CHANGED);
+
+    private static final byte[] HEARTBEAT = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${game.spectators.timeout-ms:14400000}")
+    private long timeoutMs;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger viewerCount = new AtomicInteger();
+
+    // Один поток рендера: изменения одной игры подряд схлопываются в один кадр
+    private final ExecutorService renderer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "spectator-render");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Запись в сокет блокирует поток до приёма данных клиентом, поэтому у каждого
+    // пишущего соединения свой виртуальный поток
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private Counter framesDropped;
+    private Counter framesRendered;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("game.spectators", viewerCount, AtomicInteger::get).register(meterRegistry);
+        framesDropped = Counter.builder("game.spectators.frames.dropped")
+                .description("Snapshots replaced by a newer one before a slow viewer received them")
+                .register(meterRegistry);
+        framesRendered = Counter.builder("game.spectators.frames.rendered").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderer.shutdown();
+        writers.shutdown();
+    }
+
+    public ResponseBodyEmitter subscribe(Long gameId) {
+        // Несуществующая игра — ошибка запроса, а не вечно пустой поток
+        gameService.getVersion(gameId);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMs);
+        Viewer viewer = new Viewer(emitter);
+        Channel channel = channels.compute(gameId, (id, existing) -> {
+            Channel result = existing != null ? existing : new Channel(gameId);
+            result.viewers.add(viewer);
+            return result;
+        });
+        viewerCount.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(gameId, viewer));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(gameId, viewer));
+
+        byte[] frame = channel.frame;
+        if (frame != null) {
+            offer(viewer, frame);
+        } else {
+            requestRender(channel);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameEvent(GameEventDto event) {
+        // Кнопки команд и таймеры доску и рейтинг не меняют
+        if (!BOARD_EVENTS.contains(event.getType())) {
+            return;
+        }
+        Channel channel = channels.get(event.getGameId());
+        if (channel != null) {
+            requestRender(channel);
+        }
+    }
+
+    // Событие игры с другого узла кластера
+    public void onRemoteEvent(GameEventDto event) {
+        if (!BOARD_EVENTS.contains(event.getType())) {
+            return;
+        }
+        Channel channel = channels.get(event.getGameId());
+        if (channel != null) {
+            renderer.execute(() -> apply(channel, event));
+        }
+    }
+
+    // Комментарий SSE раз в интервал не даёт прокси закрыть простаивающее соединение;
+    // занятый кадром слот он не трогает
+    @Scheduled(fixedDelayString = "${game.spectators.heartbeat-ms:20000}")
+    public void heartbeat() {
+        for (Channel channel : channels.values()) {
+            for (Viewer viewer : channel.viewers) {
+                if (viewer.pending.compareAndSet(null, HEARTBEAT)) {
+                    schedule(viewer);
+                }
+            }
+        }
+    }
+
+    private void requestRender(Channel channel) {
+        if (channel.renderRequested.compareAndSet(false, true)) {
+            renderer.execute(() -> render(channel));
+        }
+    }
+
+    private void render(Channel channel) {
+        channel.renderRequested.set(false);
+        if (channel.viewers.isEmpty()) {
+            return;
+        }
+        SpectatorSnapshotDto state;
+        try {
+            state = snapshot(channel.gameId);
+        } catch (RuntimeException e) {
+            // Зрители остаются подключены и получат следующий кадр
+            log.warn("Cannot render spectator snapshot for game {}", channel.gameId, e);
+            return;
+        }
+        publish(channel, state);
+    }
+
+    private void apply(Channel channel, GameEventDto event) {
+        if (channel.viewers.isEmpty()) {
+            return;
+        }
+        if (channel.state == null) {
+            render(channel);
+            return;
+        }
+        publish(channel, patch(channel.state, event));
+    }
+
+    private void publish(Channel channel, SpectatorSnapshotDto state) {
+        byte[] frame;
+        try {
+            frame = toFrame(visible(state));
+        } catch (JsonProcessingException e) {
+            log.warn("Cannot render spectator snapshot for game {}", channel.gameId, e);
+            return;
+        }
+        channel.state = state;
+        channel.frame = frame;
+        framesRendered.increment();
+        for (Viewer viewer : channel.viewers) {
+            offer(viewer, frame);
+        }
+    }
+
+    // Состояние с ответами; в кадр оно попадает через visible()
+    private SpectatorSnapshotDto snapshot(Long gameId) {
+        // Версия читается первой, как и для ETag доски: кадр может оказаться новее своей версии, но не старее
+        long version = gameService.getVersion(gameId);
+        GameDto game = gameService.getGame(gameId);
+        SpectatorSnapshotDto dto = new SpectatorSnapshotDto();
+        dto.setGameId(game.getId());
+        dto.setTitle(game.getTitle());
+        dto.setStatus(game.getStatus());
+        dto.setVersion(version);
+        dto.setCategories(game.getCategories());
+        dto.setRanking(teamService.getTopTeams(gameId, Integer.MAX_VALUE).getTeams());
+        return dto;
+    }
+
+    // Событие поверх состояния; версия остаётся от последнего чтения, событие её не несёт
+    private static SpectatorSnapshotDto patch(SpectatorSnapshotDto state, GameEventDto event) {
+        SpectatorSnapshotDto dto = copy(state, state.getCategories());
+        switch (event.getType()) {
+            case GameEventDto.QUESTION_ANSWERED, GameEventDto.QUESTION_REOPENED -> {
+                boolean answered = GameEventDto.QUESTION_ANSWERED.equals(event.getType());
+                dto.setCategories(state.getCategories().stream()
+                        .map(category -> copy(category, question -> {
+                            QuestionDto copy = copy(question);
+                            if (question.getId().equals(event.getQuestionId())) {
+                                copy.setAnswered(answered);
+                            }
+                            return copy;
+                        }))
+                        .toList());
+            }
+            case GameEventDto.SCORE_CHANGED -> {
+                List<RankedTeamDto> ranking = new ArrayList<>();
+                for (RankedTeamDto team : state.getRanking()) {
+                    RankedTeamDto copy = new RankedTeamDto();
+                    copy.setId(team.getId());
+                    copy.setName(team.getName());
+                    copy.setScore(team.getId().equals(event.getTeamId()) ? event.getScore() : team.getScore());
+                    ranking.add(copy);
+                }
+                // Тот же порядок, что у рейтинга движка: очки по убыванию, при равенстве — id
+                ranking.sort(Comparator.comparingInt(RankedTeamDto::getScore).reversed()
+                        .thenComparing(RankedTeamDto::getId));
+                for (int i = 0; i < ranking.size(); i++) {
+                    ranking.get(i).setRank(i + 1);
+                }
+                dto.setRanking(ranking);
+            }
+            case GameEventDto.STATUS_CHANGED -> dto.setStatus(event.getStatus());
+            default -> {
+            }
+        }
+        return dto;
+    }
+
+    // Неоткрытые ответы зрителям не показываются
+    private static SpectatorSnapshotDto visible(SpectatorSnapshotDto state) {
+        return copy(state, state.getCategories().stream()
+                .map(category -> copy(category, question -> {
+                    QuestionDto copy = copy(question);
+                    copy.setAnswerText(question.isAnswered() ? question.getAnswerText() : null);
+                    return copy;
+                }))
+                .toList());
+    }
+
+    private static SpectatorSnapshotDto copy(SpectatorSnapshotDto state, List<CategoryDto> categories) {
+        SpectatorSnapshotDto dto = new SpectatorSnapshotDto();
+        dto.setGameId(state.getGameId());
+        dto.setTitle(state.getTitle());
+        dto.setStatus(state.getStatus());
+        dto.setVersion(state.getVersion());
+        dto.setCategories(categories);
+        dto.setRanking(state.getRanking());
+        return dto;
+    }
+
+    private static CategoryDto copy(CategoryDto category, UnaryOperator<QuestionDto> questions) {
+        CategoryDto dto = new CategoryDto();
+        dto.setId(category.getId());
+        dto.setName(category.getName());
+        dto.setQuestions(category.getQuestions().stream().map(questions).toList());
+        return dto;
+    }
+
+    private static QuestionDto copy(QuestionDto question) {
+        QuestionDto copy = new QuestionDto();
+        copy.setId(question.getId());
+        copy.setQuestionText(question.getQuestionText());
+        copy.setPoints(question.getPoints());
+        copy.setAnswered(question.isAnswered());
+        copy.setAnswerText(question.getAnswerText());
+        return copy;
+    }
+
+    private byte[] toFrame(SpectatorSnapshotDto snapshot) throws JsonProcessingException {
+        // JSON без переводов строк помещается в одну строку data:
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(("event: snapshot\nid: " + snapshot.getVersion() + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(objectMapper.writeValueAsBytes(snapshot));
+        out.writeBytes("\n\n".getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    private void offer(Viewer viewer, byte[] frame) {
+        byte[] replaced = viewer.pending.getAndSet(frame);
+        if (replaced != null && replaced != HEARTBEAT) {
+            framesDropped.increment();
+        }
+        schedule(viewer);
+    }
+
+    private void schedule(Viewer viewer) {
+        if (viewer.writing.compareAndSet(false, true)) {
+            writers.execute(() -> drain(viewer));
+        }
+    }
+
+    private void drain(Viewer viewer) {
+        try {
+            byte[] frame;
+            while ((frame = viewer.pending.getAndSet(null)) != null) {
+                viewer.emitter.send(frame, MediaType.TEXT_EVENT_STREAM);
+            }
+        } catch (IOException | IllegalStateException e) {
+            viewer.emitter.completeWithError(e);
+            return;
+        } finally {
+            viewer.writing.set(false);
+        }
+        // Кадр мог прийти между последней проверкой слота и сбросом флага
+        if (viewer.pending.get() != null) {
+            schedule(viewer);
+        }
+    }
+
+    private void unsubscribe(Long gameId, Viewer viewer) {
+        channels.computeIfPresent(gameId, (id, channel) -> {
+            if (channel.viewers.remove(viewer)) {
+                viewerCount.decrementAndGet();
+            }
+            return channel.viewers.isEmpty() ? null : channel;
+        });
+    }
+
+    private static final class Channel {
+        private final Long gameId;
+        private final Set<Viewer> viewers = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean renderRequested = new AtomicBoolean();
+        private volatile byte[] frame;
+        // Последнее состояние с ответами; читается и меняется только в потоке рендера
+        private SpectatorSnapshotDto state;
+
+        private Channel(Long gameId) {
+            this.gameId = gameId;
+        }
+    }
+
+    private static final class Viewer {
+        private final ResponseBodyEmitter emitter;
+        private final AtomicReference<byte[]> pending = new AtomicReference<>();
+        private final AtomicBoolean writing = new AtomicBoolean();
+
+        private Viewer(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.exception;
 
+import org.example.metrics.SqlBudgetExceededException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -12,6 +13,19 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Превышение бюджета SQL — ошибка сервера, а не запроса клиента
+    @ExceptionHandler(SqlBudgetExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleSqlBudgetExceeded(SqlBudgetExceededException ex, WebRequest request) {
+        Map<String, Object> body = Map.of(
+                "timestamp", new Date(),
+                "status", HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                "error", "Internal Server Error",
+                "message", ex.getMessage(),
+                "path", request.getDescription(false)
+        );
+        return new ResponseEntity<>(body, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, Object>> handleRuntimeException(RuntimeException ex, WebRequest request) {
         Map<String, Object> body = Map.of(
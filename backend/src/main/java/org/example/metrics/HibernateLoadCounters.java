@@ -0,0 +1,40 @@
+package org.example.metrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Загрузки сущностей и ленивых коллекций в счётчики текущего запроса. Обход ленивой
+ * коллекции в цикле виден здесь как рост collectionFetches вместе с числом запросов.
+ */
+@Component
+public class HibernateLoadCounters {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> {
+            RequestSqlStats stats = RequestSqlStats.current();
+            if (stats != null) {
+                stats.entityLoaded();
+            }
+        });
+        registry.appendListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event -> {
+            RequestSqlStats stats = RequestSqlStats.current();
+            if (stats != null) {
+                stats.collectionFetched();
+            }
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.metrics;
+
+/**
+ * Счётчики SQL текущего HTTP-запроса. Живут в ThreadLocal потока, обрабатывающего запрос:
+ * их заполняют {@link SqlCountingDataSource} и слушатели Hibernate, а читает {@link SqlMetricsFilter}.
+ * Работа в других потоках (write-behind движка, потоковая выгрузка пакетов) сюда не попадает.
+ */
+public final class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private final int budget;
+    private final boolean failOverBudget;
+
+    private int statements;
+    private int entityLoads;
+    private int collectionFetches;
+
+    private RequestSqlStats(int budget, boolean failOverBudget) {
+        this.budget = budget;
+        this.failOverBudget = failOverBudget;
+    }
+
+    static RequestSqlStats begin(int budget, boolean failOverBudget) {
+        RequestSqlStats stats = new RequestSqlStats(budget, failOverBudget);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    // В режиме fail запрос обрывается на первом запросе сверх бюджета, а не после ответа
+    void statementExecuted() {
+        statements++;
+        if (failOverBudget && budget > 0 && statements > budget) {
+            throw new SqlBudgetExceededException(statements, budget);
+        }
+    }
+
+    void entityLoaded() {
+        entityLoads++;
+    }
+
+    void collectionFetched() {
+        collectionFetches++;
+    }
+
+    int getStatements() {
+        return statements;
+    }
+
+    int getEntityLoads() {
+        return entityLoads;
+    }
+
+    int getCollectionFetches() {
+        return collectionFetches;
+    }
+
+    boolean isOverBudget() {
+        return budget > 0 && statements > budget;
+    }
+
+    int getBudget() {
+        return budget;
+    }
+}
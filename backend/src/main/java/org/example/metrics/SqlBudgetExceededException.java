@@ -0,0 +1,7 @@
+package org.example.metrics;
+
+public class SqlBudgetExceededException extends RuntimeException {
+    public SqlBudgetExceededException(int statements, int budget) {
+        super("SQL statement budget exceeded: " + statements + " > " + budget);
+    }
+}
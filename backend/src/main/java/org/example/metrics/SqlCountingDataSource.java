@@ -0,0 +1,83 @@
+package org.example.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Считает выполненные SQL на уровне JDBC: через Hibernate, JdbcTemplate и любой другой
+ * код, берущий соединения у приложения. Соединение оборачивается, только если его берут
+ * в потоке HTTP-запроса со счётчиками ({@link RequestSqlStats}); фоновые задачи работают
+ * с соединением пула напрямую. Пакет (executeBatch) считается одним запросом.
+ */
+public class SqlCountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    public SqlCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+        if (RequestSqlStats.current() == null) {
+            return connection;
+        }
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = method.invoke(target, args);
+            // Statement, PreparedStatement и CallableStatement — по типу, который вернул метод
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return proxy(method.getReturnType(), statement, (statementTarget, statementMethod, statementArgs) -> {
+                    if (EXECUTE.contains(statementMethod.getName())) {
+                        RequestSqlStats stats = RequestSqlStats.current();
+                        if (stats != null) {
+                            stats.statementExecuted();
+                        }
+                    }
+                    return statementMethod.invoke(statementTarget, statementArgs);
+                });
+            }
+            return result;
+        });
+    }
+
+    private static <T> T proxy(Class<?> type, Object target, Call call) {
+        InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> {
+                try {
+                    yield call.invoke(target, method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        @SuppressWarnings("unchecked")
+        T proxy = (T) Proxy.newProxyInstance(SqlCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+        return proxy;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Оборачивает DataSource приложения (бин dataSource: пул Spring Boot или маршрутизатор
+ * основная БД/реплика) в {@link SqlCountingDataSource}. Пулы за маршрутизатором
+ * не оборачиваются, иначе запрос считался бы дважды.
+ */
+@Component
+public class SqlCountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+            return new SqlCountingDataSource(dataSource);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * SQL на один HTTP-запрос: распределения http.server.requests.sql.{statements,entity.loads,
+ * collection.fetches} с теми же тегами method/uri, что у таймера http.server.requests.
+ * При game.sql.budget > 0 запрос сверх бюджета пишется в лог (budget-action=log)
+ * или обрывается с ошибкой (budget-action=fail, для тестов и локальной разработки).
+ */
+@Component
+public class SqlMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlMetricsFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${game.sql.budget:0}")
+    private int budget;
+
+    @Value("${game.sql.budget-action:log}")
+    private String budgetAction;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = RequestSqlStats.begin(budget, "fail".equals(budgetAction));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.end();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestSqlStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+        summary("http.server.requests.sql.statements", method, uri).record(stats.getStatements());
+        summary("http.server.requests.sql.entity.loads", method, uri).record(stats.getEntityLoads());
+        summary("http.server.requests.sql.collection.fetches", method, uri).record(stats.getCollectionFetches());
+        if (stats.isOverBudget()) {
+            log.warn("{} {} executed {} SQL statements (budget {}), {} entity loads, {} collection fetches",
+                    method, uri, stats.getStatements(), stats.getBudget(), stats.getEntityLoads(),
+                    stats.getCollectionFetches());
+        }
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.repository;
+
+import org.example.entity.ArchivedGame;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedGameRepository extends JpaRepository<ArchivedGame, Long> {
+
+    @Query("select a.version from ArchivedGame a where a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Та же страница, что и GameRepository.findSummaries, без распаковки архива; статус всегда FINISHED
+    @Query("select a.id, a.title, a.teamCount, a.questionCount, a.createdAt " +
+            "from ArchivedGame a where (:before is null or a.id < :before) order by a.id desc")
+    List<Object[]> findSummaries(@Param("before") Long before, Pageable pageable);
+}
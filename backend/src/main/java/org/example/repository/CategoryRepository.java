@@ -1,12 +1,23 @@
 package org.example.repository;
 
+import org.example.dto.BoardRowDto;
 import org.example.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByGameId(Long gameId);
+
+    @Query("select c.id from Category c where c.game.id = :gameId")
+    List<Long> findIdsByGameId(@Param("gameId") Long gameId);
+
+    @Query("select new org.example.dto.BoardRowDto(c.game.id, c.id, c.name, q.id, q.questionText, q.answerText, q.points, q.answered) " +
+            "from Category c left join c.questions q where c.game.id in :gameIds order by c.id, q.id")
+    List<BoardRowDto> findBoardRows(@Param("gameIds") Collection<Long> gameIds);
 }
\ No newline at end of file
@@ -1,9 +1,47 @@
 package org.example.repository;
 
+import org.example.dto.GameSummaryDto;
 import org.example.entity.Game;
+import org.example.entity.GameStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface GameRepository extends JpaRepository<Game, Long> {
+    List<Game> findByStatus(GameStatus status);
+
+    @Query("select g.status from Game g where g.id = :id")
+    Optional<GameStatus> findStatusById(@Param("id") Long id);
+
+    @Query("select g.version from Game g where g.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Game g set g.version = g.version + 1 where g.id = :id")
+    int incrementVersion(@Param("id") Long id);
+
+    // Keyset-пагинация по id в обратном порядке, счётчики считаются в SQL
+    @Query("select new org.example.dto.GameSummaryDto(g.id, g.title, g.status, " +
+            "(select count(t) from Team t where t.game = g), " +
+            "(select count(q) from Question q where q.category.game = g), g.createdAt) " +
+            "from Game g where (:status is null or g.status = :status) and (:before is null or g.id < :before) " +
+            "order by g.id desc")
+    List<GameSummaryDto> findSummaries(@Param("status") GameStatus status, @Param("before") Long before, Pageable pageable);
+
+    // Завершённые до cutoff с id больше after; игры, завершённые до появления finishedAt, — по дате создания
+    @Query("select g.id from Game g where g.status = :status and coalesce(g.finishedAt, g.createdAt) < :cutoff " +
+            "and g.id > :after order by g.id")
+    List<Long> findArchivableIds(@Param("status") GameStatus status, @Param("cutoff") LocalDateTime cutoff,
+                                 @Param("after") Long after, Pageable pageable);
+
+    @Query("select g.id from Game g order by g.id desc")
+    List<Long> findRecentIds(Pageable pageable);
 }
\ No newline at end of file
@@ -1,12 +1,46 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.dto.QuestionPackItemDto;
+import org.example.entity.GameStatus;
 import org.example.entity.Question;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, Long> {
     List<Question> findByCategoryId(Long categoryId);
+
+    List<Question> findByCategoryIdOrderById(Long categoryId);
+
+    @Query("select q.answered from Question q where q.id = :id")
+    Optional<Boolean> findAnsweredById(@Param("id") Long id);
+
+    @Query("select q.id from Question q where q.category.id = :categoryId and q.answered = true")
+    Set<Long> findAnsweredIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    // Условная отметка: срабатывает только для неотвеченного вопроса запущенной игры
+    @Modifying
+    @Query("update Question q set q.answered = true where q.id = :id and q.answered = false " +
+            "and q.category.id in (select c.id from Category c where c.game.status = :status)")
+    int markAnsweredIfOpen(@Param("id") Long id, @Param("status") GameStatus status);
+
+    // Проекция без сущностей: при экспорте контекст персистентности не растёт
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new org.example.dto.QuestionPackItemDto(c.name, q.questionText, q.answerText, q.points) " +
+            "from Question q join q.category c where c.game.id = :gameId order by c.id, q.id")
+    Stream<QuestionPackItemDto> streamPackItems(@Param("gameId") Long gameId);
+
+    @Query("select q from Question q join fetch q.category where q.id = :id")
+    Optional<Question> findWithCategoryById(@Param("id") Long id);
 }
\ No newline at end of file
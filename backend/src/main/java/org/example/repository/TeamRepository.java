@@ -1,12 +1,45 @@
 package org.example.repository;
 
+import org.example.entity.GameStatus;
 import org.example.entity.Team;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TeamRepository extends JpaRepository<Team, Long> {
     List<Team> findByGameId(Long gameId);
+
+    List<Team> findByGameIdInOrderById(Collection<Long> gameIds);
+
+    List<Team> findByGameIdOrderByScoreDescIdAsc(Long gameId);
+
+    List<Team> findByGameIdOrderByScoreDescIdAsc(Long gameId, Pageable pageable);
+
+    // Сколько команд игры стоит выше: больше очков, либо столько же и меньший id
+    @Query("select count(t) from Team t where t.game.id = :gameId and (t.score > :score or (t.score = :score and t.id < :id))")
+    long countAhead(@Param("gameId") Long gameId, @Param("score") int score, @Param("id") Long id);
+
+    // Начисление на месте, без чтения счёта в приложение
+    @Modifying
+    @Query("update Team t set t.score = t.score + :points where t.id = :id and t.game.id = :gameId")
+    int addScore(@Param("id") Long id, @Param("gameId") Long gameId, @Param("points") int points);
+
+    @Modifying
+    @Query("update Team t set t.score = t.score + :points where t.id = :id " +
+            "and t.game.id in (select g.id from Game g where g.status = :status)")
+    int addScoreIfStarted(@Param("id") Long id, @Param("points") int points, @Param("status") GameStatus status);
+
+    @Query("select t.score from Team t where t.id = :id")
+    int findScoreById(@Param("id") Long id);
+
+    @Query("select t.game.id from Team t where t.id = :id")
+    Optional<Long> findGameIdById(@Param("id") Long id);
 }
\ No newline at end of file
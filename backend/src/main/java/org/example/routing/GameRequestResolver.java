@@ -0,0 +1,77 @@
+package org.example.routing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.repository.TeamRepository;
+import org.example.service.ContentCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Игра, к которой относится HTTP-запрос, по шаблону пути и его переменным: gameId,
+ * categoryId или id игры, категории, вопроса, команды. Работает после сопоставления
+ * обработчика, то есть в HandlerInterceptor. Результат запоминается в атрибуте запроса:
+ * игру ищут и кластерная маршрутизация, и выбор реплики.
+ */
+@Component
+public class GameRequestResolver {
+
+    private static final String ATTRIBUTE = GameRequestResolver.class.getName() + ".gameId";
+    private static final Object NONE = new Object();
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ContentCache contentCache;
+
+    // null — запрос не относится к конкретной игре
+    public Long resolveGameId(HttpServletRequest request) {
+        Object resolved = request.getAttribute(ATTRIBUTE);
+        if (resolved == null) {
+            Long gameId = resolve(request);
+            request.setAttribute(ATTRIBUTE, gameId != null ? gameId : NONE);
+            return gameId;
+        }
+        return resolved == NONE ? null : (Long) resolved;
+    }
+
+    private Long resolve(HttpServletRequest request) {
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pattern == null || variables == null) {
+            return null;
+        }
+        try {
+            if (variables.containsKey("gameId")) {
+                return Long.valueOf(variables.get("gameId"));
+            }
+            if (variables.containsKey("categoryId")) {
+                return contentCache.getCategory(Long.valueOf(variables.get("categoryId"))).gameId();
+            }
+            String id = variables.get("id");
+            if (id == null) {
+                return null;
+            }
+            if (pattern.startsWith("/api/games/")) {
+                return Long.valueOf(id);
+            }
+            if (pattern.startsWith("/api/questions/")) {
+                Long categoryId = contentCache.getQuestion(Long.valueOf(id)).categoryId();
+                return contentCache.getCategory(categoryId).gameId();
+            }
+            if (pattern.startsWith("/api/categories/")) {
+                return contentCache.getCategory(Long.valueOf(id)).gameId();
+            }
+            if (pattern.startsWith("/api/teams/")) {
+                return teamRepository.findGameIdById(Long.valueOf(id)).orElse(null);
+            }
+        } catch (RuntimeException e) {
+            // Несуществующий вопрос или категория: ответ с ошибкой даст сам контроллер
+        }
+        return null;
+    }
+}
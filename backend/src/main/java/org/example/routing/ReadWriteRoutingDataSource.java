@@ -0,0 +1,29 @@
+package org.example.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+/**
+ * Основная БД или реплика для очередного соединения: реплика — только для транзакции
+ * readOnly в потоке, которому это разрешено ({@link ReplicaRouting}). Стоит за
+ * LazyConnectionDataSourceProxy: физическое соединение берётся при первом запросе SQL,
+ * когда признак readOnly транзакции уже выставлен.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    public ReadWriteRoutingDataSource(Object primary, Object replica) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ReplicaRouting.isAllowed() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? REPLICA : PRIMARY;
+    }
+}
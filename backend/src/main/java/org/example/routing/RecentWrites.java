@@ -0,0 +1,54 @@
+package org.example.routing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Игры, изменённые за последние game.replica.read-your-writes-ms: их чтения идут в основную
+ * БД, пока реплика не догонит запись. Окно должно быть больше задержки репликации.
+ * Изменение, игру которого по запросу не определить (создание игры, импорт пакета),
+ * на то же окно отправляет в основную БД все чтения: новой игры на реплике может ещё не быть.
+ */
+@Component
+@ConditionalOnProperty(name = "game.replica.enabled", havingValue = "true")
+public class RecentWrites {
+
+    @Value("${game.replica.read-your-writes-ms:2000}")
+    private long windowMs;
+
+    // Игра → System.nanoTime(), до которого её читают из основной БД
+    private final Map<Long, Long> deadlines = new ConcurrentHashMap<>();
+
+    private volatile long globalDeadline = System.nanoTime();
+
+    // gameId == null — изменение без известной игры
+    public void record(Long gameId) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+        if (gameId == null) {
+            globalDeadline = deadline;
+        } else {
+            deadlines.put(gameId, deadline);
+        }
+    }
+
+    public boolean isRecent(Long gameId) {
+        long now = System.nanoTime();
+        if (globalDeadline - now > 0) {
+            return true;
+        }
+        Long deadline = gameId == null ? null : deadlines.get(gameId);
+        return deadline != null && deadline - now > 0;
+    }
+
+    @Scheduled(fixedDelayString = "${game.replica.read-your-writes-ms:2000}")
+    public void purge() {
+        long now = System.nanoTime();
+        deadlines.values().removeIf(deadline -> deadline - now <= 0);
+    }
+}
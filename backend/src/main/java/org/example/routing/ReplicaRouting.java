@@ -0,0 +1,26 @@
+package org.example.routing;
+
+/**
+ * Разрешение читать с реплики в текущем потоке. Ставится {@link ReplicaRoutingInterceptor}
+ * только на время GET-запроса к игре без недавних записей; всё остальное (запросы на
+ * изменение, фоновые задачи, слушатели событий, write-behind движка) идёт в основную БД.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> ALLOWED = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    static void allow() {
+        ALLOWED.set(Boolean.TRUE);
+    }
+
+    static void clear() {
+        ALLOWED.remove();
+    }
+
+    static boolean isAllowed() {
+        return ALLOWED.get() != null;
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.routing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Выбор реплики для HTTP-запроса. GET и HEAD к игре без недавних изменений читают
+ * с реплики (readOnly-транзакции сервисов); остальные методы считаются изменениями:
+ * игра запроса отмечается в {@link RecentWrites} до обработки и ещё раз после неё,
+ * чтобы окно read-your-writes отсчитывалось от коммита.
+ */
+@Component
+@ConditionalOnProperty(name = "game.replica.enabled", havingValue = "true")
+public class ReplicaRoutingInterceptor implements AsyncHandlerInterceptor {
+
+    @Autowired
+    private GameRequestResolver gameRequestResolver;
+
+    @Autowired
+    private RecentWrites recentWrites;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || CorsUtils.isPreFlightRequest(request)) {
+            return true;
+        }
+        Long gameId = gameRequestResolver.resolveGameId(request);
+        if (isRead(request)) {
+            if (!recentWrites.isRecent(gameId)) {
+                ReplicaRouting.allow();
+            }
+        } else {
+            recentWrites.record(gameId);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRouting.clear();
+        if (handler instanceof HandlerMethod && !isRead(request) && !CorsUtils.isPreFlightRequest(request)) {
+            recentWrites.record(gameRequestResolver.resolveGameId(request));
+        }
+    }
+
+    // Поток событий продолжается в другом потоке; чтения при подписке уже выполнены
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReplicaRouting.clear();
+    }
+
+    private boolean isRead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    }
+}
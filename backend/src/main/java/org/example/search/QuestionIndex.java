@@ -0,0 +1,626 @@
+package org.example.search;
+
+import org.example.dto.CategoryDto;
+import org.example.dto.GameDto;
+import org.example.dto.QuestionDto;
+import org.example.service.ArchivedBoardCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Поисковый индекс по вопросам всех игр в памяти: инвертированный индекс терм → вопросы
+ * по текстам вопроса и ответа. Словарь термов отсортирован, поэтому префиксный поиск —
+ * это диапазон словаря, а нечёткий перебирает только термы на ту же букву близкой длины.
+ * Ранжирование — BM25, совпадение в ответе весит вдвое меньше совпадения в вопросе.
+ *
+ * Индекс строится потоковыми запросами при старте — по живым таблицам и по архиву
+ * (archived_games), чтобы вопросы старых игр тоже находились и попадали в новые доски, —
+ * и обновляется по событиям {@link QuestionIndexChange} после коммита: доска изменённой игры
+ * перечитывается целиком, её старые документы помечаются удалёнными. Удалённые документы вычищаются перестройкой
+ * словаря, когда их становится больше живых.
+ *
+ * Второй индекс — корзины (категория, стоимость) → вопросы — служит генерации досок:
+ * выборка вопроса — случайный элемент корзины, без обращения к таблице questions.
+ */
+@Component
+public class QuestionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionIndex.class);
+
+    private static final String SELECT = "SELECT c.game_id, q.id, q.category_id, c.name, q.question_text, q.answer_text, " +
+            "q.points FROM questions q JOIN categories c ON c.id = q.category_id";
+    private static final String SELECT_ARCHIVED = "SELECT id, data FROM archived_games";
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float ANSWER_WEIGHT = 0.5f;
+    private static final float PREFIX_WEIGHT = 0.8f;
+    private static final float FUZZY_WEIGHT = 0.6f;
+    // Не больше стольких термов на одно слово запроса при префиксном и нечётком расширении
+    private static final int MAX_EXPANSIONS = 64;
+    private static final int MAX_QUERY_TERMS = 32;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ArchivedBoardCodec archivedBoardCodec;
+
+    @Value("${game.search.duplicate-threshold:0.8}")
+    private double duplicateThreshold;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Перечитывания игр идут по одному, чтобы более старое чтение не легло поверх нового
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    // Номер документа → документ; null — удалён
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<Long, List<Integer>> gameDocuments = new HashMap<>();
+    // Название категории (без регистра) → стоимость → документы; удалённые пропускаются при выборке
+    private final Map<String, Map<Integer, IntList>> buckets = new HashMap<>();
+    private int live;
+    private long totalLength;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT);
+                statement.setFetchSize(1000);
+                return statement;
+            }, (RowCallbackHandler) rs -> add(readRow(rs))));
+            // Архивные доски распаковываются по одной
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_ARCHIVED);
+                statement.setFetchSize(10);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    readArchived(rs).forEach(this::add);
+                } catch (RuntimeException e) {
+                    log.warn("Cannot index archived game {}", rs.getLong(1), e);
+                }
+            }));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Question index built: {} questions, {} terms in {} ms", live, terms.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(QuestionIndexChange change) {
+        try {
+            refresh(change.gameId());
+        } catch (RuntimeException e) {
+            // Правка уже закоммичена; индекс догонит её при следующем изменении игры
+            log.warn("Cannot refresh question index for game {}", change.gameId(), e);
+        }
+    }
+
+    // Перечитывает вопросы игры, для перенесённой в архив — из архива; удалённая игра просто пропадает из индекса
+    public void refresh(Long gameId) {
+        refreshLock.lock();
+        try {
+            List<Row> rows = jdbcTemplate.query(SELECT + " WHERE c.game_id = ?", (rs, rowNum) -> readRow(rs), gameId);
+            if (rows.isEmpty()) {
+                rows = jdbcTemplate.query(SELECT_ARCHIVED + " WHERE id = ?", (rs, rowNum) -> readArchived(rs), gameId)
+                        .stream().flatMap(List::stream).toList();
+            }
+            lock.writeLock().lock();
+            try {
+                List<Integer> previous = gameDocuments.remove(gameId);
+                if (previous != null) {
+                    previous.forEach(this::remove);
+                }
+                rows.forEach(this::add);
+                if (documents.size() - live > Math.max(live, 10_000)) {
+                    compact();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Ранжированный поиск: каждое слово запроса совпадает с термом точно, по префиксу или
+     * с опечаткой (1 правка для слов от 4 букв, 2 — от 8). Вопросы, совпавшие не со всеми
+     * словами, опускаются пропорционально числу совпавших.
+     */
+    public List<Hit> search(String query, Integer minPoints, Integer maxPoints, String category, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTerms.size() > MAX_QUERY_TERMS) {
+            queryTerms = queryTerms.subList(0, MAX_QUERY_TERMS);
+        }
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        String categoryKey = category != null && !category.isBlank() ? categoryKey(category) : null;
+        lock.readLock().lock();
+        try {
+            int size = documents.size();
+            float[] scores = new float[size];
+            float[] termScores = new float[size];
+            byte[] matched = new byte[size];
+            IntList candidates = new IntList();
+            IntList termCandidates = new IntList();
+            float averageLength = live == 0 ? 1 : (float) totalLength / live;
+            for (String term : queryTerms) {
+                for (Map.Entry<Postings, Float> expansion : expand(term).entrySet()) {
+                    Postings postings = expansion.getKey();
+                    float idf = idf(postings.live);
+                    for (int i = 0; i < postings.size; i++) {
+                        int docNo = postings.docs[i];
+                        Document document = documents.get(docNo);
+                        if (document == null) {
+                            continue;
+                        }
+                        short freq = postings.freqs[i];
+                        float tf = questionFreq(freq) + ANSWER_WEIGHT * answerFreq(freq);
+                        float score = expansion.getValue() * idf * tf * (K1 + 1)
+                                / (tf + K1 * (1 - B + B * document.length() / averageLength));
+                        if (termScores[docNo] == 0) {
+                            termCandidates.add(docNo);
+                        }
+                        termScores[docNo] = Math.max(termScores[docNo], score);
+                    }
+                }
+                for (int i = 0; i < termCandidates.size; i++) {
+                    int docNo = termCandidates.values[i];
+                    if (scores[docNo] == 0) {
+                        candidates.add(docNo);
+                    }
+                    scores[docNo] += termScores[docNo];
+                    matched[docNo]++;
+                    termScores[docNo] = 0;
+                }
+                termCandidates.size = 0;
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+            for (int i = 0; i < candidates.size; i++) {
+                int docNo = candidates.values[i];
+                Document document = documents.get(docNo);
+                if ((minPoints != null && document.points() < minPoints)
+                        || (maxPoints != null && document.points() > maxPoints)
+                        || (categoryKey != null && !categoryKey.equals(document.categoryKey()))) {
+                    continue;
+                }
+                top.add(new Hit(document, scores[docNo] * matched[docNo] / queryTerms.size()));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Вопросы, почти совпадающие с текстом по набору слов (коэффициент Жаккара не ниже
+     * game.search.duplicate-threshold). Кандидаты берутся только из списков нескольких самых
+     * редких слов текста: вопрос без них не наберёт нужную долю общих слов.
+     */
+    public List<Hit> findSimilar(String questionText, Long excludeQuestionId, int limit) {
+        Set<String> words = new HashSet<>(tokenize(questionText));
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<String> rarest = new ArrayList<>(words);
+            rarest.sort(Comparator.comparingInt(word -> {
+                Postings postings = terms.get(word);
+                return postings == null ? 0 : postings.live;
+            }));
+            int prefix = words.size() - (int) Math.ceil(duplicateThreshold * words.size()) + 1;
+            Set<Integer> candidates = new HashSet<>();
+            for (String word : rarest.subList(0, Math.min(prefix, rarest.size()))) {
+                Postings postings = terms.get(word);
+                if (postings == null) {
+                    continue;
+                }
+                for (int i = 0; i < postings.size; i++) {
+                    if (questionFreq(postings.freqs[i]) > 0) {
+                        candidates.add(postings.docs[i]);
+                    }
+                }
+            }
+            List<Hit> hits = new ArrayList<>();
+            for (int docNo : candidates) {
+                Document document = documents.get(docNo);
+                if (document == null || document.questionId().equals(excludeQuestionId)) {
+                    continue;
+                }
+                int own = 0;
+                int common = 0;
+                for (int i = 0; i < document.terms().length; i++) {
+                    if (questionFreq(document.freqs()[i]) > 0) {
+                        own++;
+                        if (words.contains(document.terms()[i])) {
+                            common++;
+                        }
+                    }
+                }
+                double jaccard = (double) common / (words.size() + own - common);
+                if (jaccard >= duplicateThreshold) {
+                    hits.add(new Hit(document, (float) jaccard));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+            return hits.size() > limit ? hits.subList(0, limit) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Точное совпадение, затем термы с этим префиксом, затем термы на расстоянии правки
+    private Map<Postings, Float> expand(String term) {
+        Map<Postings, Float> expansions = new LinkedHashMap<>();
+        Postings exact = terms.get(term);
+        if (exact != null) {
+            expansions.put(exact, 1f);
+        }
+        for (Postings postings : terms.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+            if (expansions.size() >= MAX_EXPANSIONS) {
+                break;
+            }
+            expansions.put(postings, PREFIX_WEIGHT);
+        }
+        int maxEdits = term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+        if (maxEdits == 0) {
+            return expansions;
+        }
+        char first = term.charAt(0);
+        int fuzzy = 0;
+        for (Postings postings : terms.subMap(String.valueOf(first), true, String.valueOf((char) (first + 1)), false).values()) {
+            if (fuzzy >= MAX_EXPANSIONS) {
+                break;
+            }
+            if (Math.abs(postings.term.length() - term.length()) > maxEdits || expansions.containsKey(postings)) {
+                continue;
+            }
+            int distance = editDistance(term, postings.term, maxEdits);
+            if (distance <= maxEdits) {
+                expansions.put(postings, FUZZY_WEIGHT / distance);
+                fuzzy++;
+            }
+        }
+        return expansions;
+    }
+
+    private float idf(int df) {
+        return (float) Math.log(1 + (live - df + 0.5) / (df + 0.5));
+    }
+
+    private void add(Row row) {
+        Map<String, int[]> counts = new LinkedHashMap<>();
+        for (String term : tokenize(row.questionText())) {
+            counts.computeIfAbsent(term, key -> new int[2])[0]++;
+        }
+        for (String term : tokenize(row.answerText())) {
+            counts.computeIfAbsent(term, key -> new int[2])[1]++;
+        }
+        int docNo = documents.size();
+        String[] docTerms = new String[counts.size()];
+        short[] freqs = new short[counts.size()];
+        int length = 0;
+        int i = 0;
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            int[] count = entry.getValue();
+            // Частоты по полям упакованы в short: старший байт — вопрос, младший — ответ
+            short freq = (short) (Math.min(count[0], 255) << 8 | Math.min(count[1], 255));
+            Postings postings = terms.computeIfAbsent(entry.getKey(), Postings::new);
+            postings.add(docNo, freq);
+            docTerms[i] = postings.term;
+            freqs[i++] = freq;
+            length += count[0] + count[1];
+        }
+        documents.add(new Document(row.gameId(), row.questionId(), row.categoryId(), row.categoryName(),
+                categoryKey(row.categoryName()), row.questionText(), row.answerText(), row.points(), docTerms, freqs, length));
+        gameDocuments.computeIfAbsent(row.gameId(), key -> new ArrayList<>()).add(docNo);
+        addToBucket(documents.get(docNo), docNo);
+        live++;
+        totalLength += length;
+    }
+
+    private void remove(int docNo) {
+        Document document = documents.set(docNo, null);
+        for (String term : document.terms()) {
+            Postings postings = terms.get(term);
+            // Терм без живых документов убирается из словаря вместе со списком
+            if (--postings.live == 0) {
+                terms.remove(term);
+            }
+        }
+        live--;
+        totalLength -= document.length();
+    }
+
+    // Перенумеровывает живые документы и перестраивает списки без удалённых
+    private void compact() {
+        List<Document> alive = documents.stream().filter(document -> document != null).toList();
+        documents.clear();
+        terms.clear();
+        gameDocuments.clear();
+        buckets.clear();
+        for (Document document : alive) {
+            int docNo = documents.size();
+            for (int i = 0; i < document.terms().length; i++) {
+                terms.computeIfAbsent(document.terms()[i], Postings::new).add(docNo, document.freqs()[i]);
+            }
+            documents.add(document);
+            gameDocuments.computeIfAbsent(document.gameId(), key -> new ArrayList<>()).add(docNo);
+            addToBucket(document, docNo);
+        }
+    }
+
+    private void addToBucket(Document document, int docNo) {
+        buckets.computeIfAbsent(document.categoryKey(), key -> new HashMap<>())
+                .computeIfAbsent(document.points(), key -> new IntList())
+                .add(docNo);
+    }
+
+    /**
+     * Случайная доска из банка: до categories категорий, в каждой по одному вопросу на каждую
+     * стоимость из points. Категории выбираются равновероятно независимо от числа вопросов в них,
+     * все вопросы одной колонки берутся из одноимённой категории банка. Вопросы, чей текст
+     * встречался в играх excludeGameIds, и повторы текста на самой доске не выбираются.
+     *
+     * @param categoryNames если не пусто — выбирать только из этих категорий
+     */
+    public List<List<Document>> sampleBoard(int categories, List<Integer> points, Collection<String> categoryNames,
+                                            Collection<Long> excludeGameIds, Random random) {
+        lock.readLock().lock();
+        try {
+            Set<String> usedTexts = new HashSet<>();
+            for (Long gameId : excludeGameIds) {
+                for (int docNo : gameDocuments.getOrDefault(gameId, List.of())) {
+                    usedTexts.add(textKey(documents.get(docNo)));
+                }
+            }
+            List<String> keys = new ArrayList<>();
+            if (categoryNames == null || categoryNames.isEmpty()) {
+                keys.addAll(buckets.keySet());
+            } else {
+                categoryNames.stream().map(QuestionIndex::categoryKey).distinct().forEach(keys::add);
+            }
+            Collections.shuffle(keys, random);
+
+            List<List<Document>> board = new ArrayList<>();
+            for (String key : keys) {
+                if (board.size() == categories) {
+                    break;
+                }
+                Map<Integer, IntList> levels = buckets.get(key);
+                if (levels == null || !levels.keySet().containsAll(points)) {
+                    continue;
+                }
+                List<Document> column = new ArrayList<>();
+                Set<String> columnTexts = new HashSet<>();
+                for (int level : points) {
+                    Document document = pick(levels.get(level), random, usedTexts, columnTexts);
+                    if (document == null) {
+                        break;
+                    }
+                    column.add(document);
+                    columnTexts.add(textKey(document));
+                }
+                if (column.size() == points.size()) {
+                    board.add(column);
+                    usedTexts.addAll(columnTexts);
+                }
+            }
+            return board;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Несколько случайных проб, затем обход корзины со случайного места: корзина может состоять из исключённых
+    private Document pick(IntList bucket, Random random, Set<String> usedTexts, Set<String> columnTexts) {
+        for (int attempt = 0; attempt < 16; attempt++) {
+            Document document = documents.get(bucket.values[random.nextInt(bucket.size)]);
+            if (isAvailable(document, usedTexts, columnTexts)) {
+                return document;
+            }
+        }
+        int start = random.nextInt(bucket.size);
+        for (int i = 0; i < bucket.size; i++) {
+            Document document = documents.get(bucket.values[(start + i) % bucket.size]);
+            if (isAvailable(document, usedTexts, columnTexts)) {
+                return document;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isAvailable(Document document, Set<String> usedTexts, Set<String> columnTexts) {
+        if (document == null) {
+            return false;
+        }
+        String text = textKey(document);
+        return !usedTexts.contains(text) && !columnTexts.contains(text);
+    }
+
+    private static String textKey(Document document) {
+        return textKey(document.questionText());
+    }
+
+    // Текст вопроса без регистра и пунктуации: одинаковые вопросы из разных игр совпадают
+    public static String textKey(String questionText) {
+        return String.join(" ", tokenize(questionText));
+    }
+
+    // Название категории без регистра и крайних пробелов: одноимённые категории разных игр совпадают
+    public static String categoryKey(String categoryName) {
+        return normalize(categoryName.trim());
+    }
+
+    private static int questionFreq(short freq) {
+        return (freq & 0xffff) >>> 8;
+    }
+
+    private static int answerFreq(short freq) {
+        return freq & 0xff;
+    }
+
+    private static Row readRow(ResultSet rs) throws SQLException {
+        return new Row(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getString(4), rs.getString(5), rs.getString(6),
+                rs.getInt(7));
+    }
+
+    private List<Row> readArchived(ResultSet rs) throws SQLException {
+        GameDto game = archivedBoardCodec.decompress(rs.getBytes(2)).game();
+        List<Row> rows = new ArrayList<>();
+        for (CategoryDto category : game.getCategories()) {
+            for (QuestionDto question : category.getQuestions()) {
+                rows.add(new Row(rs.getLong(1), question.getId(), category.getId(), category.getName(),
+                        question.getQuestionText(), question.getAnswerText(), question.getPoints()));
+            }
+        }
+        return rows;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = normalize(text);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                // Однобуквенные слова (предлоги, союзы) не индексируются
+                if (i - start > 1) {
+                    tokens.add(normalized.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    // Расстояние Левенштейна с отсечением: max + 1, если оно заведомо больше max
+    private static int editDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    public record Hit(Document document, float score) {
+    }
+
+    public record Document(Long gameId, Long questionId, Long categoryId, String categoryName, String categoryKey,
+                           String questionText, String answerText, int points, String[] terms, short[] freqs,
+                           int length) {
+    }
+
+    private record Row(Long gameId, Long questionId, Long categoryId, String categoryName, String questionText,
+                       String answerText, int points) {
+    }
+
+    private static final class Postings {
+        private final String term;
+        private int[] docs = new int[4];
+        private short[] freqs = new short[4];
+        private int size;
+        // Живых документов в списке (document frequency для BM25)
+        private int live;
+
+        private Postings(String term) {
+            this.term = term;
+        }
+
+        private void add(int docNo, short freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = docNo;
+            freqs[size++] = freq;
+            live++;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[64];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.search;
+
+/**
+ * Изменились вопросы или категории игры (в том числе удаление игры целиком).
+ * Публикуется внутри транзакции правки; индекс перечитывает доску игры после коммита.
+ */
+public record QuestionIndexChange(Long gameId) {
+}
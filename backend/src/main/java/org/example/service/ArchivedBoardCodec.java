@@ -0,0 +1,47 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.GameDto;
+import org.example.dto.RankingDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Формат archived_games.data: доска с ответами и итоговый рейтинг одним JSON, сжатым gzip.
+ * Отдельно от {@link GameArchiveService}, потому что архив читает и поисковый индекс вопросов.
+ */
+@Component
+public class ArchivedBoardCodec {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public byte[] compress(ArchivedBoard board) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream output = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(output, board);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot serialize archived game " + board.game().getId(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public ArchivedBoard decompress(byte[] data) {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return objectMapper.readValue(input, ArchivedBoard.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Archived game is corrupted", e);
+        }
+    }
+
+    public record ArchivedBoard(GameDto game, RankingDto ranking) {
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.dto.BuzzResultDto;
+import org.example.dto.GameEventDto;
+import org.example.engine.BuzzerRound;
+import org.example.engine.GameStateEngine;
+import org.example.engine.LiveGame;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Кнопки команд. Кнопка открывается выбором вопроса (selectQuestion) и существует только
+ * в памяти движка: нажатие не пишет ни в БД, ни в журнал и не берёт блокировку игры.
+ * Первое нажатие открывает окно арбитража game.buzzer.window-ms, по его окончании
+ * побеждает самое раннее нажатие, ведущему уходит событие buzzer-won, таймер вопроса
+ * встаёт на паузу, а ответ на каждое нажатие этого раунда сообщает победителя. Ответ
+ * асинхронный: поток запроса не ждёт окна. Если вопрос разрешили раньше, раунд
+ * закрывается без победителя.
+ */
+@Service
+public class BuzzerService {
+
+    @Autowired
+    private GameStateEngine gameStateEngine;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private QuestionTimerService questionTimerService;
+
+    @Value("${game.buzzer.window-ms:5}")
+    private long windowMs;
+
+    private final ScheduledExecutorService arbiter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "buzzer-arbiter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void shutdown() {
+        arbiter.shutdown();
+    }
+
+    // pressedAt — System.nanoTime() при приёме запроса; результат готов по окончании окна арбитража
+    public CompletableFuture<BuzzResultDto> buzz(Long questionId, Long teamId, long pressedAt) {
+        LiveGame live = findLive(questionId);
+        live.getTeam(teamId);
+        BuzzerRound round = live.getBuzzer(questionId);
+        if (round.press(teamId, pressedAt) == BuzzerRound.Outcome.OPENED) {
+            if (windowMs > 0) {
+                arbiter.schedule(() -> decide(live, round), windowMs, TimeUnit.MILLISECONDS);
+            } else {
+                decide(live, round);
+            }
+        }
+        return round.getWinner()
+                .thenApply(winner -> {
+                    BuzzResultDto dto = mapToDto(round, winner);
+                    dto.setTeamId(teamId);
+                    dto.setWon(teamId.equals(dto.getWinnerTeamId()));
+                    return dto;
+                })
+                .orTimeout(windowMs + 1000, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        throw new RuntimeException("Buzzer arbitration timed out", cause);
+                    }
+                    throw new RuntimeException("Buzzer arbitration failed", cause);
+                });
+    }
+
+    public BuzzResultDto getBuzzer(Long questionId) {
+        BuzzerRound round = findLive(questionId).getBuzzer(questionId);
+        return mapToDto(round, round.getWinner().getNow(null));
+    }
+
+    // Ответ победителя не засчитан: он выбывает из вопроса, остальные команды снова могут нажимать
+    public BuzzResultDto rejectBuzz(Long questionId) {
+        LiveGame live = findLive(questionId);
+        BuzzerRound round = live.rejectBuzz(questionId);
+        questionTimerService.resumeIfPaused(live.getId(), questionId);
+        eventPublisher.publishEvent(GameEventDto.buzzerOpened(live.getId(), questionId));
+        return mapToDto(round, null);
+    }
+
+    // Победитель объявляется под блокировкой игры: вопрос, разрешённый до конца окна, его не получает
+    private void decide(LiveGame live, BuzzerRound round) {
+        live.decideBuzzer(round, winner -> {
+            questionTimerService.pauseIfRunning(live.getId(), round.getQuestionId());
+            eventPublisher.publishEvent(GameEventDto.buzzerWon(live.getId(), round.getQuestionId(), winner.teamId()));
+        });
+    }
+
+    private LiveGame findLive(Long questionId) {
+        LiveGame live = gameStateEngine.findByQuestion(questionId);
+        if (live == null) {
+            throw new RuntimeException("Buzzer is available only in started games");
+        }
+        return live;
+    }
+
+    private BuzzResultDto mapToDto(BuzzerRound round, BuzzerRound.Press winner) {
+        BuzzResultDto dto = new BuzzResultDto();
+        dto.setQuestionId(round.getQuestionId());
+        if (winner != null) {
+            dto.setWinnerTeamId(winner.teamId());
+            dto.setReactionMicros(TimeUnit.NANOSECONDS.toMicros(winner.pressedAt() - round.getOpenedAt()));
+        }
+        return dto;
+    }
+}
@@ -1,17 +1,30 @@
 package org.example.service;
 
+import org.example.dto.BoardRowDto;
 import org.example.dto.CategoryDto;
 import org.example.dto.CreateCategoryDto;
+import org.example.dto.QuestionDto;
+import org.example.engine.GameStateEngine;
+import org.example.engine.LiveCategory;
+import org.example.engine.LiveGame;
 import org.example.entity.Category;
 import org.example.entity.Game;
 import org.example.entity.GameStatus;
+import org.example.entity.Question;
 import org.example.repository.CategoryRepository;
 import org.example.repository.GameRepository;
+import org.example.search.QuestionIndexChange;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +39,15 @@ public class CategoryService {
     @Autowired
     private QuestionService questionService;
 
+    @Autowired
+    private GameStateEngine gameStateEngine;
+
+    @Autowired
+    private ContentCache contentCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public CategoryDto createCategory(Long gameId, CreateCategoryDto dto) {
         Game game = gameRepository.findById(gameId).orElseThrow(() -> new RuntimeException("Game not found"));
@@ -36,16 +58,60 @@ public class CategoryService {
         category.setGame(game);
         category.setName(dto.getName());
         category = categoryRepository.save(category);
+        gameRepository.incrementVersion(gameId);
         return mapToDto(category);
     }
 
+    @Transactional(readOnly = true)
     public CategoryDto getCategory(Long id) {
-        Category category = categoryRepository.findById(id).orElseThrow(() -> new RuntimeException("Category not found"));
-        return mapToDto(category);
+        LiveGame live = gameStateEngine.findByCategory(id);
+        if (live != null) {
+            return mapToDto(live.getCategory(id));
+        }
+        ContentCache.CategoryContent category = contentCache.getCategory(id);
+        CategoryDto dto = new CategoryDto();
+        dto.setId(category.id());
+        dto.setName(category.name());
+        dto.setQuestions(questionService.mapToDtos(contentCache.getCategoryQuestions(id)));
+        return dto;
     }
 
+    @Transactional(readOnly = true)
     public List<CategoryDto> getCategoriesByGame(Long gameId) {
-        return categoryRepository.findByGameId(gameId).stream().map(this::mapToDto).collect(Collectors.toList());
+        LiveGame live = gameStateEngine.find(gameId);
+        if (live != null) {
+            return live.getCategories().stream().map(this::mapToDto).collect(Collectors.toList());
+        }
+        return getBoards(List.of(gameId)).getOrDefault(gameId, new ArrayList<>());
+    }
+
+    /**
+     * Категории с вопросами для нескольких игр одним запросом (left join категорий и вопросов),
+     * без обхода ленивых коллекций.
+     */
+    Map<Long, List<CategoryDto>> getBoards(Collection<Long> gameIds) {
+        Map<Long, List<CategoryDto>> boards = new HashMap<>();
+        Map<Long, CategoryDto> categories = new LinkedHashMap<>();
+        for (BoardRowDto row : categoryRepository.findBoardRows(gameIds)) {
+            CategoryDto category = categories.computeIfAbsent(row.getCategoryId(), id -> {
+                CategoryDto dto = new CategoryDto();
+                dto.setId(id);
+                dto.setName(row.getCategoryName());
+                dto.setQuestions(new ArrayList<>());
+                boards.computeIfAbsent(row.getGameId(), gameId -> new ArrayList<>()).add(dto);
+                return dto;
+            });
+            if (row.getQuestionId() != null) {
+                QuestionDto question = new QuestionDto();
+                question.setId(row.getQuestionId());
+                question.setQuestionText(row.getQuestionText());
+                question.setAnswerText(row.getAnswerText());
+                question.setPoints(row.getPoints());
+                question.setAnswered(row.getAnswered());
+                category.getQuestions().add(question);
+            }
+        }
+        return boards;
     }
 
     @Transactional
@@ -58,6 +124,9 @@ public class CategoryService {
             category.setName(dto.getName());
         }
         category = categoryRepository.save(category);
+        gameRepository.incrementVersion(category.getGame().getId());
+        contentCache.evictCategory(id);
+        eventPublisher.publishEvent(new QuestionIndexChange(category.getGame().getId()));
         return mapToDto(category);
     }
 
@@ -67,7 +136,12 @@ public class CategoryService {
         if (category.getGame().getStatus() != GameStatus.PREPARING) {
             throw new RuntimeException("Cannot delete categories after game started");
         }
+        List<Long> questionIds = category.getQuestions().stream().map(Question::getId).toList();
         categoryRepository.deleteById(id);
+        gameRepository.incrementVersion(category.getGame().getId());
+        contentCache.evictCategory(id);
+        questionIds.forEach(questionId -> contentCache.evictQuestion(questionId, id));
+        eventPublisher.publishEvent(new QuestionIndexChange(category.getGame().getId()));
     }
 
     CategoryDto mapToDto(Category category) {
@@ -77,4 +151,12 @@ public class CategoryService {
         dto.setQuestions(category.getQuestions().stream().map(questionService::mapToDto).collect(Collectors.toList()));
         return dto;
     }
+
+    CategoryDto mapToDto(LiveCategory category) {
+        CategoryDto dto = new CategoryDto();
+        dto.setId(category.getId());
+        dto.setName(category.getName());
+        dto.setQuestions(category.getQuestions().stream().map(questionService::mapToDto).collect(Collectors.toList()));
+        return dto;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package org.example.service;
+
+import org.example.entity.Category;
+import org.example.entity.Question;
+import org.example.repository.CategoryRepository;
+import org.example.repository.QuestionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Кэш неизменяемого содержимого доски: тексты вопросов и ответов, стоимость, названия категорий.
+ * Флаг answered сюда не попадает и всегда читается отдельно. Записи сбрасываются при правках
+ * в фазе PREPARING — сразу и ещё раз после коммита, чтобы параллельное чтение
+ * не вернуло в кэш незакоммиченное состояние.
+ */
+@Component
+public class ContentCache {
+
+    static final String QUESTIONS = "questionContent";
+    static final String CATEGORIES = "categoryContent";
+    static final String CATEGORY_QUESTIONS = "categoryQuestions";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    public QuestionContent getQuestion(Long id) {
+        return load(QUESTIONS, id, () -> toContent(questionRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Question not found"))));
+    }
+
+    public CategoryContent getCategory(Long id) {
+        return load(CATEGORIES, id, () -> {
+            Category category = categoryRepository.findById(id).orElseThrow(() -> new RuntimeException("Category not found"));
+            return new CategoryContent(category.getId(), category.getGame().getId(), category.getName());
+        });
+    }
+
+    public List<QuestionContent> getCategoryQuestions(Long categoryId) {
+        return load(CATEGORY_QUESTIONS, categoryId, () -> questionRepository.findByCategoryIdOrderById(categoryId).stream()
+                .map(this::toContent)
+                .toList());
+    }
+
+    public void evictQuestion(Long questionId, Long categoryId) {
+        evict(QUESTIONS, questionId);
+        evict(CATEGORY_QUESTIONS, categoryId);
+    }
+
+    public void evictCategory(Long categoryId) {
+        evict(CATEGORIES, categoryId);
+        evict(CATEGORY_QUESTIONS, categoryId);
+    }
+
+    /**
+     * Доска игры изменилась на другом узле, известен только id игры. Категории игры берутся
+     * из БД и из самого кэша (удалённой или перенесённой в архив игры в БД уже нет),
+     * вопросы — по их категориям среди закэшированных.
+     */
+    public void evictGame(Long gameId) {
+        Set<Long> categoryIds = new HashSet<>(categoryRepository.findIdsByGameId(gameId));
+        for (Object value : values(CATEGORIES)) {
+            if (value instanceof CategoryContent category && gameId.equals(category.gameId())) {
+                categoryIds.add(category.id());
+            }
+        }
+        List<QuestionContent> questions = new ArrayList<>();
+        for (Object value : values(QUESTIONS)) {
+            if (value instanceof QuestionContent question && categoryIds.contains(question.categoryId())) {
+                questions.add(question);
+            }
+        }
+        categoryIds.forEach(this::evictCategory);
+        questions.forEach(question -> evictQuestion(question.id(), question.categoryId()));
+    }
+
+    // Массовые изменения (импорт пакета) сбрасывают кэш целиком
+    public void evictAll() {
+        afterCommit(() -> List.of(QUESTIONS, CATEGORIES, CATEGORY_QUESTIONS).forEach(name -> cache(name).clear()));
+    }
+
+    /**
+     * Чтение с загрузкой при промахе. Загрузка идёт вне cache.get(key, loader): Caffeine выполняет
+     * её внутри ConcurrentHashMap.compute под synchronized, и запрос к БД закреплял бы
+     * виртуальный поток за носителем. Цена — при холодном ключе значение могут загрузить
+     * несколько потоков одновременно. Ошибки загрузки (например "Question not found")
+     * пробрасываются как есть.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T load(String cacheName, Long key, Supplier<T> loader) {
+        Cache cache = cache(cacheName);
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value = loader.get();
+        Cache.ValueWrapper existing = cache.putIfAbsent(key, value);
+        return existing != null ? (T) existing.get() : value;
+    }
+
+    private void evict(String cacheName, Long key) {
+        afterCommit(() -> cache(cacheName).evict(key));
+    }
+
+    private void afterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    // Снимок значений кэша; Caffeine в приложении, ConcurrentMap при spring.cache.type=simple
+    private Collection<?> values(String name) {
+        Object nativeCache = cache(name).getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            return List.copyOf(caffeine.asMap().values());
+        }
+        if (nativeCache instanceof Map<?, ?> map) {
+            return List.copyOf(map.values());
+        }
+        return List.of();
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), name);
+    }
+
+    private QuestionContent toContent(Question question) {
+        return new QuestionContent(question.getId(), question.getCategory().getId(), question.getQuestionText(),
+                question.getAnswerText(), question.getPoints());
+    }
+
+    public record QuestionContent(Long id, Long categoryId, String questionText, String answerText, int points) {
+    }
+
+    public record CategoryContent(Long id, Long gameId, String name) {
+    }
+}
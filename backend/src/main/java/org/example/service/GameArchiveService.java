@@ -0,0 +1,204 @@
+package org.example.service;
+
+import org.example.dto.CategoryDto;
+import org.example.dto.GameDto;
+import org.example.dto.GameSummaryDto;
+import org.example.dto.RankedTeamDto;
+import org.example.dto.RankingDto;
+import org.example.dto.TeamDto;
+import org.example.entity.ArchivedGame;
+import org.example.entity.Game;
+import org.example.entity.GameStatus;
+import org.example.entity.Team;
+import org.example.repository.ArchivedGameRepository;
+import org.example.repository.GameRepository;
+import org.example.repository.TeamRepository;
+import org.example.service.ArchivedBoardCodec.ArchivedBoard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Архив завершённых игр. Игры, завершённые раньше game.archive.retention-days назад,
+ * фоном переносятся в archived_games: доска с ответами и итоговый рейтинг сериализуются
+ * в JSON и сжимаются gzip в одну строку, а строки игры удаляются из games, categories,
+ * questions и teams несколькими DELETE по game_id, без загрузки сущностей и каскадов.
+ * Архивная игра читается только на чтение и распаковывается при обращении.
+ * Вопросы архивных игр остаются в поисковом индексе ({@link org.example.search.QuestionIndex}).
+ */
+@Service
+public class GameArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(GameArchiveService.class);
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private ArchivedGameRepository archivedGameRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ContentCache contentCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ArchivedBoardCodec archivedBoardCodec;
+
+    @Value("${game.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${game.archive.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${game.archive.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${game.archive.interval-ms:3600000}", fixedDelayString = "${game.archive.interval-ms:3600000}")
+    public void archiveExpired() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int archived = 0;
+        int failed = 0;
+        // Проход по id: игра, которую не удалось перенести, пропускается до следующего запуска
+        // и не возвращается в следующую пачку этого
+        long after = 0;
+        List<Long> ids;
+        do {
+            ids = gameRepository.findArchivableIds(GameStatus.FINISHED, cutoff, after, PageRequest.of(0, batchSize));
+            for (Long id : ids) {
+                after = id;
+                try {
+                    // Каждая игра — своя транзакция: сбой одной не откатывает уже перенесённые
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(status -> archive(id)))) {
+                        archived++;
+                    }
+                } catch (RuntimeException e) {
+                    failed++;
+                    log.warn("Cannot archive game {}", id, e);
+                }
+            }
+        } while (ids.size() == batchSize);
+        if (archived > 0 || failed > 0) {
+            log.info("Archived {} finished games, {} failed", archived, failed);
+        }
+    }
+
+    // false — игру успели удалить или она уже в архиве (например, другим узлом)
+    boolean archive(Long id) {
+        List<String> status = jdbcTemplate.queryForList("SELECT status FROM games WHERE id = ? FOR UPDATE", String.class, id);
+        if (status.isEmpty() || !GameStatus.FINISHED.name().equals(status.get(0))) {
+            return false;
+        }
+        Game game = gameRepository.findById(id).orElseThrow(() -> new RuntimeException("Game not found"));
+        List<Team> teams = teamRepository.findByGameIdOrderByScoreDescIdAsc(id);
+        List<CategoryDto> categories = categoryService.getBoards(List.of(id)).getOrDefault(id, new ArrayList<>());
+
+        GameDto board = new GameDto();
+        board.setId(id);
+        board.setTitle(game.getTitle());
+        board.setStatus(GameStatus.FINISHED);
+        board.setCategories(categories);
+        board.setTeams(teams.stream().map(this::mapToDto).toList());
+        RankingDto ranking = new RankingDto();
+        ranking.setVersion(game.getVersion());
+        List<RankedTeamDto> ranked = new ArrayList<>();
+        for (int i = 0; i < teams.size(); i++) {
+            ranked.add(mapToDto(teams.get(i), i + 1));
+        }
+        ranking.setTeams(ranked);
+
+        ArchivedGame archived = new ArchivedGame();
+        archived.setId(id);
+        archived.setTitle(game.getTitle());
+        archived.setCreatedAt(game.getCreatedAt());
+        archived.setFinishedAt(game.getFinishedAt());
+        archived.setArchivedAt(LocalDateTime.now());
+        archived.setVersion(game.getVersion());
+        archived.setTeamCount(teams.size());
+        archived.setQuestionCount(categories.stream().mapToLong(category -> category.getQuestions().size()).sum());
+        archived.setData(archivedBoardCodec.compress(new ArchivedBoard(board, ranking)));
+        archivedGameRepository.saveAndFlush(archived);
+
+        jdbcTemplate.update("DELETE FROM questions WHERE category_id IN (SELECT id FROM categories WHERE game_id = ?)", id);
+        jdbcTemplate.update("DELETE FROM categories WHERE game_id = ?", id);
+        jdbcTemplate.update("DELETE FROM teams WHERE game_id = ?", id);
+        jdbcTemplate.update("DELETE FROM game_leases WHERE game_id = ?", id);
+        jdbcTemplate.update("DELETE FROM games WHERE id = ?", id);
+        // Из кэша уходят только категории и вопросы этой игры
+        for (CategoryDto category : categories) {
+            contentCache.evictCategory(category.getId());
+            category.getQuestions().forEach(question -> contentCache.evictQuestion(question.getId(), category.getId()));
+        }
+        // Документы игры остаются в поисковом индексе: вопросы архива тоже можно находить и брать в новые доски
+        return true;
+    }
+
+    public Optional<GameDto> findGame(Long id) {
+        return findBoard(id).map(ArchivedBoard::game);
+    }
+
+    public Optional<RankingDto> findRanking(Long id) {
+        return findBoard(id).map(ArchivedBoard::ranking);
+    }
+
+    public Optional<Long> findVersion(Long id) {
+        return archivedGameRepository.findVersionById(id);
+    }
+
+    public List<GameSummaryDto> findSummaries(Long before, int size) {
+        return archivedGameRepository.findSummaries(before, PageRequest.of(0, size)).stream()
+                .map(row -> new GameSummaryDto((Long) row[0], (String) row[1], GameStatus.FINISHED, (Long) row[2],
+                        (Long) row[3], (LocalDateTime) row[4]))
+                .toList();
+    }
+
+    public void delete(Long id) {
+        archivedGameRepository.deleteById(id);
+    }
+
+    private Optional<ArchivedBoard> findBoard(Long id) {
+        return archivedGameRepository.findById(id).map(archived -> archivedBoardCodec.decompress(archived.getData()));
+    }
+
+    private TeamDto mapToDto(Team team) {
+        TeamDto dto = new TeamDto();
+        dto.setId(team.getId());
+        dto.setName(team.getName());
+        dto.setScore(team.getScore());
+        return dto;
+    }
+
+    private RankedTeamDto mapToDto(Team team, int rank) {
+        RankedTeamDto dto = new RankedTeamDto();
+        dto.setId(team.getId());
+        dto.setName(team.getName());
+        dto.setScore(team.getScore());
+        dto.setRank(rank);
+        return dto;
+    }
+
+}
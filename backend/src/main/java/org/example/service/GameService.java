@@ -1,20 +1,50 @@
 package org.example.service;
 
+import org.example.dto.CategoryDto;
+import org.example.dto.CreateBoardCategoryDto;
+import org.example.dto.CreateBoardDto;
 import org.example.dto.CreateGameDto;
+import org.example.dto.CreateQuestionDto;
+import org.example.dto.CreateTeamDto;
+import org.example.dto.GameChangesDto;
 import org.example.dto.GameDto;
+import org.example.dto.GameEventDto;
+import org.example.dto.GamePageDto;
+import org.example.dto.GameSummaryDto;
+import org.example.dto.GenerateBoardDto;
+import org.example.dto.QuestionStateDto;
+import org.example.dto.TeamDto;
+import org.example.engine.GameChanges;
+import org.example.engine.GameStateEngine;
+import org.example.engine.LiveGame;
+import org.example.entity.Category;
 import org.example.entity.Game;
 import org.example.entity.GameStatus;
+import org.example.entity.Question;
+import org.example.entity.Team;
 import org.example.repository.GameRepository;
+import org.example.search.QuestionIndex;
+import org.example.search.QuestionIndexChange;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.stream.Collectors;
 
 @Service
 public class GameService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_GENERATED_CATEGORIES = 20;
+
     @Autowired
     private GameRepository gameRepository;
 
@@ -24,6 +54,24 @@ public class GameService {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private GameStateEngine gameStateEngine;
+
+    @Autowired
+    private ContentCache contentCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private QuestionIndex questionIndex;
+
+    @Autowired
+    private GameArchiveService gameArchiveService;
+
+    @Autowired
+    private GameStatsService gameStatsService;
+
     @Transactional
     public GameDto createGame(CreateGameDto dto) {
         Game game = new Game();
@@ -33,18 +81,156 @@ public class GameService {
         return mapToDto(game);
     }
 
-    public GameDto getGame(Long id) {
-        Game game = gameRepository.findById(id).orElseThrow(() -> new RuntimeException("Game not found"));
+    /**
+     * Создаёт игру вместе с категориями, вопросами и командами в одной транзакции.
+     * Вся доска сохраняется каскадом, а вставки уходят пакетами (jdbc.batch_size).
+     */
+    @Transactional
+    public GameDto setupGame(CreateBoardDto dto) {
+        Game game = new Game();
+        game.setTitle(dto.getTitle());
+        game.setStatus(GameStatus.PREPARING);
+        for (CreateBoardCategoryDto categoryDto : dto.getCategories()) {
+            Category category = new Category();
+            category.setGame(game);
+            category.setName(categoryDto.getName());
+            for (CreateQuestionDto questionDto : categoryDto.getQuestions()) {
+                Question question = new Question();
+                question.setCategory(category);
+                question.setQuestionText(questionDto.getQuestionText());
+                question.setAnswerText(questionDto.getAnswerText());
+                question.setPoints(questionDto.getPoints());
+                question.setAnswered(false);
+                category.getQuestions().add(question);
+            }
+            game.getCategories().add(category);
+        }
+        for (CreateTeamDto teamDto : dto.getTeams()) {
+            Team team = new Team();
+            team.setGame(game);
+            team.setName(teamDto.getName());
+            team.setScore(0);
+            game.getTeams().add(team);
+        }
+        game = gameRepository.saveAndFlush(game);
+        eventPublisher.publishEvent(new QuestionIndexChange(game.getId()));
         return mapToDto(game);
     }
 
-    public List<GameDto> getAllGames() {
-        return gameRepository.findAll().stream().map(this::mapToDto).collect(Collectors.toList());
+    /**
+     * Собирает доску из банка вопросов всех игр: выборка идёт по индексу (категория, стоимость)
+     * в памяти, а готовая доска сохраняется так же, как в setupGame, — одной пакетной записью.
+     */
+    @Transactional
+    public GameDto generateGame(GenerateBoardDto dto) {
+        List<Integer> points = dto.getPoints().stream().distinct().sorted().toList();
+        if (points.isEmpty() || dto.getCategoryCount() < 1 || dto.getCategoryCount() > MAX_GENERATED_CATEGORIES) {
+            throw new RuntimeException("Board must have 1-" + MAX_GENERATED_CATEGORIES + " categories and at least one point level");
+        }
+        List<Long> excluded = dto.getExcludeLastGames() > 0
+                ? gameRepository.findRecentIds(PageRequest.of(0, dto.getExcludeLastGames()))
+                : List.of();
+        Random random = dto.getSeed() != null ? new Random(dto.getSeed()) : new Random();
+        List<List<QuestionIndex.Document>> columns = questionIndex.sampleBoard(dto.getCategoryCount(), points,
+                dto.getCategoryNames(), excluded, random);
+        if (columns.size() < dto.getCategoryCount()) {
+            throw new RuntimeException("Question bank has only " + columns.size() + " categories with unused questions for all of " + points);
+        }
+
+        CreateBoardDto board = new CreateBoardDto();
+        board.setTitle(dto.getTitle() != null ? dto.getTitle() : "Generated game");
+        board.setTeams(dto.getTeams());
+        for (List<QuestionIndex.Document> column : columns) {
+            CreateBoardCategoryDto category = new CreateBoardCategoryDto();
+            category.setName(column.get(0).categoryName());
+            for (QuestionIndex.Document document : column) {
+                CreateQuestionDto question = new CreateQuestionDto();
+                question.setQuestionText(document.questionText());
+                question.setAnswerText(document.answerText());
+                question.setPoints(document.points());
+                category.getQuestions().add(question);
+            }
+            board.getCategories().add(category);
+        }
+        return setupGame(board);
+    }
+
+    // Текущая версия игры без чтения доски и команд
+    @Transactional(readOnly = true)
+    public long getVersion(Long id) {
+        LiveGame live = gameStateEngine.find(id);
+        if (live != null) {
+            return live.getVersion();
+        }
+        return gameRepository.findVersionById(id)
+                .or(() -> gameArchiveService.findVersion(id))
+                .orElseThrow(() -> new RuntimeException("Game not found"));
+    }
+
+    // Игра из архива распаковывается только здесь и только на чтение
+    @Transactional(readOnly = true)
+    public GameDto getGame(Long id) {
+        LiveGame live = gameStateEngine.find(id);
+        if (live != null) {
+            return mapToDto(live);
+        }
+        return gameRepository.findById(id).map(this::mapToDto)
+                .or(() -> gameArchiveService.findGame(id))
+                .orElseThrow(() -> new RuntimeException("Game not found"));
+    }
+
+    /**
+     * Дельта для клиента, пропустившего события: вопросы и команды, изменившиеся после версии since.
+     * Если игры нет в движке или её лог изменений уже не покрывает since, возвращается полный снимок.
+     */
+    @Transactional(readOnly = true)
+    public GameChangesDto getChanges(Long id, long since) {
+        LiveGame live = gameStateEngine.find(id);
+        GameChanges changes = live != null ? live.getChangesSince(since) : null;
+        if (changes != null) {
+            return mapToDto(live, changes);
+        }
+        long version = getVersion(id);
+        GameChangesDto dto = new GameChangesDto();
+        dto.setVersion(version);
+        dto.setQuestions(List.of());
+        dto.setTeams(List.of());
+        if (version != since) {
+            dto.setFull(true);
+            dto.setGame(getGame(id));
+        }
+        return dto;
+    }
+
+    @Transactional(readOnly = true)
+    public GamePageDto getGames(GameStatus status, Long cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<GameSummaryDto> items = gameRepository.findSummaries(status, cursor, PageRequest.of(0, size));
+        if (status == null || status == GameStatus.FINISHED) {
+            // Архивные игры — та же лента по убыванию id: сливаем две страницы и берём первые size
+            List<GameSummaryDto> archived = gameArchiveService.findSummaries(cursor, size);
+            if (!archived.isEmpty()) {
+                List<GameSummaryDto> merged = new ArrayList<>(items);
+                merged.addAll(archived);
+                merged.sort(Comparator.comparing(GameSummaryDto::getId).reversed());
+                items = merged.subList(0, Math.min(size, merged.size()));
+            }
+        }
+        GamePageDto page = new GamePageDto();
+        page.setItems(items);
+        page.setNextCursor(items.size() == size ? items.get(items.size() - 1).getId() : null);
+        return page;
     }
 
     @Transactional
     public void deleteGame(Long id) {
+        gameStateEngine.discard(id);
+        // Кэш сбрасывается до удаления, пока категории игры ещё есть в БД
+        contentCache.evictGame(id);
         gameRepository.deleteById(id);
+        gameArchiveService.delete(id);
+        gameStatsService.delete(id);
+        eventPublisher.publishEvent(new QuestionIndexChange(id));
     }
 
     @Transactional
@@ -54,28 +240,101 @@ public class GameService {
             throw new RuntimeException("Game already started or finished");
         }
         game.setStatus(GameStatus.STARTED);
+        game.setVersion(game.getVersion() + 1);
         game = gameRepository.save(game);
+        gameStateEngine.load(game);
+        eventPublisher.publishEvent(GameEventDto.statusChanged(id, GameStatus.STARTED));
         return mapToDto(game);
     }
 
+    /**
+     * Отменяет последнее действие ведущего в запущенной игре. История действий есть
+     * только в журнале движка, поэтому без движка отмена недоступна.
+     */
+    public GameDto undoLastAction(Long id) {
+        LiveGame live = gameStateEngine.find(id);
+        if (live == null) {
+            throw new RuntimeException("Game not started");
+        }
+        LiveGame.Action action = live.undoLast();
+        if (action.questionId() != null) {
+            eventPublisher.publishEvent(GameEventDto.questionReopened(id, action.questionId()));
+        }
+        if (action.teamId() != null) {
+            eventPublisher.publishEvent(GameEventDto.scoreChanged(id, action.teamId(),
+                    live.getTeam(action.teamId()).getScore()));
+        }
+        return mapToDto(live);
+    }
+
     @Transactional
     public GameDto finishGame(Long id) {
+        // Состояние из памяти записывается до чтения игры, чтобы сущность видела актуальную версию;
+        // из движка игра уходит только после коммита
+        gameStateEngine.flushForFinish(id);
         Game game = gameRepository.findById(id).orElseThrow(() -> new RuntimeException("Game not found"));
         if (game.getStatus() != GameStatus.STARTED) {
             throw new RuntimeException("Game not started");
         }
         game.setStatus(GameStatus.FINISHED);
+        game.setFinishedAt(LocalDateTime.now());
+        game.setVersion(game.getVersion() + 1);
         game = gameRepository.save(game);
-        return mapToDto(game);
+        GameDto dto = mapToDto(game);
+        gameStatsService.record(dto, game.getFinishedAt());
+        eventPublisher.publishEvent(GameEventDto.statusChanged(id, GameStatus.FINISHED));
+        return dto;
     }
 
     private GameDto mapToDto(Game game) {
+        return mapToDtos(List.of(game)).get(0);
+    }
+
+    // Команды и доски всех игр грузятся двумя запросами независимо от размера и числа игр
+    private List<GameDto> mapToDtos(List<Game> games) {
+        if (games.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = games.stream().map(Game::getId).toList();
+        Map<Long, List<TeamDto>> teams = teamService.getTeamsByGames(ids);
+        Map<Long, List<CategoryDto>> boards = categoryService.getBoards(ids);
+        return games.stream().map(game -> {
+            GameDto dto = new GameDto();
+            dto.setId(game.getId());
+            dto.setTitle(game.getTitle());
+            dto.setStatus(game.getStatus());
+            dto.setTeams(teams.getOrDefault(game.getId(), new ArrayList<>()));
+            dto.setCategories(boards.getOrDefault(game.getId(), new ArrayList<>()));
+            return dto;
+        }).collect(Collectors.toList());
+    }
+
+    private GameChangesDto mapToDto(LiveGame live, GameChanges changes) {
+        GameChangesDto dto = new GameChangesDto();
+        dto.setVersion(changes.version());
+        dto.setQuestions(changes.questions().entrySet().stream().map(entry -> {
+            QuestionStateDto question = new QuestionStateDto();
+            question.setId(entry.getKey());
+            question.setAnswered(entry.getValue());
+            return question;
+        }).collect(Collectors.toList()));
+        dto.setTeams(changes.teams().entrySet().stream().map(entry -> {
+            TeamDto team = new TeamDto();
+            team.setId(entry.getKey());
+            team.setName(live.getTeam(entry.getKey()).getName());
+            team.setScore(entry.getValue());
+            return team;
+        }).collect(Collectors.toList()));
+        return dto;
+    }
+
+    private GameDto mapToDto(LiveGame live) {
         GameDto dto = new GameDto();
-        dto.setId(game.getId());
-        dto.setTitle(game.getTitle());
-        dto.setStatus(game.getStatus());
-        dto.setTeams(game.getTeams().stream().map(teamService::mapToDto).collect(Collectors.toList()));
-        dto.setCategories(game.getCategories().stream().map(categoryService::mapToDto).collect(Collectors.toList()));
+        dto.setId(live.getId());
+        dto.setTitle(live.getTitle());
+        dto.setStatus(GameStatus.STARTED);
+        dto.setTeams(live.getTeams().stream().map(teamService::mapToDto).collect(Collectors.toList()));
+        dto.setCategories(live.getCategories().stream().map(categoryService::mapToDto).collect(Collectors.toList()));
         return dto;
     }
 }
\ No newline at end of file
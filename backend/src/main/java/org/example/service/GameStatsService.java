@@ -0,0 +1,325 @@
+package org.example.service;
+
+import org.example.dto.AnalyticsDto;
+import org.example.dto.AnswerRateDto;
+import org.example.dto.CategoryDto;
+import org.example.dto.GameDto;
+import org.example.dto.GameScoreDto;
+import org.example.dto.QuestionDto;
+import org.example.dto.TeamDto;
+import org.example.dto.UnansweredQuestionDto;
+import org.example.entity.GameStats;
+import org.example.entity.GameStatus;
+import org.example.search.QuestionIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Аналитика по завершённым играм. Итоги каждой игры (ответы по уровням категория × стоимость,
+ * неотвеченные вопросы, победный счёт и разброс) записываются в game_stats* при finishGame,
+ * а сводка — это несколько GROUP BY по этим таблицам. Горячие questions и teams при запросе
+ * не читаются; сводка кэшируется на game.analytics.cache-ms и сбрасывается новой записью.
+ * Полная перестройка разбивает завершённые и архивные игры на пачки и считает их параллельно.
+ */
+@Service
+public class GameStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(GameStatsService.class);
+
+    private static final int CHUNK_SIZE = 100;
+    private static final int TOP_CATEGORIES = 50;
+    private static final int TOP_UNANSWERED = 20;
+    private static final int RECENT_GAMES = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private GameArchiveService gameArchiveService;
+
+    @Value("${game.analytics.cache-ms:60000}")
+    private long cacheMs;
+
+    @Value("${game.analytics.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    private volatile Cached cached;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    // Вызывается в транзакции finishGame: итоги пишутся вместе со сменой статуса
+    public void record(GameDto game, LocalDateTime finishedAt) {
+        write(List.of(compute(game, finishedAt)));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cached = null;
+                }
+            });
+        } else {
+            cached = null;
+        }
+    }
+
+    public void delete(Long gameId) {
+        deleteStats(List.of(gameId));
+        cached = null;
+    }
+
+    @Transactional(readOnly = true)
+    public AnalyticsDto getAnalytics() {
+        Cached current = cached;
+        if (current != null && System.nanoTime() - current.computedAt() < TimeUnit.MILLISECONDS.toNanos(cacheMs)) {
+            return current.analytics();
+        }
+        AnalyticsDto analytics = rollUp();
+        cached = new Cached(analytics, System.nanoTime());
+        return analytics;
+    }
+
+    /**
+     * Пересчитывает итоги всех завершённых игр, в том числе архивных, пачками по CHUNK_SIZE
+     * на game.analytics.rebuild-threads потоках; каждая пачка пишется своей транзакцией.
+     */
+    public AnalyticsDto rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new RuntimeException("Analytics rebuild is already running");
+        }
+        try {
+            long started = System.nanoTime();
+            List<Object[]> finished = jdbcTemplate.query("SELECT id, finished_at FROM games WHERE status = ? ORDER BY id",
+                    (rs, rowNum) -> new Object[]{rs.getLong(1), toLocalDateTime(rs.getTimestamp(2))},
+                    GameStatus.FINISHED.name());
+            List<Object[]> archived = jdbcTemplate.query("SELECT id, finished_at FROM archived_games ORDER BY id",
+                    (rs, rowNum) -> new Object[]{rs.getLong(1), toLocalDateTime(rs.getTimestamp(2))});
+            int games = 0;
+            try (ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, rebuildThreads))) {
+                List<Future<Integer>> chunks = new ArrayList<>();
+                for (int from = 0; from < finished.size(); from += CHUNK_SIZE) {
+                    List<Object[]> chunk = finished.subList(from, Math.min(from + CHUNK_SIZE, finished.size()));
+                    chunks.add(workers.submit(() -> rebuildFinished(chunk)));
+                }
+                for (int from = 0; from < archived.size(); from += CHUNK_SIZE) {
+                    List<Object[]> chunk = archived.subList(from, Math.min(from + CHUNK_SIZE, archived.size()));
+                    chunks.add(workers.submit(() -> rebuildArchived(chunk)));
+                }
+                for (Future<Integer> chunk : chunks) {
+                    games += chunk.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Analytics rebuild interrupted");
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Analytics rebuild failed: " + e.getCause().getMessage(), e.getCause());
+            }
+            log.info("Rebuilt analytics for {} games in {} ms", games, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            cached = null;
+            return getAnalytics();
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    // Доски и команды пачки — двумя запросами, как в GameService.mapToDtos
+    private int rebuildFinished(List<Object[]> chunk) {
+        List<Long> ids = chunk.stream().map(row -> (Long) row[0]).toList();
+        Map<Long, List<CategoryDto>> boards = categoryService.getBoards(ids);
+        Map<Long, List<TeamDto>> teams = teamService.getTeamsByGames(ids);
+        Map<Long, String> titles = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, title FROM games WHERE id IN (" + placeholders(ids.size()) + ")",
+                rs -> {
+                    titles.put(rs.getLong(1), rs.getString(2));
+                }, ids.toArray());
+        List<GameStats> stats = new ArrayList<>();
+        for (Object[] row : chunk) {
+            Long id = (Long) row[0];
+            GameDto game = new GameDto();
+            game.setId(id);
+            game.setTitle(titles.getOrDefault(id, ""));
+            game.setCategories(boards.getOrDefault(id, List.of()));
+            game.setTeams(teams.getOrDefault(id, List.of()));
+            stats.add(compute(game, (LocalDateTime) row[1]));
+        }
+        transactionTemplate.executeWithoutResult(status -> write(stats));
+        return stats.size();
+    }
+
+    private int rebuildArchived(List<Object[]> chunk) {
+        List<GameStats> stats = new ArrayList<>();
+        for (Object[] row : chunk) {
+            gameArchiveService.findGame((Long) row[0]).ifPresent(game -> stats.add(compute(game, (LocalDateTime) row[1])));
+        }
+        transactionTemplate.executeWithoutResult(status -> write(stats));
+        return stats.size();
+    }
+
+    private GameStats compute(GameDto game, LocalDateTime finishedAt) {
+        GameStats stats = new GameStats();
+        stats.setGameId(game.getId());
+        stats.setTitle(game.getTitle());
+        stats.setFinishedAt(finishedAt);
+        stats.setTeamCount(game.getTeams().size());
+        if (!game.getTeams().isEmpty()) {
+            int best = game.getTeams().stream().mapToInt(TeamDto::getScore).max().getAsInt();
+            int worst = game.getTeams().stream().mapToInt(TeamDto::getScore).min().getAsInt();
+            stats.setWinningScore(best);
+            stats.setScoreSpread(best - worst);
+        }
+        Map<String, GameStats.Level> levels = new LinkedHashMap<>();
+        for (CategoryDto category : game.getCategories()) {
+            String categoryKey = QuestionIndex.categoryKey(category.getName());
+            for (QuestionDto question : category.getQuestions()) {
+                GameStats.Level level = levels.computeIfAbsent(categoryKey + '\u0000' + question.getPoints(), key -> {
+                    GameStats.Level created = new GameStats.Level();
+                    created.setCategoryName(category.getName());
+                    created.setCategoryKey(categoryKey);
+                    created.setPoints(question.getPoints());
+                    return created;
+                });
+                level.setQuestions(level.getQuestions() + 1);
+                stats.setQuestionCount(stats.getQuestionCount() + 1);
+                if (question.isAnswered()) {
+                    level.setAnswered(level.getAnswered() + 1);
+                    stats.setAnsweredCount(stats.getAnsweredCount() + 1);
+                } else {
+                    GameStats.Unanswered unanswered = new GameStats.Unanswered();
+                    unanswered.setQuestionKey(QuestionIndex.textKey(question.getQuestionText()));
+                    unanswered.setQuestionText(question.getQuestionText());
+                    unanswered.setCategoryName(category.getName());
+                    unanswered.setPoints(question.getPoints());
+                    stats.getUnanswered().add(unanswered);
+                }
+            }
+        }
+        stats.getLevels().addAll(levels.values());
+        return stats;
+    }
+
+    // Повторная запись игры (перестройка) заменяет её прежние итоги
+    private void write(List<GameStats> stats) {
+        if (stats.isEmpty()) {
+            return;
+        }
+        deleteStats(stats.stream().map(GameStats::getGameId).toList());
+        jdbcTemplate.batchUpdate("INSERT INTO game_stats (game_id, title, finished_at, team_count, question_count, " +
+                        "answered_count, winning_score, score_spread) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", stats, stats.size(),
+                (ps, game) -> {
+                    ps.setLong(1, game.getGameId());
+                    ps.setString(2, game.getTitle());
+                    ps.setTimestamp(3, game.getFinishedAt() != null ? Timestamp.valueOf(game.getFinishedAt()) : null);
+                    ps.setInt(4, game.getTeamCount());
+                    ps.setInt(5, game.getQuestionCount());
+                    ps.setInt(6, game.getAnsweredCount());
+                    ps.setObject(7, game.getWinningScore());
+                    ps.setObject(8, game.getScoreSpread());
+                });
+        List<Object[]> levels = new ArrayList<>();
+        List<Object[]> unanswered = new ArrayList<>();
+        for (GameStats game : stats) {
+            game.getLevels().forEach(level -> levels.add(new Object[]{game.getGameId(), level.getCategoryName(),
+                    level.getCategoryKey(), level.getPoints(), level.getQuestions(), level.getAnswered()}));
+            game.getUnanswered().forEach(question -> unanswered.add(new Object[]{game.getGameId(), question.getQuestionKey(),
+                    question.getQuestionText(), question.getCategoryName(), question.getPoints()}));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO game_stats_levels (game_id, category_name, category_key, points, questions, " +
+                "answered) VALUES (?, ?, ?, ?, ?, ?)", levels);
+        jdbcTemplate.batchUpdate("INSERT INTO game_stats_unanswered (game_id, question_key, question_text, category_name, " +
+                "points) VALUES (?, ?, ?, ?, ?)", unanswered);
+    }
+
+    private void deleteStats(List<Long> gameIds) {
+        List<Object[]> ids = gameIds.stream().map(id -> new Object[]{id}).toList();
+        jdbcTemplate.batchUpdate("DELETE FROM game_stats_levels WHERE game_id = ?", ids);
+        jdbcTemplate.batchUpdate("DELETE FROM game_stats_unanswered WHERE game_id = ?", ids);
+        jdbcTemplate.batchUpdate("DELETE FROM game_stats WHERE game_id = ?", ids);
+    }
+
+    private AnalyticsDto rollUp() {
+        AnalyticsDto dto = new AnalyticsDto();
+        jdbcTemplate.query("SELECT COUNT(*), AVG(winning_score), AVG(score_spread), MAX(score_spread) FROM game_stats", rs -> {
+            dto.setGames(rs.getLong(1));
+            dto.setAverageWinningScore(rs.getObject(2) != null ? rs.getDouble(2) : null);
+            dto.setAverageScoreSpread(rs.getObject(3) != null ? rs.getDouble(3) : null);
+            dto.setMaxScoreSpread(rs.getObject(4) != null ? rs.getInt(4) : null);
+        });
+        dto.setByPoints(jdbcTemplate.query("SELECT points, SUM(questions), SUM(answered) FROM game_stats_levels " +
+                "GROUP BY points ORDER BY points", (rs, rowNum) -> answerRate(null, rs.getInt(1), rs.getLong(2), rs.getLong(3))));
+        dto.setByCategory(jdbcTemplate.query("SELECT MIN(category_name), SUM(questions), SUM(answered) FROM game_stats_levels " +
+                        "GROUP BY category_key ORDER BY SUM(questions) DESC, category_key LIMIT ?",
+                (rs, rowNum) -> answerRate(rs.getString(1), null, rs.getLong(2), rs.getLong(3)), TOP_CATEGORIES));
+        dto.setMostUnanswered(jdbcTemplate.query("SELECT MIN(question_text), MIN(category_name), MIN(points), COUNT(*) " +
+                "FROM game_stats_unanswered GROUP BY question_key ORDER BY COUNT(*) DESC, question_key LIMIT ?", (rs, rowNum) -> {
+            UnansweredQuestionDto question = new UnansweredQuestionDto();
+            question.setQuestionText(rs.getString(1));
+            question.setCategoryName(rs.getString(2));
+            question.setPoints(rs.getInt(3));
+            question.setTimes(rs.getLong(4));
+            return question;
+        }, TOP_UNANSWERED));
+        dto.setRecentGames(jdbcTemplate.query("SELECT game_id, title, finished_at, winning_score, score_spread FROM game_stats " +
+                "ORDER BY game_id DESC LIMIT ?", (rs, rowNum) -> {
+            GameScoreDto game = new GameScoreDto();
+            game.setGameId(rs.getLong(1));
+            game.setTitle(rs.getString(2));
+            game.setFinishedAt(toLocalDateTime(rs.getTimestamp(3)));
+            game.setWinningScore(rs.getObject(4, Integer.class));
+            game.setScoreSpread(rs.getObject(5, Integer.class));
+            return game;
+        }, RECENT_GAMES));
+        dto.setComputedAt(LocalDateTime.now());
+        return dto;
+    }
+
+    private AnswerRateDto answerRate(String categoryName, Integer points, long questions, long answered) {
+        AnswerRateDto dto = new AnswerRateDto();
+        dto.setCategoryName(categoryName);
+        dto.setPoints(points);
+        dto.setQuestions(questions);
+        dto.setAnswered(answered);
+        dto.setAnswerRate(questions == 0 ? 0 : (double) answered / questions);
+        return dto;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private record Cached(AnalyticsDto analytics, long computedAt) {
+    }
+}
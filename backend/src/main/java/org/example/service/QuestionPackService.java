@@ -0,0 +1,158 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.dto.PackImportResultDto;
+import org.example.dto.QuestionPackItemDto;
+import org.example.entity.Category;
+import org.example.entity.Game;
+import org.example.entity.GameStatus;
+import org.example.entity.Question;
+import org.example.repository.CategoryRepository;
+import org.example.repository.GameRepository;
+import org.example.repository.QuestionRepository;
+import org.example.search.QuestionIndexChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Импорт и экспорт пакетов вопросов в формате JSON Lines. Обе стороны работают потоком:
+ * импорт читает строки по одной и сбрасывает вставки порциями с очисткой контекста,
+ * экспорт идёт по курсору БД, поэтому размер пакета не ограничен объёмом памяти.
+ */
+@Service
+public class QuestionPackService {
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ContentCache contentCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${game.pack.chunk-size:500}")
+    private int chunkSize;
+
+    @Transactional
+    public PackImportResultDto importIntoNewGame(String title, InputStream input) {
+        Game game = new Game();
+        game.setTitle(title);
+        game.setStatus(GameStatus.PREPARING);
+        game = gameRepository.save(game);
+        return importItems(game.getId(), input);
+    }
+
+    @Transactional
+    public PackImportResultDto importIntoGame(Long gameId, InputStream input) {
+        Game game = gameRepository.findById(gameId).orElseThrow(() -> new RuntimeException("Game not found"));
+        if (game.getStatus() != GameStatus.PREPARING) {
+            throw new RuntimeException("Cannot modify questions after game started");
+        }
+        PackImportResultDto result = importItems(gameId, input);
+        contentCache.evictAll();
+        return result;
+    }
+
+    private PackImportResultDto importItems(Long gameId, InputStream input) {
+        // Категории сопоставляются по имени; их немного, поэтому держим только name -> id
+        Map<String, Long> categoryIds = new HashMap<>();
+        categoryRepository.findByGameId(gameId).forEach(category -> categoryIds.put(category.getName(), category.getId()));
+
+        PackImportResultDto result = new PackImportResultDto();
+        result.setGameId(gameId);
+        try (MappingIterator<QuestionPackItemDto> items = objectMapper.readerFor(QuestionPackItemDto.class).readValues(input)) {
+            int pending = 0;
+            while (items.hasNextValue()) {
+                QuestionPackItemDto item = items.nextValue();
+                if (item.getCategory() == null || item.getQuestionText() == null || item.getAnswerText() == null) {
+                    throw new RuntimeException("Invalid pack line " + (result.getImportedQuestions() + 1));
+                }
+                Long categoryId = categoryIds.get(item.getCategory());
+                if (categoryId == null) {
+                    Category category = new Category();
+                    category.setGame(entityManager.getReference(Game.class, gameId));
+                    category.setName(item.getCategory());
+                    entityManager.persist(category);
+                    categoryId = category.getId();
+                    categoryIds.put(item.getCategory(), categoryId);
+                    result.setCreatedCategories(result.getCreatedCategories() + 1);
+                }
+                Question question = new Question();
+                question.setCategory(entityManager.getReference(Category.class, categoryId));
+                question.setQuestionText(item.getQuestionText());
+                question.setAnswerText(item.getAnswerText());
+                question.setPoints(item.getPoints());
+                question.setAnswered(false);
+                entityManager.persist(question);
+                result.setImportedQuestions(result.getImportedQuestions() + 1);
+                if (++pending == chunkSize) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    pending = 0;
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            gameRepository.incrementVersion(gameId);
+            eventPublisher.publishEvent(new QuestionIndexChange(gameId));
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid pack: " + e.getMessage());
+        }
+        return result;
+    }
+
+    public void checkGameExists(Long gameId) {
+        if (!gameRepository.existsById(gameId)) {
+            throw new RuntimeException("Game not found");
+        }
+    }
+
+    // Пишет доску игры в поток построчно; вызывается из StreamingResponseBody
+    public void exportPack(Long gameId, OutputStream output) {
+        ObjectWriter writer = objectMapper.writerFor(QuestionPackItemDto.class);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<QuestionPackItemDto> items = questionRepository.streamPackItems(gameId)) {
+                items.forEach(item -> {
+                    try {
+                        output.write(writer.writeValueAsBytes(item));
+                        output.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        });
+    }
+}
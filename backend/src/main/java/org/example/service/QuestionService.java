@@ -1,31 +1,74 @@
 package org.example.service;
 
 import org.example.dto.CreateQuestionDto;
+import org.example.dto.CreatedQuestionDto;
+import org.example.dto.GameEventDto;
 import org.example.dto.QuestionDto;
+import org.example.dto.QuestionSearchHitDto;
 import org.example.dto.UpdateQuestionDto;
+import org.example.engine.GameStateEngine;
+import org.example.engine.LiveGame;
+import org.example.engine.LiveQuestion;
+import org.example.engine.LiveTeam;
 import org.example.entity.Category;
 import org.example.entity.GameStatus;
 import org.example.entity.Question;
 import org.example.repository.CategoryRepository;
+import org.example.repository.GameRepository;
 import org.example.repository.QuestionRepository;
+import org.example.repository.TeamRepository;
+import org.example.search.QuestionIndex;
+import org.example.search.QuestionIndexChange;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class QuestionService {
 
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_SIMILAR = 5;
+
     @Autowired
     private QuestionRepository questionRepository;
 
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameStateEngine gameStateEngine;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ContentCache contentCache;
+
+    @Autowired
+    private QuestionTimerService questionTimerService;
+
+    @Autowired
+    private QuestionIndex questionIndex;
+
+    // Игры из движка обслуживаются без транзакции, БД-ветка открывает её явно
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Transactional
-    public QuestionDto createQuestion(Long categoryId, CreateQuestionDto dto) {
+    public CreatedQuestionDto createQuestion(Long categoryId, CreateQuestionDto dto) {
         Category category = categoryRepository.findById(categoryId).orElseThrow(() -> new RuntimeException("Category not found"));
         if (category.getGame().getStatus() != GameStatus.PREPARING) {
             throw new RuntimeException("Cannot modify questions after game started");
@@ -37,16 +80,64 @@ public class QuestionService {
         question.setPoints(dto.getPoints());
         question.setAnswered(false); // Исправлено
         question = questionRepository.save(question);
-        return mapToDto(question);
+        gameRepository.incrementVersion(category.getGame().getId());
+        contentCache.evictQuestion(question.getId(), categoryId);
+        eventPublisher.publishEvent(new QuestionIndexChange(category.getGame().getId()));
+        CreatedQuestionDto result = mapToDto(question, new CreatedQuestionDto());
+        result.setSimilarQuestions(findSimilar(question.getQuestionText(), question.getId()));
+        return result;
+    }
+
+    /**
+     * Поиск по текстам вопросов и ответов всех игр с фильтрами по стоимости и названию категории.
+     * Слова запроса ищутся точно, по префиксу и с опечатками.
+     */
+    public List<QuestionSearchHitDto> searchQuestions(String query, Integer minPoints, Integer maxPoints, String category,
+                                                      int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return questionIndex.search(query, minPoints, maxPoints, category, size).stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+    }
+
+    // Почти совпадающие вопросы для текста, который ещё только собираются сохранить
+    public List<QuestionSearchHitDto> findSimilar(String questionText, Long excludeQuestionId) {
+        return questionIndex.findSimilar(questionText, excludeQuestionId, MAX_SIMILAR).stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public QuestionDto getQuestion(Long id) {
-        Question question = questionRepository.findById(id).orElseThrow(() -> new RuntimeException("Question not found"));
-        return mapToDto(question);
+        LiveGame live = gameStateEngine.findByQuestion(id);
+        if (live != null) {
+            return mapToDto(live.getQuestion(id));
+        }
+        return mapToDto(contentCache.getQuestion(id), isAnswered(id));
     }
 
+    @Transactional(readOnly = true)
     public List<QuestionDto> getQuestionsByCategory(Long categoryId) {
-        return questionRepository.findByCategoryId(categoryId).stream().map(this::mapToDto).collect(Collectors.toList());
+        LiveGame live = gameStateEngine.findByCategory(categoryId);
+        if (live != null) {
+            return live.getCategory(categoryId).getQuestions().stream().map(this::mapToDto).collect(Collectors.toList());
+        }
+        return mapToDtos(contentCache.getCategoryQuestions(categoryId));
+    }
+
+    // Вопросы категории из кэша содержимого плюс один запрос за флагами answered
+    List<QuestionDto> mapToDtos(List<ContentCache.QuestionContent> questions) {
+        if (questions.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Long> answered = questionRepository.findAnsweredIdsByCategoryId(questions.get(0).categoryId());
+        return questions.stream()
+                .map(question -> mapToDto(question, answered.contains(question.id())))
+                .collect(Collectors.toList());
+    }
+
+    private boolean isAnswered(Long id) {
+        return questionRepository.findAnsweredById(id).orElseThrow(() -> new RuntimeException("Question not found"));
     }
 
     @Transactional
@@ -65,6 +156,9 @@ public class QuestionService {
             question.setPoints(dto.getPoints());
         }
         question = questionRepository.save(question);
+        gameRepository.incrementVersion(question.getCategory().getGame().getId());
+        contentCache.evictQuestion(id, question.getCategory().getId());
+        eventPublisher.publishEvent(new QuestionIndexChange(question.getCategory().getGame().getId()));
         return mapToDto(question);
     }
 
@@ -75,10 +169,23 @@ public class QuestionService {
             throw new RuntimeException("Cannot delete questions after game started");
         }
         questionRepository.deleteById(id);
+        gameRepository.incrementVersion(question.getCategory().getGame().getId());
+        contentCache.evictQuestion(id, question.getCategory().getId());
+        eventPublisher.publishEvent(new QuestionIndexChange(question.getCategory().getGame().getId()));
     }
 
-    @Transactional
     public QuestionDto markAsAnswered(Long id) {
+        LiveGame live = gameStateEngine.findByQuestion(id);
+        if (live != null) {
+            LiveQuestion question = live.markAnswered(id);
+            questionTimerService.cancel(live.getId(), id);
+            eventPublisher.publishEvent(GameEventDto.questionAnswered(live.getId(), id));
+            return mapToDto(question);
+        }
+        return transactionTemplate.execute(status -> markAsAnsweredInDatabase(id));
+    }
+
+    private QuestionDto markAsAnsweredInDatabase(Long id) {
         Question question = questionRepository.findById(id).orElseThrow(() -> new RuntimeException("Question not found"));
         if (question.getCategory().getGame().getStatus() != GameStatus.STARTED) {
             throw new RuntimeException("Game not started");
@@ -88,24 +195,80 @@ public class QuestionService {
         }
         question.setAnswered(true); // Исправлено
         question = questionRepository.save(question);
+        gameRepository.incrementVersion(question.getCategory().getGame().getId());
+        eventPublisher.publishEvent(GameEventDto.questionAnswered(question.getCategory().getGame().getId(), id));
         return mapToDto(question);
     }
 
-    public QuestionDto selectQuestion(Long id) {
-        Question question = questionRepository.findById(id).orElseThrow(() -> new RuntimeException("Question not found"));
-        if (question.isAnswered()) { // Исправлено
+    /**
+     * Закрывает вопрос и, если указана команда, начисляет ей его стоимость — одной командой.
+     * Без движка это одна транзакция из условного UPDATE вопроса и UPDATE score = score + ?,
+     * так что повторное нажатие или второй ведущий не начислят очки дважды.
+     */
+    public QuestionDto resolveQuestion(Long id, Long teamId) {
+        LiveGame live = gameStateEngine.findByQuestion(id);
+        if (live != null) {
+            LiveQuestion question = live.resolve(id, teamId);
+            questionTimerService.cancel(live.getId(), id);
+            eventPublisher.publishEvent(GameEventDto.questionAnswered(live.getId(), id));
+            if (teamId != null) {
+                LiveTeam team = live.getTeam(teamId);
+                eventPublisher.publishEvent(GameEventDto.scoreChanged(live.getId(), teamId, team.getScore()));
+            }
+            return mapToDto(question);
+        }
+        return transactionTemplate.execute(status -> resolveInDatabase(id, teamId));
+    }
+
+    private QuestionDto resolveInDatabase(Long id, Long teamId) {
+        if (questionRepository.markAnsweredIfOpen(id, GameStatus.STARTED) == 0) {
+            Question question = questionRepository.findById(id).orElseThrow(() -> new RuntimeException("Question not found"));
+            if (question.getCategory().getGame().getStatus() != GameStatus.STARTED) {
+                throw new RuntimeException("Game not started");
+            }
             throw new RuntimeException("Question already answered");
         }
+        Question question = questionRepository.findWithCategoryById(id).orElseThrow(() -> new RuntimeException("Question not found"));
+        Long gameId = question.getCategory().getGame().getId();
+        gameRepository.incrementVersion(gameId);
+        eventPublisher.publishEvent(GameEventDto.questionAnswered(gameId, id));
+        if (teamId != null) {
+            if (teamRepository.addScore(teamId, gameId, question.getPoints()) == 0) {
+                throw new RuntimeException("Team not found");
+            }
+            eventPublisher.publishEvent(GameEventDto.scoreChanged(gameId, teamId, teamRepository.findScoreById(teamId)));
+        }
         return mapToDto(question);
     }
 
+    public QuestionDto selectQuestion(Long id) {
+        LiveGame live = gameStateEngine.findByQuestion(id);
+        if (live != null) {
+            QuestionDto dto = mapToDto(live.select(id));
+            eventPublisher.publishEvent(GameEventDto.buzzerOpened(live.getId(), id));
+            questionTimerService.start(live, id);
+            return dto;
+        }
+        if (isAnswered(id)) { // Исправлено
+            throw new RuntimeException("Question already answered");
+        }
+        return mapToDto(contentCache.getQuestion(id), false);
+    }
+
+    @Transactional(readOnly = true)
     public String getAnswer(Long id) {
-        Question question = questionRepository.findById(id).orElseThrow(() -> new RuntimeException("Question not found"));
-        return question.getAnswerText();
+        LiveGame live = gameStateEngine.findByQuestion(id);
+        if (live != null) {
+            return live.getQuestion(id).getAnswerText();
+        }
+        return contentCache.getQuestion(id).answerText();
     }
 
     QuestionDto mapToDto(Question question) {
-        QuestionDto dto = new QuestionDto();
+        return mapToDto(question, new QuestionDto());
+    }
+
+    private <T extends QuestionDto> T mapToDto(Question question, T dto) {
         dto.setId(question.getId());
         dto.setQuestionText(question.getQuestionText());
         dto.setAnswerText(question.getAnswerText());
@@ -113,4 +276,38 @@ public class QuestionService {
         dto.setAnswered(question.isAnswered()); // Исправлено
         return dto;
     }
+
+    private QuestionDto mapToDto(ContentCache.QuestionContent question, boolean answered) {
+        QuestionDto dto = new QuestionDto();
+        dto.setId(question.id());
+        dto.setQuestionText(question.questionText());
+        dto.setAnswerText(question.answerText());
+        dto.setPoints(question.points());
+        dto.setAnswered(answered);
+        return dto;
+    }
+
+    QuestionDto mapToDto(LiveQuestion question) {
+        QuestionDto dto = new QuestionDto();
+        dto.setId(question.getId());
+        dto.setQuestionText(question.getQuestionText());
+        dto.setAnswerText(question.getAnswerText());
+        dto.setPoints(question.getPoints());
+        dto.setAnswered(question.isAnswered());
+        return dto;
+    }
+
+    private QuestionSearchHitDto mapToDto(QuestionIndex.Hit hit) {
+        QuestionIndex.Document document = hit.document();
+        QuestionSearchHitDto dto = new QuestionSearchHitDto();
+        dto.setId(document.questionId());
+        dto.setGameId(document.gameId());
+        dto.setCategoryId(document.categoryId());
+        dto.setCategoryName(document.categoryName());
+        dto.setQuestionText(document.questionText());
+        dto.setAnswerText(document.answerText());
+        dto.setPoints(document.points());
+        dto.setScore(hit.score());
+        return dto;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,244 @@
+package org.example.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.dto.GameEventDto;
+import org.example.dto.QuestionTimerDto;
+import org.example.engine.GameStateEngine;
+import org.example.engine.LiveGame;
+import org.example.engine.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Таймеры ответа на вопрос, которые ведёт сервер. Таймер запускается выбором вопроса,
+ * в игре идёт не больше одного таймера; клиент лишь показывает отсчёт по событиям
+ * timer-*. Все таймеры всех игр стоят на одном {@link TimingWheel}. По истечении кнопки
+ * закрываются, а вопрос либо ждёт, пока ведущий покажет ответ (reveal), либо сразу
+ * закрывается без начисления очков (close).
+ */
+@Service
+public class QuestionTimerService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionTimerService.class);
+
+    @Autowired
+    private GameStateEngine gameStateEngine;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${game.timer.duration-ms:60000}")
+    private long durationMs;
+
+    @Value("${game.timer.on-expiry:reveal}")
+    private String onExpiry;
+
+    @Value("${game.timer.tick-ms:100}")
+    private long tickMs;
+
+    // Текущий таймер каждой игры; запись неизменяема и заменяется целиком
+    private final Map<Long, QuestionTimer> timers = new ConcurrentHashMap<>();
+
+    // Истечение закрывает вопрос с записью в журнал, поэтому выполняется не в потоке колеса
+    private final ExecutorService expirations = Executors.newVirtualThreadPerTaskExecutor();
+
+    private TimingWheel wheel;
+
+    @PostConstruct
+    public void init() {
+        wheel = new TimingWheel("question-timers", tickMs, TimeUnit.MILLISECONDS, 1024, expirations);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        wheel.stop();
+        expirations.shutdown();
+    }
+
+    public void start(LiveGame live, Long questionId) {
+        long now = System.nanoTime();
+        QuestionTimer timer = timers.compute(live.getId(), (gameId, previous) -> {
+            if (previous != null && previous.timeout() != null) {
+                previous.timeout().cancel();
+            }
+            return schedule(new QuestionTimer(gameId, questionId, durationMs, TimeUnit.MILLISECONDS.toNanos(durationMs),
+                    now, null));
+        });
+        publish(GameEventDto.TIMER_STARTED, timer, now);
+    }
+
+    public QuestionTimerDto pause(Long questionId) {
+        long now = System.nanoTime();
+        QuestionTimer timer = pause(findLive(questionId).getId(), questionId, now, true);
+        return mapToDto(timer, now);
+    }
+
+    public QuestionTimerDto resume(Long questionId) {
+        long now = System.nanoTime();
+        QuestionTimer timer = resume(findLive(questionId).getId(), questionId, now, true);
+        return mapToDto(timer, now);
+    }
+
+    // Отсчёт стоит, пока ведущий проверяет ответ команды, нажавшей кнопку
+    public void pauseIfRunning(Long gameId, Long questionId) {
+        pause(gameId, questionId, System.nanoTime(), false);
+    }
+
+    public void resumeIfPaused(Long gameId, Long questionId) {
+        resume(gameId, questionId, System.nanoTime(), false);
+    }
+
+    // Текущий таймер игры; null — вопрос не открыт или время вышло
+    public QuestionTimerDto getTimer(Long gameId) {
+        QuestionTimer timer = timers.get(gameId);
+        return timer == null ? null : mapToDto(timer, System.nanoTime());
+    }
+
+    // Вопрос разрешён ведущим до истечения таймера
+    public void cancel(Long gameId, Long questionId) {
+        timers.computeIfPresent(gameId, (id, timer) -> {
+            if (!timer.questionId().equals(questionId)) {
+                return timer;
+            }
+            if (timer.timeout() != null) {
+                timer.timeout().cancel();
+            }
+            return null;
+        });
+    }
+
+    // strict — ошибка, если у вопроса нет таймера; иначе вызов ничего не делает
+    private QuestionTimer pause(Long gameId, Long questionId, long now, boolean strict) {
+        boolean[] changed = new boolean[1];
+        QuestionTimer timer = timers.computeIfPresent(gameId, (id, current) -> {
+            if (!current.questionId().equals(questionId) || current.isPaused()) {
+                return current;
+            }
+            if (!current.timeout().cancel()) {
+                // Задача истечения уже запущена и сама уберёт таймер
+                return current;
+            }
+            changed[0] = true;
+            return new QuestionTimer(id, questionId, current.durationMs(), current.remainingNanos(now), -1, null);
+        });
+        if (changed[0]) {
+            publish(GameEventDto.TIMER_PAUSED, timer, now);
+        } else if (strict) {
+            require(timer, questionId);
+        }
+        return timer;
+    }
+
+    private QuestionTimer resume(Long gameId, Long questionId, long now, boolean strict) {
+        boolean[] changed = new boolean[1];
+        QuestionTimer timer = timers.computeIfPresent(gameId, (id, current) -> {
+            if (!current.questionId().equals(questionId) || !current.isPaused()) {
+                return current;
+            }
+            changed[0] = true;
+            return schedule(new QuestionTimer(id, questionId, current.durationMs(), current.remainingNanos(now), now, null));
+        });
+        if (changed[0]) {
+            publish(GameEventDto.TIMER_RESUMED, timer, now);
+        } else if (strict) {
+            require(timer, questionId);
+        }
+        return timer;
+    }
+
+    // Вызывается внутри compute по игре: задача истечения читает scheduled[0] под той же блокировкой
+    private QuestionTimer schedule(QuestionTimer timer) {
+        QuestionTimer[] scheduled = new QuestionTimer[1];
+        TimingWheel.Timeout timeout = wheel.schedule(() -> expire(timer.gameId(), scheduled),
+                timer.remainingNanos(timer.runningSince()), TimeUnit.NANOSECONDS);
+        scheduled[0] = timer.withTimeout(timeout);
+        return scheduled[0];
+    }
+
+    private void expire(Long gameId, QuestionTimer[] scheduled) {
+        QuestionTimer[] expired = new QuestionTimer[1];
+        // Таймер мог быть заменён новым вопросом, паузой или отменён
+        timers.computeIfPresent(gameId, (id, current) -> {
+            if (current != scheduled[0]) {
+                return current;
+            }
+            expired[0] = current;
+            return null;
+        });
+        QuestionTimer timer = expired[0];
+        if (timer == null) {
+            return;
+        }
+        LiveGame live = gameStateEngine.find(timer.gameId());
+        if (live == null) {
+            return;
+        }
+        live.closeBuzzer(timer.questionId());
+        eventPublisher.publishEvent(GameEventDto.timer(GameEventDto.TIMER_EXPIRED, timer.gameId(), timer.questionId(), 0));
+        if ("close".equals(onExpiry)) {
+            try {
+                live.resolve(timer.questionId(), null);
+                eventPublisher.publishEvent(GameEventDto.questionAnswered(timer.gameId(), timer.questionId()));
+            } catch (RuntimeException e) {
+                log.debug("Question {} was not closed on timer expiry: {}", timer.questionId(), e.getMessage());
+            }
+        }
+    }
+
+    private QuestionTimer require(QuestionTimer timer, Long questionId) {
+        if (timer == null || !timer.questionId().equals(questionId)) {
+            throw new RuntimeException("Timer is not running for this question");
+        }
+        return timer;
+    }
+
+    private LiveGame findLive(Long questionId) {
+        LiveGame live = gameStateEngine.findByQuestion(questionId);
+        if (live == null) {
+            throw new RuntimeException("Timers are available only in started games");
+        }
+        return live;
+    }
+
+    private void publish(String type, QuestionTimer timer, long now) {
+        eventPublisher.publishEvent(GameEventDto.timer(type, timer.gameId(), timer.questionId(),
+                TimeUnit.NANOSECONDS.toMillis(timer.remainingNanos(now))));
+    }
+
+    private QuestionTimerDto mapToDto(QuestionTimer timer, long now) {
+        QuestionTimerDto dto = new QuestionTimerDto();
+        dto.setQuestionId(timer.questionId());
+        dto.setDurationMs(timer.durationMs());
+        dto.setRemainingMs(TimeUnit.NANOSECONDS.toMillis(timer.remainingNanos(now)));
+        dto.setPaused(timer.isPaused());
+        return dto;
+    }
+
+    // runningSince — System.nanoTime() последнего запуска или -1 на паузе; remaining — остаток на тот момент
+    private record QuestionTimer(Long gameId, Long questionId, long durationMs, long remaining, long runningSince,
+                                 TimingWheel.Timeout timeout) {
+
+        boolean isPaused() {
+            return runningSince < 0;
+        }
+
+        long remainingNanos(long now) {
+            return isPaused() ? remaining : Math.max(0, remaining - (now - runningSince));
+        }
+
+        QuestionTimer withTimeout(TimingWheel.Timeout timeout) {
+            return new QuestionTimer(gameId, questionId, durationMs, remaining, runningSince, timeout);
+        }
+    }
+}
@@ -1,18 +1,34 @@
 package org.example.service;
 
 import org.example.dto.CreateTeamDto;
+import org.example.dto.GameEventDto;
+import org.example.dto.RankedTeamDto;
+import org.example.dto.RankingDto;
 import org.example.dto.TeamDto;
 import org.example.dto.UpdateTeamDto;
+import org.example.engine.GameStateEngine;
+import org.example.engine.LiveGame;
+import org.example.engine.LiveTeam;
+import org.example.engine.RankedTeam;
+import org.example.engine.RankingSnapshot;
 import org.example.entity.Game;
 import org.example.entity.GameStatus;
 import org.example.entity.Team;
 import org.example.repository.GameRepository;
 import org.example.repository.TeamRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +40,18 @@ public class TeamService {
     @Autowired
     private GameRepository gameRepository;
 
+    @Autowired
+    private GameStateEngine gameStateEngine;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private GameArchiveService gameArchiveService;
+
     @Transactional
     public TeamDto createTeam(Long gameId, CreateTeamDto dto) {
         Game game = gameRepository.findById(gameId).orElseThrow(() -> new RuntimeException("Game not found"));
@@ -35,18 +63,36 @@ public class TeamService {
         team.setName(dto.getName());
         team.setScore(0);
         team = teamRepository.save(team);
+        gameRepository.incrementVersion(gameId);
         return mapToDto(team);
     }
 
+    @Transactional(readOnly = true)
     public TeamDto getTeam(Long id) {
+        LiveGame live = gameStateEngine.findByTeam(id);
+        if (live != null) {
+            return mapToDto(live.getTeam(id));
+        }
         Team team = teamRepository.findById(id).orElseThrow(() -> new RuntimeException("Team not found"));
         return mapToDto(team);
     }
 
+    @Transactional(readOnly = true)
     public List<TeamDto> getTeamsByGame(Long gameId) {
+        LiveGame live = gameStateEngine.find(gameId);
+        if (live != null) {
+            return live.getTeams().stream().map(this::mapToDto).collect(Collectors.toList());
+        }
         return teamRepository.findByGameId(gameId).stream().map(this::mapToDto).collect(Collectors.toList());
     }
 
+    // Команды нескольких игр одним запросом
+    Map<Long, List<TeamDto>> getTeamsByGames(Collection<Long> gameIds) {
+        return teamRepository.findByGameIdInOrderById(gameIds).stream()
+                .collect(Collectors.groupingBy(team -> team.getGame().getId(), LinkedHashMap::new,
+                        Collectors.mapping(this::mapToDto, Collectors.toList())));
+    }
+
     @Transactional
     public TeamDto updateTeam(Long id, UpdateTeamDto dto) {
         Team team = teamRepository.findById(id).orElseThrow(() -> new RuntimeException("Team not found"));
@@ -60,6 +106,7 @@ public class TeamService {
             throw new RuntimeException("Use awardPoints for score updates");
         }
         team = teamRepository.save(team);
+        gameRepository.incrementVersion(team.getGame().getId());
         return mapToDto(team);
     }
 
@@ -70,23 +117,105 @@ public class TeamService {
             throw new RuntimeException("Cannot delete teams after game started");
         }
         teamRepository.deleteById(id);
+        gameRepository.incrementVersion(team.getGame().getId());
     }
 
-    @Transactional
     public TeamDto awardPoints(Long teamId, int points) {
-        Team team = teamRepository.findById(teamId).orElseThrow(() -> new RuntimeException("Team not found"));
-        if (team.getGame().getStatus() != GameStatus.STARTED) {
+        LiveGame live = gameStateEngine.findByTeam(teamId);
+        if (live != null) {
+            LiveTeam team = live.awardPoints(teamId, points);
+            eventPublisher.publishEvent(GameEventDto.scoreChanged(live.getId(), teamId, team.getScore()));
+            return mapToDto(team);
+        }
+        return transactionTemplate.execute(status -> awardPointsInDatabase(teamId, points));
+    }
+
+    private TeamDto awardPointsInDatabase(Long teamId, int points) {
+        if (teamRepository.addScoreIfStarted(teamId, points, GameStatus.STARTED) == 0) {
+            teamRepository.findById(teamId).orElseThrow(() -> new RuntimeException("Team not found"));
             throw new RuntimeException("Game not started");
         }
-        team.setScore(team.getScore() + points);
-        team = teamRepository.save(team);
+        Team team = teamRepository.findById(teamId).orElseThrow(() -> new RuntimeException("Team not found"));
+        gameRepository.incrementVersion(team.getGame().getId());
+        eventPublisher.publishEvent(GameEventDto.scoreChanged(team.getGame().getId(), teamId, team.getScore()));
         return mapToDto(team);
     }
 
+    @Transactional(readOnly = true)
     public List<TeamDto> getRanking(Long gameId) {
-        return getTeamsByGame(gameId).stream()
-                .sorted((t1, t2) -> Integer.compare(t2.getScore(), t1.getScore()))
-                .collect(Collectors.toList());
+        LiveGame live = gameStateEngine.find(gameId);
+        if (live != null) {
+            return live.getTopTeams(Integer.MAX_VALUE).teams().stream()
+                    .map(team -> {
+                        TeamDto dto = new TeamDto();
+                        dto.setId(team.id());
+                        dto.setName(team.name());
+                        dto.setScore(team.score());
+                        return dto;
+                    })
+                    .collect(Collectors.toList());
+        }
+        List<Team> teams = teamRepository.findByGameIdOrderByScoreDescIdAsc(gameId);
+        if (teams.isEmpty()) {
+            Optional<RankingDto> archived = gameArchiveService.findRanking(gameId);
+            if (archived.isPresent()) {
+                return archived.get().getTeams().stream().map(team -> {
+                    TeamDto dto = new TeamDto();
+                    dto.setId(team.getId());
+                    dto.setName(team.getName());
+                    dto.setScore(team.getScore());
+                    return dto;
+                }).collect(Collectors.toList());
+            }
+        }
+        return teams.stream().map(this::mapToDto).collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public RankingDto getTopTeams(Long gameId, int n) {
+        // Одна проверка для всех веток: ответ не зависит от того, держит ли игру движок
+        if (n < 1) {
+            throw new RuntimeException("n must be positive");
+        }
+        LiveGame live = gameStateEngine.find(gameId);
+        if (live != null) {
+            return mapToDto(live.getTopTeams(n));
+        }
+        Optional<Long> current = gameRepository.findVersionById(gameId);
+        if (current.isEmpty()) {
+            RankingDto archived = gameArchiveService.findRanking(gameId).orElseThrow(() -> new RuntimeException("Game not found"));
+            archived.setTeams(archived.getTeams().subList(0, Math.min(n, archived.getTeams().size())));
+            return archived;
+        }
+        long version = current.get();
+        List<Team> teams = teamRepository.findByGameIdOrderByScoreDescIdAsc(gameId, PageRequest.of(0, n));
+        List<RankedTeamDto> ranked = new ArrayList<>();
+        for (int i = 0; i < teams.size(); i++) {
+            ranked.add(mapToDto(teams.get(i), i + 1));
+        }
+        return mapToDto(version, ranked);
+    }
+
+    @Transactional(readOnly = true)
+    public RankedTeamDto getTeamRank(Long teamId) {
+        LiveGame live = gameStateEngine.findByTeam(teamId);
+        if (live != null) {
+            return mapToDto(live.getRank(teamId));
+        }
+        Team team = teamRepository.findById(teamId).orElseThrow(() -> new RuntimeException("Team not found"));
+        long ahead = teamRepository.countAhead(team.getGame().getId(), team.getScore(), team.getId());
+        return mapToDto(team, (int) ahead + 1);
+    }
+
+    // Изменения рейтинга после версии since. Счёт меняется только у запущенных игр,
+    // для остальных возвращается полный рейтинг с текущей версией игры.
+    @Transactional(readOnly = true)
+    public RankingDto getRankingChanges(Long gameId, long since) {
+        LiveGame live = gameStateEngine.find(gameId);
+        if (live != null) {
+            return mapToDto(live.getRankingChangesSince(since));
+        }
+        return getTopTeams(gameId, Integer.MAX_VALUE);
     }
 
     TeamDto mapToDto(Team team) {
@@ -96,4 +225,41 @@ public class TeamService {
         dto.setScore(team.getScore());
         return dto;
     }
+
+    private RankedTeamDto mapToDto(Team team, int rank) {
+        RankedTeamDto dto = new RankedTeamDto();
+        dto.setId(team.getId());
+        dto.setName(team.getName());
+        dto.setScore(team.getScore());
+        dto.setRank(rank);
+        return dto;
+    }
+
+    private RankedTeamDto mapToDto(RankedTeam team) {
+        RankedTeamDto dto = new RankedTeamDto();
+        dto.setId(team.id());
+        dto.setName(team.name());
+        dto.setScore(team.score());
+        dto.setRank(team.rank());
+        return dto;
+    }
+
+    private RankingDto mapToDto(RankingSnapshot snapshot) {
+        return mapToDto(snapshot.version(), snapshot.teams().stream().map(this::mapToDto).collect(Collectors.toList()));
+    }
+
+    private RankingDto mapToDto(long version, List<RankedTeamDto> teams) {
+        RankingDto dto = new RankingDto();
+        dto.setVersion(version);
+        dto.setTeams(teams);
+        return dto;
+    }
+
+    TeamDto mapToDto(LiveTeam team) {
+        TeamDto dto = new TeamDto();
+        dto.setId(team.getId());
+        dto.setName(team.getName());
+        dto.setScore(team.getScore());
+        return dto;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package org.example.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BuzzerRoundTest {
+
+    @Test
+    void earliestPressWinsRegardlessOfArrivalOrder() throws Exception {
+        BuzzerRound round = new BuzzerRound(1L, 0, Set.of());
+        int teams = 32;
+        // Команда i нажала в момент 1000 + i, но потоки стартуют в обратном и перемешанном порядке
+        List<Long> order = new ArrayList<>();
+        for (long team = 1; team <= teams; team++) {
+            order.add(team);
+        }
+        Collections.shuffle(order);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BuzzerRound.Outcome>> outcomes = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (Long team : order) {
+                outcomes.add(pool.submit(() -> {
+                    start.await();
+                    return round.press(team, 1000 + team);
+                }));
+            }
+            start.countDown();
+            for (Future<BuzzerRound.Outcome> outcome : outcomes) {
+                assertThat(outcome.get()).isIn(BuzzerRound.Outcome.OPENED, BuzzerRound.Outcome.ACCEPTED);
+            }
+        }
+
+        assertThat(outcomes).filteredOn(outcome -> outcome.resultNow() == BuzzerRound.Outcome.OPENED).hasSize(1);
+        BuzzerRound.Press winner = round.decide();
+        assertThat(winner).isEqualTo(new BuzzerRound.Press(1L, 1001));
+        assertThat(round.getWinner()).isCompletedWithValue(winner);
+    }
+
+    @Test
+    void pressStampedBeforeReopenIsRejected() {
+        BuzzerRound round = new BuzzerRound(1L, 0, Set.of());
+        round.press(1L, 100);
+        round.decide();
+
+        BuzzerRound next = round.reopen(1000);
+
+        // Нажатие команды 2 пришло до повторного открытия: иначе оно выиграло бы с отрицательным временем реакции
+        assertThatThrownBy(() -> next.press(2L, 900)).hasMessage("Press arrived before the buzzer opened");
+        assertThat(next.press(3L, 1200)).isEqualTo(BuzzerRound.Outcome.OPENED);
+        assertThat(next.decide().pressedAt() - next.getOpenedAt()).isEqualTo(200);
+    }
+
+    @Test
+    void laterPressInsideWindowDoesNotReplaceEarlierOne() {
+        BuzzerRound round = new BuzzerRound(1L, 0, Set.of());
+
+        assertThat(round.press(2L, 500)).isEqualTo(BuzzerRound.Outcome.OPENED);
+        assertThat(round.press(1L, 700)).isEqualTo(BuzzerRound.Outcome.ACCEPTED);
+        assertThat(round.press(3L, 400)).isEqualTo(BuzzerRound.Outcome.ACCEPTED);
+
+        assertThat(round.decide().teamId()).isEqualTo(3L);
+    }
+
+    @Test
+    void pressesAfterDecisionAreLateAndKeepTheWinner() {
+        BuzzerRound round = new BuzzerRound(1L, 0, Set.of());
+        round.press(2L, 500);
+        BuzzerRound.Press winner = round.decide();
+
+        // Даже более раннее время не отменяет решённый раунд
+        assertThat(round.press(1L, 100)).isEqualTo(BuzzerRound.Outcome.LATE);
+        assertThat(round.press(3L, 900)).isEqualTo(BuzzerRound.Outcome.LATE);
+        assertThat(round.decide()).isEqualTo(winner);
+    }
+
+    @Test
+    void cancelledRoundHasNoWinner() {
+        BuzzerRound round = new BuzzerRound(1L, 0, Set.of());
+        round.press(2L, 500);
+        round.cancel();
+
+        assertThat(round.getWinner()).isCompletedWithValue(null);
+        assertThat(round.press(1L, 100)).isEqualTo(BuzzerRound.Outcome.LATE);
+        assertThat(round.decide()).isNull();
+    }
+
+    @Test
+    void reopenedRoundLocksOutPreviousWinner() {
+        BuzzerRound round = new BuzzerRound(1L, 0, Set.of());
+        round.press(2L, 500);
+        round.decide();
+
+        BuzzerRound next = round.reopen(1000);
+
+        assertThatThrownBy(() -> next.press(2L, 1100)).hasMessage("Team is locked out of this question");
+        assertThat(next.press(1L, 1200)).isEqualTo(BuzzerRound.Outcome.OPENED);
+    }
+
+    @Test
+    void roundResolvedBeforeWindowEndsIsNotDecided() {
+        LiveGame live = LiveGameTest.game(2);
+        live.select(11L);
+        BuzzerRound round = live.getBuzzer(11L);
+        round.press(1L, System.nanoTime());
+        live.resolve(11L, 1L);
+
+        List<BuzzerRound.Press> announced = new ArrayList<>();
+        assertThat(live.decideBuzzer(round, announced::add)).isFalse();
+
+        assertThat(announced).isEmpty();
+        assertThat(round.getWinner()).isCompletedWithValue(null);
+    }
+}
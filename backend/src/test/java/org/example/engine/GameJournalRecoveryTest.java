@@ -0,0 +1,201 @@
+package org.example.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GameJournalRecoveryTest {
+
+    // Действия по порядку; каждое подтверждается только после fsync своей записи
+    private static final List<Consumer<LiveGame>> ACTIONS = List.of(
+            live -> live.select(11L),
+            live -> live.resolve(11L, 1L),
+            live -> live.awardPoints(2L, 50),
+            live -> live.resolve(12L, 2L),
+            live -> live.undoLast());
+
+    @TempDir
+    Path dir;
+
+    private GameJournalManager manager;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        manager = new GameJournalManager();
+        ReflectionTestUtils.setField(manager, "enabled", true);
+        ReflectionTestUtils.setField(manager, "dir", dir.toString());
+        ReflectionTestUtils.setField(manager, "fsync", true);
+        ReflectionTestUtils.setField(manager, "maxBatch", 16);
+        manager.init();
+        file = dir.resolve("game-1.journal");
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        manager.shutdown();
+    }
+
+    @Test
+    void intactJournalRestoresEveryAcknowledgedAction() {
+        LiveGame live = played(ACTIONS.size());
+
+        LiveGame recovered = recover();
+
+        assertThat(state(recovered)).isEqualTo(state(live));
+        assertThat(recovered.getVersion()).isGreaterThan(live.getVersion());
+    }
+
+    @Test
+    void tornTailIsCutOffAndEarlierRecordsSurvive() throws IOException {
+        LiveGame live = played(ACTIONS.size());
+        long intact = Files.size(file);
+        // Процесс упал посреди записи следующего действия
+        ByteBuffer half = new JournalRecord(99, 99, JournalRecord.Type.AWARD, null, 3L, 500).encode().limit(20);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            channel.write(half);
+        }
+
+        LiveGame recovered = recover();
+
+        assertThat(Files.size(file)).isEqualTo(intact);
+        assertThat(state(recovered)).isEqualTo(state(live));
+    }
+
+    @Test
+    void corruptedLastRecordIsDroppedAndReplayStopsBeforeIt() throws IOException {
+        played(ACTIONS.size());
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xff}), size - JournalRecord.SIZE + 10);
+        }
+
+        LiveGame recovered = recover();
+
+        // Без последней записи (UNDO) состояние совпадает с подтверждённым префиксом
+        assertThat(Files.size(file)).isEqualTo(size - JournalRecord.SIZE);
+        assertThat(state(recovered)).isEqualTo(state(applied(ACTIONS.size() - 1)));
+    }
+
+    @Test
+    void halfWrittenLastRecordIsDropped() throws IOException {
+        played(ACTIONS.size());
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - JournalRecord.SIZE / 2);
+        }
+
+        LiveGame recovered = recover();
+
+        assertThat(Files.size(file)).isEqualTo(size - JournalRecord.SIZE);
+        assertThat(state(recovered)).isEqualTo(state(applied(ACTIONS.size() - 1)));
+    }
+
+    @Test
+    void journalWithoutStartIsIgnored() throws IOException {
+        played(ACTIONS.size());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xff}), 5);
+        }
+
+        assertThat(manager.read(1L)).isEmpty();
+    }
+
+    @Test
+    void recoveredJournalContinuesAfterTheLastValidRecord() throws IOException {
+        played(ACTIONS.size());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 7);
+        }
+        LiveGame recovered = recover();
+        List<JournalRecord> records = manager.read(1L);
+        recovered.attachJournal(manager.reopen(1L, records.get(records.size() - 1).seq() + 1));
+
+        recovered.resolve(13L, 3L);
+
+        assertThat(manager.read(1L)).extracting(JournalRecord::seq)
+                .containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(state(recover())).isEqualTo(state(recovered));
+    }
+
+    @Test
+    void failedWriteLeavesStateUnchangedAndIsNotReplayed() throws InterruptedException {
+        LiveGame live = played(2);
+        Map<String, Object> before = state(live);
+        long version = live.getVersion();
+        manager.shutdown();
+
+        assertThatThrownBy(() -> live.resolve(12L, 2L)).hasMessage("Journal write failed");
+
+        assertThat(state(live)).isEqualTo(before);
+        assertThat(live.getVersion()).isEqualTo(version);
+        assertThat(state(recover())).isEqualTo(before);
+    }
+
+    @Test
+    void actionsBeforeJournalRestartCannotBeUndone() {
+        LiveGame live = played(2);
+        // Канал закрыт — запись следующего действия не удаётся, журнал помечается сломанным
+        manager.close(live.getJournal());
+        assertThatThrownBy(() -> live.awardPoints(2L, 50)).hasMessage("Journal write failed");
+
+        // Новый журнал начинается с BASELINE: отменять в нём нечего, иначе UNDO потерялся бы при восстановлении
+        assertThatThrownBy(live::undoLast).hasMessage("Nothing to undo");
+        live.resolve(12L, 2L);
+        live.undoLast();
+
+        assertThat(state(live)).isEqualTo(state(applied(2)));
+        assertThat(state(recover())).isEqualTo(state(live));
+    }
+
+    // Игра с журналом, в которой выполнены первые count действий
+    private LiveGame played(int count) {
+        LiveGame live = LiveGameTest.game(3);
+        live.attachJournal(manager.create(live));
+        ACTIONS.subList(0, count).forEach(action -> action.accept(live));
+        return live;
+    }
+
+    // Те же действия без журнала — эталон подтверждённого префикса
+    private static LiveGame applied(int count) {
+        LiveGame live = LiveGameTest.game(3);
+        ACTIONS.subList(0, count).forEach(action -> action.accept(live));
+        return live;
+    }
+
+    // Как при старте узла: исходное состояние из БД и журнал поверх него
+    private LiveGame recover() {
+        LiveGame recovered = LiveGameTest.game(3);
+        recovered.replay(manager.read(1L));
+        return recovered;
+    }
+
+    private static Map<String, Object> state(LiveGame live) {
+        Map<Long, Integer> scores = new TreeMap<>();
+        live.getTeams().forEach(team -> scores.put(team.getId(), team.getScore()));
+        TreeSet<Long> answered = new TreeSet<>();
+        for (Long questionId : List.of(11L, 12L, 13L)) {
+            if (live.getQuestion(questionId).isAnswered()) {
+                answered.add(questionId);
+            }
+        }
+        return Map.of("scores", scores, "answered", answered);
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GameRankingTest {
+
+    @Test
+    void equalScoresAreOrderedByTeamId() {
+        GameRanking ranking = new GameRanking(List.of(new LiveTeam(3L, "c", 100), new LiveTeam(1L, "a", 100),
+                new LiveTeam(2L, "b", 300)));
+
+        assertThat(ranking.top(3)).containsExactly(2L, 1L, 3L);
+        assertThat(ranking.rankOf(2L)).isEqualTo(1);
+        assertThat(ranking.rankOf(1L)).isEqualTo(2);
+        assertThat(ranking.rankOf(3L)).isEqualTo(3);
+    }
+
+    @Test
+    void updateMovesTeamAndRecordsVersion() {
+        GameRanking ranking = new GameRanking(List.of(new LiveTeam(1L, "a", 0), new LiveTeam(2L, "b", 0),
+                new LiveTeam(3L, "c", 0)));
+
+        ranking.update(3L, 200, 7);
+        ranking.update(2L, 200, 8);
+
+        assertThat(ranking.top(2)).containsExactly(2L, 3L);
+        assertThat(ranking.rankOf(1L)).isEqualTo(3);
+        assertThat(ranking.changedSince(0)).containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    void teamsPassedByAMovingTeamAreReportedAsChanged() {
+        GameRanking ranking = new GameRanking(List.of(new LiveTeam(1L, "a", 400), new LiveTeam(2L, "b", 300),
+                new LiveTeam(3L, "c", 200), new LiveTeam(4L, "d", 100)));
+
+        // Команда 3 обходит команду 2; места команд 1 и 4 не меняются
+        ranking.update(3L, 350, 7);
+        assertThat(ranking.changedSince(6)).containsExactly(3L, 2L);
+
+        // Счёт лидера растёт, но порядок прежний
+        ranking.update(1L, 500, 8);
+        assertThat(ranking.changedSince(7)).containsExactly(1L);
+
+        // Команда 3 опускается на последнее место: команды 2 и 4 поднимаются
+        ranking.update(3L, 50, 9);
+        assertThat(ranking.changedSince(8)).containsExactly(2L, 4L, 3L);
+        assertThat(ranking.top(4)).containsExactly(1L, 2L, 4L, 3L);
+    }
+
+    @Test
+    void ranksMatchAFullSortAfterRandomUpdates() {
+        Random random = new Random(42);
+        List<LiveTeam> teams = new ArrayList<>();
+        Map<Long, Integer> scores = new HashMap<>();
+        for (long id = 1; id <= 300; id++) {
+            int score = random.nextInt(20) * 100;
+            teams.add(new LiveTeam(id, "t" + id, score));
+            scores.put(id, score);
+        }
+        GameRanking ranking = new GameRanking(teams);
+
+        for (int version = 1; version <= 2000; version++) {
+            long teamId = 1 + random.nextInt(300);
+            int score = random.nextInt(20) * 100;
+            List<Long> before = sorted(scores);
+            scores.put(teamId, score);
+            List<Long> after = sorted(scores);
+            ranking.update(teamId, score, version);
+
+            assertThat(ranking.top(300)).isEqualTo(after);
+            List<Long> moved = new ArrayList<>();
+            for (Long id : after) {
+                if (before.indexOf(id) != after.indexOf(id) || id == teamId && !before.equals(after)) {
+                    moved.add(id);
+                }
+            }
+            assertThat(ranking.changedSince(version - 1)).containsAll(moved);
+        }
+        List<Long> order = sorted(scores);
+        for (int i = 0; i < order.size(); i++) {
+            assertThat(ranking.rankOf(order.get(i))).isEqualTo(i + 1);
+        }
+    }
+    @Test
+    void unchangedScoreKeepsPreviousVersion() {
+        GameRanking ranking = new GameRanking(List.of(new LiveTeam(1L, "a", 0)));
+        ranking.update(1L, 100, 3);
+
+        ranking.update(1L, 100, 9);
+
+        assertThat(ranking.changedSince(3)).isEmpty();
+    }
+
+    @Test
+    void topLargerThanTeamCountReturnsAllTeams() {
+        GameRanking ranking = new GameRanking(List.of(new LiveTeam(1L, "a", 0), new LiveTeam(2L, "b", 0)));
+
+        assertThat(ranking.top(Integer.MAX_VALUE)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void unknownTeamHasNoRank() {
+        GameRanking ranking = new GameRanking(List.of(new LiveTeam(1L, "a", 0)));
+
+        assertThatThrownBy(() -> ranking.rankOf(9L)).hasMessage("Team not found");
+    }
+
+    private static List<Long> sorted(Map<Long, Integer> scores) {
+        return scores.keySet().stream()
+                .sorted(Comparator.comparing((Long id) -> -scores.get(id)).thenComparing(id -> id))
+                .toList();
+    }
+
+    @Test
+    void undoRestoresRankAndReportsTheChange() {
+        LiveGame live = LiveGameTest.game(3);
+        live.resolve(11L, 3L);
+        live.resolve(12L, 2L);
+        assertThat(live.getRank(3L).rank()).isEqualTo(2);
+        long beforeUndo = live.getVersion();
+
+        live.undoLast();
+
+        // Команда 2 вернулась к нулю и по равенству очков встала за командой 1
+        assertThat(live.getRank(3L).rank()).isEqualTo(1);
+        assertThat(live.getRank(1L).rank()).isEqualTo(2);
+        assertThat(live.getRank(2L).rank()).isEqualTo(3);
+        assertThat(live.getTopTeams(3).teams()).extracting(RankedTeam::id).containsExactly(3L, 1L, 2L);
+        // Счёт изменился только у команды 2, но команды 3 и 1 поднялись на место выше
+        assertThat(live.getRankingChangesSince(beforeUndo).teams()).extracting(RankedTeam::id)
+                .containsExactly(3L, 1L, 2L);
+        assertThat(live.getRankingChangesSince(beforeUndo).teams()).extracting(RankedTeam::rank)
+                .containsExactly(1, 2, 3);
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LiveGameTest {
+
+    static LiveGame game(int teams) {
+        List<LiveQuestion> questions = List.of(
+                new LiveQuestion(11L, 1L, "q1", "a1", 100, false),
+                new LiveQuestion(12L, 1L, "q2", "a2", 200, false),
+                new LiveQuestion(13L, 1L, "q3", "a3", 300, false));
+        List<LiveTeam> liveTeams = new ArrayList<>();
+        for (long id = 1; id <= teams; id++) {
+            liveTeams.add(new LiveTeam(id, "team " + id, 0));
+        }
+        return new LiveGame(1L, "game", 5, List.of(new LiveCategory(1L, "category", questions)), liveTeams, 16);
+    }
+
+    @Test
+    void rankingChangesReportCurrentVersionNotTheRequestedOne() {
+        LiveGame live = game(3);
+        long since = live.getVersion();
+        live.resolve(11L, 2L);
+        live.resolve(12L, 3L);
+
+        RankingSnapshot changes = live.getRankingChangesSince(since);
+
+        assertThat(changes.version()).isEqualTo(live.getVersion()).isEqualTo(since + 2);
+        // Команда 1 очков не получала, но её обошли обе команды
+        assertThat(changes.teams()).extracting(RankedTeam::id).containsExactly(3L, 2L, 1L);
+        assertThat(changes.teams()).extracting(RankedTeam::rank).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void rankingChangesSinceCurrentVersionAreEmpty() {
+        LiveGame live = game(2);
+        live.resolve(11L, 1L);
+
+        RankingSnapshot changes = live.getRankingChangesSince(live.getVersion());
+
+        assertThat(changes.teams()).isEmpty();
+        assertThat(changes.version()).isEqualTo(live.getVersion());
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    // Оборот колеса — 8 тиков по 10 мс = 80 мс
+    private final TimingWheel wheel = new TimingWheel("test-timers", 10, TimeUnit.MILLISECONDS, 8, Runnable::run);
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        wheel.stop();
+    }
+
+    @Test
+    void timerSeveralRevolutionsAwayFiresOnlyAfterItsDelay() throws Exception {
+        long started = System.nanoTime();
+        CompletableFuture<Long> near = new CompletableFuture<>();
+        CompletableFuture<Long> far = new CompletableFuture<>();
+        // 30 мс и 270 мс попадают в одну корзину (3 и 27 тиков по модулю 8), но второй ждёт ещё три оборота
+        wheel.schedule(() -> near.complete(System.nanoTime() - started), 30, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> far.complete(System.nanoTime() - started), 270, TimeUnit.MILLISECONDS);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(near.get(5, TimeUnit.SECONDS))).isGreaterThanOrEqualTo(30);
+        assertThat(far).isNotDone();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(far.get(5, TimeUnit.SECONDS))).isGreaterThanOrEqualTo(270);
+    }
+
+    @Test
+    void cancelledTimerNeverFires() throws Exception {
+        AtomicBoolean fired = new AtomicBoolean();
+        TimingWheel.Timeout timeout = wheel.schedule(() -> fired.set(true), 50, TimeUnit.MILLISECONDS);
+        CompletableFuture<Void> later = new CompletableFuture<>();
+        wheel.schedule(() -> later.complete(null), 150, TimeUnit.MILLISECONDS);
+
+        assertThat(timeout.cancel()).isTrue();
+        later.get(5, TimeUnit.SECONDS);
+
+        assertThat(fired).isFalse();
+        assertThat(timeout.isCancelled()).isTrue();
+    }
+
+    @Test
+    void expiredTimerCannotBeCancelled() throws Exception {
+        CompletableFuture<Void> fired = new CompletableFuture<>();
+        TimingWheel.Timeout timeout = wheel.schedule(() -> fired.complete(null), 20, TimeUnit.MILLISECONDS);
+        fired.get(5, TimeUnit.SECONDS);
+
+        assertThat(timeout.cancel()).isFalse();
+        assertThat(timeout.isCancelled()).isFalse();
+    }
+
+    @Test
+    void overdueTimerFiresOnNextTick() throws Exception {
+        CompletableFuture<Void> fired = new CompletableFuture<>();
+        wheel.schedule(() -> fired.complete(null), -100, TimeUnit.MILLISECONDS);
+
+        fired.get(1, TimeUnit.SECONDS);
+    }
+}
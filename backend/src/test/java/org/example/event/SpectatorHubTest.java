@@ -0,0 +1,149 @@
+package org.example.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.dto.CategoryDto;
+import org.example.dto.GameDto;
+import org.example.dto.GameEventDto;
+import org.example.dto.QuestionDto;
+import org.example.dto.RankedTeamDto;
+import org.example.dto.RankingDto;
+import org.example.entity.GameStatus;
+import org.example.service.GameService;
+import org.example.service.TeamService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SpectatorHubTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SpectatorHub hub = new SpectatorHub();
+    private final GameService gameService = mock(GameService.class);
+    private final TeamService teamService = mock(TeamService.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(hub, "gameService", gameService);
+        ReflectionTestUtils.setField(hub, "teamService", teamService);
+        ReflectionTestUtils.setField(hub, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(hub, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(hub, "timeoutMs", 60_000L);
+        hub.init();
+
+        when(gameService.getVersion(1L)).thenReturn(5L);
+        when(gameService.getGame(1L)).thenReturn(game());
+        RankingDto ranking = new RankingDto();
+        ranking.setVersion(5);
+        ranking.setTeams(List.of(team(1L, "A", 0, 1), team(2L, "B", 0, 2)));
+        when(teamService.getTopTeams(1L, Integer.MAX_VALUE)).thenReturn(ranking);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void relayedEventsUpdateFrameWithoutReadingTheDatabase() throws Exception {
+        hub.subscribe(1L);
+        assertThat(await(frame -> frame.path("status").asText().equals("STARTED")).path("categories").get(0)
+                .path("questions").get(0).path("answerText").isNull()).isTrue();
+
+        hub.onRemoteEvent(GameEventDto.questionAnswered(1L, 11L));
+        hub.onRemoteEvent(GameEventDto.scoreChanged(1L, 2L, 100));
+        hub.onRemoteEvent(GameEventDto.buzzerWon(1L, 12L, 1L));
+        hub.onRemoteEvent(GameEventDto.statusChanged(1L, GameStatus.FINISHED));
+
+        JsonNode frame = await(node -> node.path("status").asText().equals("FINISHED"));
+        JsonNode questions = frame.path("categories").get(0).path("questions");
+        assertThat(questions.get(0).path("answered").asBoolean()).isTrue();
+        assertThat(questions.get(0).path("answerText").asText()).isEqualTo("a1");
+        assertThat(questions.get(1).path("answered").asBoolean()).isFalse();
+        assertThat(questions.get(1).path("answerText").isNull()).isTrue();
+        assertThat(frame.path("ranking").findValuesAsText("id")).containsExactly("2", "1");
+        assertThat(frame.path("ranking").findValuesAsText("rank")).containsExactly("1", "2");
+        assertThat(frame.path("ranking").get(0).path("score").asInt()).isEqualTo(100);
+        verify(gameService, times(1)).getGame(1L);
+        verify(teamService, times(1)).getTopTeams(eq(1L), anyInt());
+    }
+
+    @Test
+    void localStatusChangeRendersFromGameState() throws Exception {
+        hub.subscribe(1L);
+        await(frame -> frame.path("status").asText().equals("STARTED"));
+        GameDto finished = game();
+        finished.setStatus(GameStatus.FINISHED);
+        when(gameService.getGame(1L)).thenReturn(finished);
+
+        hub.onGameEvent(GameEventDto.statusChanged(1L, GameStatus.FINISHED));
+
+        await(frame -> frame.path("status").asText().equals("FINISHED"));
+    }
+
+    // Последний кадр канала, как его получают зрители
+    private JsonNode await(Predicate<JsonNode> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        JsonNode last = null;
+        while (System.currentTimeMillis() < deadline) {
+            Map<?, ?> channels = (Map<?, ?>) ReflectionTestUtils.getField(hub, "channels");
+            Object channel = channels.get(1L);
+            byte[] frame = channel == null ? null : (byte[]) ReflectionTestUtils.getField(channel, "frame");
+            if (frame != null) {
+                String text = new String(frame, StandardCharsets.UTF_8);
+                last = objectMapper.readTree(text.substring(text.indexOf("data: ") + 6).trim());
+                if (condition.test(last)) {
+                    return last;
+                }
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("No matching spectator frame, last: " + last);
+    }
+
+    private static GameDto game() {
+        CategoryDto category = new CategoryDto();
+        category.setId(1L);
+        category.setName("category");
+        category.setQuestions(List.of(question(11L, "a1"), question(12L, "a2")));
+        GameDto game = new GameDto();
+        game.setId(1L);
+        game.setTitle("game");
+        game.setStatus(GameStatus.STARTED);
+        game.setCategories(List.of(category));
+        return game;
+    }
+
+    private static QuestionDto question(Long id, String answer) {
+        QuestionDto question = new QuestionDto();
+        question.setId(id);
+        question.setQuestionText("q" + id);
+        question.setAnswerText(answer);
+        question.setPoints(100);
+        return question;
+    }
+
+    private static RankedTeamDto team(Long id, String name, int score, int rank) {
+        RankedTeamDto team = new RankedTeamDto();
+        team.setId(id);
+        team.setName(name);
+        team.setScore(score);
+        team.setRank(rank);
+        return team;
+    }
+}
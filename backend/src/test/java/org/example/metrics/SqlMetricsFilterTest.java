@@ -0,0 +1,66 @@
+package org.example.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL запроса считаются на уровне соединения: и через Hibernate, и через JdbcTemplate.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlMetricsFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void jdbcTemplateStatementsAreCounted() throws Exception {
+        mockMvc.perform(get("/api/analytics")).andExpect(status().isOk());
+
+        // Сводка, распределение по стоимости и по категориям, неотвеченные, последние игры
+        DistributionSummary statements = summary("/api/analytics");
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(5);
+    }
+
+    @Test
+    void hibernateStatementsAreCounted() throws Exception {
+        mockMvc.perform(get("/api/games")).andExpect(status().isOk());
+
+        assertThat(summary("/api/games").totalAmount()).isPositive();
+    }
+
+    @Test
+    void connectionsOutsideRequestsAreNotWrapped() throws Exception {
+        assertThat(dataSource).isInstanceOf(SqlCountingDataSource.class);
+        // Вне HTTP-запроса счётчиков нет, и соединение пула отдаётся как есть
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(Proxy.isProxyClass(connection.getClass())).isFalse();
+        }
+    }
+
+    private DistributionSummary summary(String uri) {
+        return meterRegistry.get("http.server.requests.sql.statements").tag("method", "GET").tag("uri", uri).summary();
+    }
+}
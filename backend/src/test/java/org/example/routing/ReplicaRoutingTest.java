@@ -0,0 +1,105 @@
+package org.example.routing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Выбор соединения для запросов: реплика только для readOnly-транзакций GET-запросов
+ * к играм без изменений за окно read-your-writes.
+ */
+class ReplicaRoutingTest {
+
+    private static final long WINDOW_MS = 200;
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final GameRequestResolver gameRequestResolver = mock(GameRequestResolver.class);
+    private final RecentWrites recentWrites = new RecentWrites();
+    private final ReplicaRoutingInterceptor interceptor = new ReplicaRoutingInterceptor();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private ReadWriteRoutingDataSource routing;
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        routing = new ReadWriteRoutingDataSource(primary, replica);
+        routing.afterPropertiesSet();
+        ReflectionTestUtils.setField(recentWrites, "windowMs", WINDOW_MS);
+        ReflectionTestUtils.setField(interceptor, "gameRequestResolver", gameRequestResolver);
+        ReflectionTestUtils.setField(interceptor, "recentWrites", recentWrites);
+        handler = new HandlerMethod(new Object(), Object.class.getMethod("toString"));
+    }
+
+    @Test
+    void readsAfterWriteGoToPrimaryUntilWindowEnds() throws Exception {
+        assertThat(read(1L, true)).isSameAs(replicaConnection);
+
+        write(1L);
+
+        assertThat(read(1L, true)).isSameAs(primaryConnection);
+        // Другие игры по-прежнему читаются с реплики
+        assertThat(read(2L, true)).isSameAs(replicaConnection);
+
+        Thread.sleep(WINDOW_MS + 50);
+        assertThat(read(1L, true)).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void writeWithoutKnownGameSendsAllReadsToPrimary() throws Exception {
+        write(null);
+
+        assertThat(read(1L, true)).isSameAs(primaryConnection);
+        assertThat(read(null, true)).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void onlyReadOnlyTransactionsOfReadRequestsUseReplica() throws Exception {
+        assertThat(read(1L, false)).isSameAs(primaryConnection);
+
+        // Вне запроса (фоновые задачи, write-behind) — всегда основная БД
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    // Соединение, которое получит транзакция GET-запроса к игре
+    private Connection read(Long gameId, boolean readOnly) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/games/" + gameId);
+        when(gameRequestResolver.resolveGameId(any())).thenReturn(gameId);
+        interceptor.preHandle(request, response, handler);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            return routing.getConnection();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            interceptor.afterCompletion(request, response, handler, null);
+        }
+    }
+
+    private void write(Long gameId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/games/" + gameId);
+        when(gameRequestResolver.resolveGameId(any())).thenReturn(gameId);
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, null);
+    }
+}
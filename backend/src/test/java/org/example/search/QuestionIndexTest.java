@@ -0,0 +1,279 @@
+package org.example.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.CategoryDto;
+import org.example.dto.GameDto;
+import org.example.dto.QuestionDto;
+import org.example.dto.RankingDto;
+import org.example.service.ArchivedBoardCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuestionIndexTest {
+
+    private final QuestionIndex index = new QuestionIndex();
+    private final ArchivedBoardCodec codec = new ArchivedBoardCodec();
+    private JdbcTemplate jdbcTemplate;
+    private long nextQuestionId = 1;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE categories (id BIGINT PRIMARY KEY, game_id BIGINT, name VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE questions (id BIGINT PRIMARY KEY, category_id BIGINT, " +
+                "question_text VARCHAR(1000), answer_text VARCHAR(1000), points INT)");
+        jdbcTemplate.execute("CREATE TABLE archived_games (id BIGINT PRIMARY KEY, data VARBINARY(1000000))");
+        ReflectionTestUtils.setField(codec, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(index, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(index, "transactionTemplate",
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        ReflectionTestUtils.setField(index, "archivedBoardCodec", codec);
+        ReflectionTestUtils.setField(index, "duplicateThreshold", 0.8);
+    }
+
+    @Test
+    void questionsMatchingMoreQueryWordsRankHigher() {
+        category(1L, 1L, "География");
+        question(1L, "Какая река протекает через столицу Франции", "Сена", 100);
+        question(1L, "Столица Франции", "Париж", 200);
+        question(1L, "Столица Италии", "Рим", 300);
+        index.refresh(1L);
+
+        List<QuestionIndex.Hit> hits = index.search("столица франции", null, null, null, 10);
+
+        assertThat(hits).extracting(hit -> hit.document().questionText())
+                .startsWith("Столица Франции", "Какая река протекает через столицу Франции")
+                .endsWith("Столица Италии");
+    }
+
+    @Test
+    void questionTextOutweighsAnswerText() {
+        category(1L, 1L, "Литература");
+        question(1L, "Кто написал роман Война и мир", "Толстой", 100);
+        question(1L, "Какой роман написал Толстой", "Война и мир", 200);
+        index.refresh(1L);
+
+        List<QuestionIndex.Hit> hits = index.search("толстой", null, null, null, 10);
+
+        assertThat(hits).extracting(hit -> hit.document().answerText()).containsExactly("Война и мир", "Толстой");
+    }
+
+    @Test
+    void typoAndPrefixMatchButShortWordsNeedExactMatch() {
+        category(1L, 1L, "География");
+        question(1L, "Столица Франции", "Париж", 100);
+        question(1L, "Кот Шрёдингера", "Физика", 200);
+        index.refresh(1L);
+
+        assertThat(index.search("фрнции", null, null, null, 10)).extracting(hit -> hit.document().answerText())
+                .containsExactly("Париж");
+        assertThat(index.search("франц", null, null, null, 10)).extracting(hit -> hit.document().answerText())
+                .containsExactly("Париж");
+        // Две правки для слова из 8 букв допустимы
+        assertThat(index.search("шредингира", null, null, null, 10)).extracting(hit -> hit.document().answerText())
+                .containsExactly("Физика");
+        // В словах короче четырёх букв опечатки не прощаются
+        assertThat(index.search("кит", null, null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void filtersByPointsAndCategory() {
+        category(1L, 1L, "География");
+        category(2L, 1L, "История");
+        question(1L, "Столица Франции", "Париж", 100);
+        question(2L, "Столица Франции при Каролингах", "Ахен", 400);
+        index.refresh(1L);
+
+        assertThat(index.search("столица", 300, null, null, 10)).extracting(hit -> hit.document().answerText())
+                .containsExactly("Ахен");
+        assertThat(index.search("столица", null, null, "география", 10)).extracting(hit -> hit.document().answerText())
+                .containsExactly("Париж");
+    }
+
+    @Test
+    void duplicatesAreFoundOnlyAboveThreshold() {
+        category(1L, 1L, "География");
+        long same = question(1L, "Какая столица Франции?", "Париж", 100);
+        long close = question(1L, "Какая столица у Франции", "Париж", 200);
+        question(1L, "Какая столица Италии?", "Рим", 300);
+        index.refresh(1L);
+
+        List<QuestionIndex.Hit> hits = index.findSimilar("какая столица Франции", null, 10);
+
+        // «у» не индексируется, поэтому оба первых вопроса совпадают полностью; Италия — 2/4 < 0.8
+        assertThat(hits).extracting(hit -> hit.document().questionId()).containsExactlyInAnyOrder(same, close);
+        assertThat(hits).allSatisfy(hit -> assertThat(hit.score()).isEqualTo(1f));
+        assertThat(index.findSimilar("какая столица Франции", same, 10))
+                .extracting(hit -> hit.document().questionId()).containsExactly(close);
+    }
+
+    @Test
+    void refreshReplacesOldTextsAndCompactsTombstones() {
+        category(1L, 1L, "Разное");
+        for (int i = 0; i < 200; i++) {
+            question(1L, "Вопрос номер " + i, "Ответ " + i, 100);
+        }
+        category(2L, 2L, "Другая игра");
+        question(2L, "Соседний вопрос", "Остаётся", 100);
+        index.refresh(1L);
+        index.refresh(2L);
+
+        // Каждое перечитывание оставляет 200 удалённых документов; после 10 000 словарь перестраивается
+        for (int i = 0; i < 60; i++) {
+            index.refresh(1L);
+        }
+        jdbcTemplate.update("UPDATE questions SET question_text = 'Переписанный вопрос' WHERE id = 1");
+        index.refresh(1L);
+
+        List<?> documents = (List<?>) ReflectionTestUtils.getField(index, "documents");
+        assertThat(documents.size()).isLessThan(201 * 60);
+        assertThat(index.search("номер", null, null, null, 1000)).hasSize(199);
+        assertThat(index.search("переписанный", null, null, null, 10)).hasSize(1);
+        assertThat(index.search("соседний", null, null, null, 10)).extracting(hit -> hit.document().answerText())
+                .containsExactly("Остаётся");
+    }
+
+    @Test
+    void archivedBoardsAreIndexedAndKeptOnRefresh() {
+        category(1L, 1L, "География");
+        question(1L, "Столица Франции", "Париж", 100);
+        archive(2L, "История", "Столица Франции при Каролингах", "Ахен");
+        index.build();
+
+        assertThat(index.search("столица", null, null, null, 10)).extracting(hit -> hit.document().gameId())
+                .containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.sampleBoard(1, List.of(100), List.of("история"), List.of(), new Random(1)))
+                .flatExtracting(column -> column).extracting(QuestionIndex.Document::answerText).containsExactly("Ахен");
+
+        // Игру только что перенесли в архив: её строк в questions нет, документы читаются из архива
+        jdbcTemplate.update("DELETE FROM questions");
+        jdbcTemplate.update("DELETE FROM categories");
+        archive(1L, "География", "Столица Франции", "Париж");
+        index.refresh(1L);
+        assertThat(index.search("столица", null, null, null, 10)).hasSize(2);
+
+        // Удалённая из архива игра пропадает из индекса
+        jdbcTemplate.update("DELETE FROM archived_games WHERE id = 2");
+        index.refresh(2L);
+        assertThat(index.search("столица", null, null, null, 10)).extracting(hit -> hit.document().answerText())
+                .containsExactly("Париж");
+    }
+
+    @Test
+    void sampledBoardSkipsTextsOfExcludedGames() {
+        category(1L, 1L, "История");
+        question(1L, "Первый вопрос истории", "А", 100);
+        question(1L, "Второй вопрос истории", "Б", 200);
+        // Та же категория в другой игре: название отличается регистром и пробелом, текст — регистром и пунктуацией
+        category(2L, 2L, " ИСТОРИЯ");
+        question(2L, "первый вопрос ИСТОРИИ?", "А", 100);
+        question(2L, "Третий вопрос истории", "В", 100);
+        question(2L, "Четвёртый вопрос истории", "Г", 200);
+        index.refresh(1L);
+        index.refresh(2L);
+
+        assertThat(index.sampleBoard(2, List.of(100, 200), List.of(), List.of(), new Random(1))).hasSize(1);
+        for (int seed = 0; seed < 50; seed++) {
+            assertThat(index.sampleBoard(1, List.of(100, 200), List.of(), List.of(1L), new Random(seed)))
+                    .flatExtracting(column -> column).extracting(QuestionIndex.Document::answerText)
+                    .containsExactly("В", "Г");
+        }
+        // Без единственных оставшихся вопросов на 100 и 200 доска не собирается
+        assertThat(index.sampleBoard(1, List.of(100, 200), List.of(), List.of(1L, 2L), new Random(1))).isEmpty();
+    }
+
+    @Test
+    void categoriesAreSampledEvenlyWhateverTheirSize() {
+        category(1L, 1L, "Большая");
+        for (int i = 0; i < 50; i++) {
+            question(1L, "Большой вопрос " + (i + 10), "Ответ", 100);
+            question(1L, "Трудный вопрос " + (i + 10), "Ответ", 200);
+        }
+        category(2L, 1L, "Малая");
+        question(2L, "Малый вопрос", "Малый ответ", 100);
+        question(2L, "Малый трудный вопрос", "Малый трудный ответ", 200);
+        index.refresh(1L);
+
+        Random random = new Random(7);
+        int small = 0;
+        for (int i = 0; i < 2000; i++) {
+            List<QuestionIndex.Document> column = index.sampleBoard(1, List.of(100, 200), List.of(), List.of(), random)
+                    .get(0);
+            // Все вопросы колонки из одной категории банка
+            assertThat(column).extracting(QuestionIndex.Document::categoryName).containsOnly(column.get(0).categoryName());
+            if (column.get(0).categoryName().equals("Малая")) {
+                small++;
+            }
+        }
+        assertThat(small).isBetween(850, 1150);
+    }
+
+    @Test
+    void sameSeedGivesSameBoard() {
+        for (long c = 1; c <= 6; c++) {
+            category(c, 1L, "Категория " + c);
+            for (int i = 0; i < 10; i++) {
+                // Однозначные числа не индексируются, а одинаковые тексты на доску не попадают
+                question(c, "Вопрос номер " + (c * 10 + i), "Ответ", 100 * (i % 5 + 1));
+            }
+        }
+        index.refresh(1L);
+        List<Integer> points = List.of(100, 200, 300, 400, 500);
+
+        Set<List<Long>> boards = new HashSet<>();
+        for (long seed = 0; seed < 20; seed++) {
+            List<Long> board = questionIds(index.sampleBoard(4, points, List.of(), List.of(), new Random(seed)));
+            assertThat(questionIds(index.sampleBoard(4, points, List.of(), List.of(), new Random(seed))))
+                    .isEqualTo(board);
+            boards.add(board);
+        }
+        assertThat(boards).hasSizeGreaterThan(1);
+    }
+
+    private static List<Long> questionIds(List<List<QuestionIndex.Document>> board) {
+        return board.stream().flatMap(List::stream).map(QuestionIndex.Document::questionId).toList();
+    }
+
+    private void archive(long gameId, String categoryName, String text, String answer) {
+        QuestionDto question = new QuestionDto();
+        question.setId(nextQuestionId++);
+        question.setQuestionText(text);
+        question.setAnswerText(answer);
+        question.setPoints(100);
+        CategoryDto category = new CategoryDto();
+        category.setId(gameId * 100);
+        category.setName(categoryName);
+        category.setQuestions(List.of(question));
+        GameDto game = new GameDto();
+        game.setId(gameId);
+        game.setCategories(List.of(category));
+        jdbcTemplate.update("INSERT INTO archived_games (id, data) VALUES (?, ?)", gameId,
+                codec.compress(new ArchivedBoardCodec.ArchivedBoard(game, new RankingDto())));
+    }
+
+    private void category(long id, long gameId, String name) {
+        jdbcTemplate.update("INSERT INTO categories (id, game_id, name) VALUES (?, ?, ?)", id, gameId, name);
+    }
+
+    private long question(long categoryId, String text, String answer, int points) {
+        long id = nextQuestionId++;
+        jdbcTemplate.update("INSERT INTO questions (id, category_id, question_text, answer_text, points) VALUES (?, ?, ?, ?, ?)",
+                id, categoryId, text, answer, points);
+        return id;
+    }
+}
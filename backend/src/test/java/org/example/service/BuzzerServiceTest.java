@@ -0,0 +1,68 @@
+package org.example.service;
+
+import org.example.dto.BuzzResultDto;
+import org.example.engine.BuzzerRound;
+import org.example.engine.GameStateEngine;
+import org.example.engine.LiveGame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BuzzerServiceTest {
+
+    private final BuzzerService buzzers = new BuzzerService();
+    private final BuzzerRound round = mock(BuzzerRound.class);
+
+    @BeforeEach
+    void setUp() {
+        LiveGame live = mock(LiveGame.class);
+        when(live.getBuzzer(11L)).thenReturn(round);
+        GameStateEngine engine = mock(GameStateEngine.class);
+        when(engine.findByQuestion(11L)).thenReturn(live);
+        when(round.getQuestionId()).thenReturn(11L);
+        when(round.press(eq(1L), anyLong())).thenReturn(BuzzerRound.Outcome.OPENED);
+        ReflectionTestUtils.setField(buzzers, "gameStateEngine", engine);
+        ReflectionTestUtils.setField(buzzers, "windowMs", 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        buzzers.shutdown();
+    }
+
+    @Test
+    void undecidedRoundTimesOutWithItsCause() {
+        // decideBuzzer у заглушки ничего не делает: победитель так и не объявляется
+        when(round.getWinner()).thenReturn(new CompletableFuture<>());
+
+        CompletableFuture<BuzzResultDto> result = buzzers.buzz(11L, 1L, System.nanoTime());
+
+        assertThatThrownBy(result::join).isInstanceOf(CompletionException.class)
+                .cause().hasMessage("Buzzer arbitration timed out")
+                .cause().isInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    void failedArbitrationKeepsTheCause() {
+        IllegalStateException failure = new IllegalStateException("arbiter stopped");
+        when(round.getWinner()).thenReturn(CompletableFuture.failedFuture(failure));
+
+        CompletableFuture<BuzzResultDto> result = buzzers.buzz(11L, 1L, System.nanoTime());
+
+        assertThatThrownBy(result::join).cause().hasMessage("Buzzer arbitration failed")
+                .cause().isSameAs(failure);
+        assertThat(result).isCompletedExceptionally();
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.service;
+
+import org.example.dto.GameDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сброс кэша содержимого по id игры, как при уведомлении с другого узла кластера.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ContentCacheTest {
+
+    @Autowired
+    private ContentCache contentCache;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void evictGameDropsOnlyThatGamesEntries() {
+        GameDto changed = gameService.setupGame(TestBoards.board("changed", 1, 3, 0));
+        GameDto other = gameService.setupGame(TestBoards.board("other", 1, 3, 0));
+        warm(changed);
+        warm(other);
+
+        contentCache.evictGame(changed.getId());
+
+        assertCached(changed, false);
+        assertCached(other, true);
+    }
+
+    @Test
+    void evictGameFindsCategoriesOfAlreadyDeletedGameInCache() {
+        GameDto deleted = gameService.setupGame(TestBoards.board("deleted", 1, 3, 0));
+        warm(deleted);
+        jdbcTemplate.update("DELETE FROM questions WHERE category_id IN (SELECT id FROM categories WHERE game_id = ?)",
+                deleted.getId());
+        jdbcTemplate.update("DELETE FROM categories WHERE game_id = ?", deleted.getId());
+
+        contentCache.evictGame(deleted.getId());
+
+        assertCached(deleted, false);
+    }
+
+    @Test
+    void deleteGameKeepsOtherGamesCached() {
+        GameDto deleted = gameService.setupGame(TestBoards.board("deleted game", 1, 3, 0));
+        GameDto other = gameService.setupGame(TestBoards.board("kept game", 1, 3, 0));
+        warm(deleted);
+        warm(other);
+
+        gameService.deleteGame(deleted.getId());
+
+        assertCached(deleted, false);
+        assertCached(other, true);
+    }
+
+    private void warm(GameDto game) {
+        Long categoryId = game.getCategories().get(0).getId();
+        contentCache.getCategory(categoryId);
+        contentCache.getCategoryQuestions(categoryId);
+        game.getCategories().get(0).getQuestions().forEach(question -> contentCache.getQuestion(question.getId()));
+    }
+
+    private void assertCached(GameDto game, boolean cached) {
+        Long categoryId = game.getCategories().get(0).getId();
+        Cache questions = cacheManager.getCache(ContentCache.QUESTIONS);
+        assertThat(cacheManager.getCache(ContentCache.CATEGORIES).get(categoryId) != null).isEqualTo(cached);
+        assertThat(cacheManager.getCache(ContentCache.CATEGORY_QUESTIONS).get(categoryId) != null).isEqualTo(cached);
+        game.getCategories().get(0).getQuestions()
+                .forEach(question -> assertThat(questions.get(question.getId()) != null).isEqualTo(cached));
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.service;
+
+import org.example.dto.GameDto;
+import org.example.repository.ArchivedGameRepository;
+import org.example.repository.GameRepository;
+import org.example.search.QuestionIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Фоновый перенос в архив: сбой одной игры не останавливает остальные,
+ * из кэша содержимого уходят только записи перенесённых игр, а поисковый индекс их вопросы сохраняет.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GameArchiveServiceTest {
+
+    @Autowired
+    private GameArchiveService gameArchiveService;
+
+    @Autowired
+    private GameService gameService;
+
+    @SpyBean
+    private CategoryService categoryService;
+
+    @Autowired
+    private ContentCache contentCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private ArchivedGameRepository archivedGameRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QuestionIndex questionIndex;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gameArchiveService, "enabled", true);
+    }
+
+    @Test
+    void failedGameIsSkippedAndLaterGamesAreArchived() {
+        GameDto broken = finishedLongAgo("broken");
+        GameDto first = finishedLongAgo("first");
+        GameDto second = finishedLongAgo("second");
+        doThrow(new RuntimeException("Board is unreadable")).when(categoryService).getBoards(List.of(broken.getId()));
+
+        gameArchiveService.archiveExpired();
+
+        assertThat(archivedGameRepository.existsById(broken.getId())).isFalse();
+        assertThat(gameRepository.existsById(broken.getId())).isTrue();
+        assertThat(archivedGameRepository.existsById(first.getId())).isTrue();
+        assertThat(archivedGameRepository.existsById(second.getId())).isTrue();
+    }
+
+    @Test
+    void archivingEvictsOnlyTheArchivedGameFromContentCache() {
+        GameDto archived = finishedLongAgo("archived");
+        GameDto kept = gameService.setupGame(TestBoards.board("kept", 1, 1, 1));
+        Long archivedCategory = archived.getCategories().get(0).getId();
+        Long archivedQuestion = archived.getCategories().get(0).getQuestions().get(0).getId();
+        Long keptCategory = kept.getCategories().get(0).getId();
+        Long keptQuestion = kept.getCategories().get(0).getQuestions().get(0).getId();
+        List.of(archivedCategory, keptCategory).forEach(contentCache::getCategory);
+        List.of(archivedQuestion, keptQuestion).forEach(contentCache::getQuestion);
+
+        gameArchiveService.archiveExpired();
+
+        Cache categories = cacheManager.getCache(ContentCache.CATEGORIES);
+        Cache questions = cacheManager.getCache(ContentCache.QUESTIONS);
+        assertThat(archivedGameRepository.existsById(archived.getId())).isTrue();
+        assertThat(categories.get(archivedCategory)).isNull();
+        assertThat(questions.get(archivedQuestion)).isNull();
+        assertThat(categories.get(keptCategory)).isNotNull();
+        assertThat(questions.get(keptQuestion)).isNotNull();
+    }
+
+    @Test
+    void archivedQuestionsStaySearchable() {
+        GameDto archived = finishedLongAgo("searchable");
+
+        gameArchiveService.archiveExpired();
+
+        assertThat(archivedGameRepository.existsById(archived.getId())).isTrue();
+        assertThat(questionIndex.search("searchable question", null, null, null, 10))
+                .extracting(hit -> hit.document().gameId()).contains(archived.getId());
+    }
+
+    private GameDto finishedLongAgo(String title) {
+        GameDto game = gameService.setupGame(TestBoards.board(title, 1, 1, 1));
+        jdbcTemplate.update("UPDATE games SET status = 'FINISHED', finished_at = ? WHERE id = ?",
+                LocalDateTime.now().minusYears(1), game.getId());
+        return game;
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.service;
+
+import org.example.dto.GameChangesDto;
+import org.example.dto.GameDto;
+import org.example.dto.TeamDto;
+import org.example.engine.GameStateEngine;
+import org.example.engine.LiveGame;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Дельта-синхронизация: изменения из лога, пока он покрывает версию клиента, иначе полный снимок игры.
+ */
+@SpringBootTest(properties = "game.engine.change-log-size=3")
+@ActiveProfiles("test")
+class GameServiceChangesTest {
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameStateEngine gameStateEngine;
+
+    @Test
+    void versionsCoveredByChangeLogGetOnlyChanges() {
+        GameDto game = startedGame("delta");
+        LiveGame live = gameStateEngine.find(game.getId());
+        Long first = game.getTeams().get(0).getId();
+        Long second = game.getTeams().get(1).getId();
+        live.awardPoints(first, 100);
+        long since = live.getVersion();
+        live.awardPoints(second, 200);
+        live.awardPoints(second, 100);
+
+        GameChangesDto changes = gameService.getChanges(game.getId(), since);
+
+        assertThat(changes.isFull()).isFalse();
+        assertThat(changes.getGame()).isNull();
+        assertThat(changes.getVersion()).isEqualTo(live.getVersion());
+        assertThat(changes.getTeams()).extracting(TeamDto::getId, TeamDto::getScore).containsExactly(tuple(second, 300));
+    }
+
+    @Test
+    void versionBelowChangeLogFloorGetsFullSnapshot() {
+        GameDto game = startedGame("snapshot");
+        LiveGame live = gameStateEngine.find(game.getId());
+        Long teamId = game.getTeams().get(0).getId();
+        long since = live.getVersion();
+        // Лог держит три последних изменения, первое из четырёх из него вытеснено
+        for (int i = 0; i < 4; i++) {
+            live.awardPoints(teamId, 100);
+        }
+
+        GameChangesDto changes = gameService.getChanges(game.getId(), since);
+
+        assertThat(changes.isFull()).isTrue();
+        assertThat(changes.getVersion()).isEqualTo(live.getVersion());
+        assertThat(changes.getTeams()).isEmpty();
+        assertThat(changes.getGame().getTeams()).filteredOn(team -> team.getId().equals(teamId))
+                .extracting(TeamDto::getScore).containsExactly(400);
+    }
+
+    @Test
+    void finishedGameGetsSnapshotUnlessClientIsCurrent() {
+        GameDto game = startedGame("finished");
+        long since = gameStateEngine.find(game.getId()).getVersion();
+        gameService.finishGame(game.getId());
+        long version = gameService.getVersion(game.getId());
+
+        assertThat(gameService.getChanges(game.getId(), since).isFull()).isTrue();
+        GameChangesDto current = gameService.getChanges(game.getId(), version);
+        assertThat(current.isFull()).isFalse();
+        assertThat(current.getGame()).isNull();
+        assertThat(current.getQuestions()).isEmpty();
+    }
+
+    private GameDto startedGame(String title) {
+        return gameService.startGame(gameService.setupGame(TestBoards.board(title, 1, 2, 2)).getId());
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.service;
+
+import org.example.dto.GameDto;
+import org.example.engine.GameStateEngine;
+import org.example.engine.LiveGame;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Завершение игры: из движка игра уходит только после коммита, при откате продолжается.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GameServiceFinishTest {
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameStateEngine gameStateEngine;
+
+    @SpyBean
+    private GameStatsService gameStatsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void finishedGameLeavesTheEngineAfterCommit() {
+        GameDto game = startedGame("finished");
+        Long teamId = game.getTeams().get(0).getId();
+        gameStateEngine.find(game.getId()).awardPoints(teamId, 100);
+
+        gameService.finishGame(game.getId());
+
+        assertThat(gameStateEngine.find(game.getId())).isNull();
+        assertThat(status(game.getId())).isEqualTo("FINISHED");
+        assertThat(jdbcTemplate.queryForObject("SELECT score FROM teams WHERE id = ?", Integer.class, teamId))
+                .isEqualTo(100);
+    }
+
+    @Test
+    void rolledBackFinishKeepsTheGamePlayable() {
+        GameDto game = startedGame("rolled back");
+        Long teamId = game.getTeams().get(0).getId();
+        gameStateEngine.find(game.getId()).awardPoints(teamId, 100);
+        doThrow(new RuntimeException("Stats are unavailable")).when(gameStatsService).record(any(), any());
+
+        assertThatThrownBy(() -> gameService.finishGame(game.getId())).hasMessage("Stats are unavailable");
+
+        LiveGame live = gameStateEngine.find(game.getId());
+        assertThat(live).isNotNull();
+        assertThat(live.awardPoints(teamId, 100).getScore()).isEqualTo(200);
+        assertThat(status(game.getId())).isEqualTo("STARTED");
+    }
+
+    private GameDto startedGame(String title) {
+        return gameService.startGame(gameService.setupGame(TestBoards.board(title, 1, 1, 1)).getId());
+    }
+
+    private String status(Long gameId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM games WHERE id = ?", String.class, gameId);
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dto.GameDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Число SQL-запросов при чтении игр не зависит от размера доски и числа игр
+ * (статистика Hibernate, hibernate.generate_statistics=true).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GameServiceQueryCountTest {
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void getGameRunsSameStatementsForOneAndManyCategoriesAndTeams() {
+        GameDto small = gameService.setupGame(TestBoards.board("small", 1, 1, 1));
+        GameDto large = gameService.setupGame(TestBoards.board("large", 6, 5, 8));
+
+        long smallStatements = statementsOf(() -> gameService.getGame(small.getId()));
+        long largeStatements = statementsOf(() -> gameService.getGame(large.getId()));
+
+        assertThat(gameService.getGame(large.getId()).getCategories()).hasSize(6);
+        assertThat(gameService.getGame(large.getId()).getTeams()).hasSize(8);
+        assertThat(smallStatements).isPositive();
+        assertThat(largeStatements).isEqualTo(smallStatements);
+    }
+
+    @Test
+    void getGamesRunsSameStatementsForOneAndManyGames() {
+        gameService.setupGame(TestBoards.board("first", 2, 2, 2));
+        long oneGame = statementsOf(() -> gameService.getGames(null, null, 50));
+        for (int i = 0; i < 10; i++) {
+            gameService.setupGame(TestBoards.board("game-" + i, 3, 3, 3));
+        }
+        long manyGames = statementsOf(() -> gameService.getGames(null, null, 50));
+
+        assertThat(gameService.getGames(null, null, 50).getItems()).hasSizeGreaterThan(10);
+        assertThat(oneGame).isPositive();
+        assertThat(manyGames).isEqualTo(oneGame);
+    }
+
+    private long statementsOf(Runnable read) {
+        statistics.clear();
+        read.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.service;
+
+import org.example.dto.GameEventDto;
+import org.example.dto.QuestionTimerDto;
+import org.example.engine.GameStateEngine;
+import org.example.engine.LiveGame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QuestionTimerServiceTest {
+
+    private final BlockingQueue<GameEventDto> events = new LinkedBlockingQueue<>();
+    private final QuestionTimerService timers = new QuestionTimerService();
+    private LiveGame live;
+
+    @BeforeEach
+    void setUp() {
+        live = mock(LiveGame.class);
+        when(live.getId()).thenReturn(1L);
+        GameStateEngine engine = mock(GameStateEngine.class);
+        when(engine.find(1L)).thenReturn(live);
+        ReflectionTestUtils.setField(timers, "gameStateEngine", engine);
+        ApplicationEventPublisher publisher = event -> events.add((GameEventDto) event);
+        ReflectionTestUtils.setField(timers, "eventPublisher", publisher);
+        ReflectionTestUtils.setField(timers, "durationMs", 200L);
+        ReflectionTestUtils.setField(timers, "onExpiry", "reveal");
+        ReflectionTestUtils.setField(timers, "tickMs", 10L);
+        timers.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        timers.shutdown();
+    }
+
+    @Test
+    void timerExpiresAfterItsDuration() throws Exception {
+        long started = System.nanoTime();
+        timers.start(live, 11L);
+
+        assertThat(next().getType()).isEqualTo(GameEventDto.TIMER_STARTED);
+        assertThat(next().getType()).isEqualTo(GameEventDto.TIMER_EXPIRED);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isGreaterThanOrEqualTo(200);
+        assertThat(timers.getTimer(1L)).isNull();
+    }
+
+    @Test
+    void pausedTimerDoesNotExpireAndResumesWithRemainingTime() throws Exception {
+        timers.start(live, 11L);
+        Thread.sleep(50);
+        timers.pauseIfRunning(1L, 11L);
+
+        // Пауза дольше всего таймера: истечения нет, остаток не уменьшается
+        Thread.sleep(300);
+        QuestionTimerDto timer = timers.getTimer(1L);
+        assertThat(timer.isPaused()).isTrue();
+        assertThat(timer.getRemainingMs()).isBetween(1L, 150L);
+
+        timers.resumeIfPaused(1L, 11L);
+        long resumed = System.nanoTime();
+
+        assertThat(next().getType()).isEqualTo(GameEventDto.TIMER_STARTED);
+        assertThat(next().getType()).isEqualTo(GameEventDto.TIMER_PAUSED);
+        assertThat(next().getType()).isEqualTo(GameEventDto.TIMER_RESUMED);
+        assertThat(next().getType()).isEqualTo(GameEventDto.TIMER_EXPIRED);
+        long afterResume = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - resumed);
+        assertThat(afterResume).isGreaterThanOrEqualTo(timer.getRemainingMs());
+    }
+
+    @Test
+    void cancelledTimerDoesNotExpire() throws Exception {
+        timers.start(live, 11L);
+        timers.cancel(1L, 11L);
+
+        assertThat(next().getType()).isEqualTo(GameEventDto.TIMER_STARTED);
+        assertThat(events.poll(400, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(timers.getTimer(1L)).isNull();
+    }
+
+    private GameEventDto next() throws InterruptedException {
+        GameEventDto event = events.poll(5, TimeUnit.SECONDS);
+        assertThat(event).isNotNull();
+        return event;
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.service;
+
+import org.example.dto.CreateBoardCategoryDto;
+import org.example.dto.CreateBoardDto;
+import org.example.dto.CreateQuestionDto;
+import org.example.dto.CreateTeamDto;
+
+/**
+ * Доски для интеграционных тестов: вопросы категории стоят 100, 200, 300… очков,
+ * все названия начинаются с заголовка доски.
+ */
+final class TestBoards {
+
+    private TestBoards() {
+    }
+
+    static CreateBoardDto board(String title, int categories, int questionsPerCategory, int teams) {
+        CreateBoardDto board = new CreateBoardDto();
+        board.setTitle(title);
+        for (int c = 0; c < categories; c++) {
+            CreateBoardCategoryDto category = new CreateBoardCategoryDto();
+            category.setName(title + " category " + c);
+            for (int q = 0; q < questionsPerCategory; q++) {
+                CreateQuestionDto question = new CreateQuestionDto();
+                question.setQuestionText(title + " question " + c + "-" + q);
+                question.setAnswerText(title + " answer " + q);
+                question.setPoints((q + 1) * 100);
+                category.getQuestions().add(question);
+            }
+            board.getCategories().add(category);
+        }
+        for (int t = 0; t < teams; t++) {
+            CreateTeamDto team = new CreateTeamDto();
+            team.setName(title + " team " + t);
+            board.getTeams().add(team);
+        }
+        return board;
+    }
+}
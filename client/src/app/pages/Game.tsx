@@ -1,5 +1,5 @@
 import { motion } from "framer-motion";
-import { useEffect, useState } from "react";
+import { useEffect, useRef, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import clsx from "clsx";
 import BackgroundCode from "../components/ui/BackgroundCode";
@@ -25,6 +25,18 @@ const Game = () => {
   const [timerActive, setTimerActive] = useState(false);
   const [timeLeft, setTimeLeft] = useState(60);
   const [isPaused, setIsPaused] = useState(false);
+  // Момент истечения серверного таймера по часам браузера; отсчёт на экране только показывает его
+  const deadlineRef = useRef<number | null>(null);
+  // Сервер таймер не ведёт (игра не в движке этого узла): отсчёт, пауза и истечение — в браузере
+  const localTimerRef = useRef(false);
+  const pausedLeftRef = useRef(0);
+  // Команда, первой нажавшая кнопку на открытом вопросе
+  const [expired, setExpired] = useState(false);
+  const [buzz, setBuzz] = useState<{ questionId: number; teamId: number } | null>(
+    null,
+  );
+  // Версия доски (ETag), от которой после обрыва связи запрашиваются изменения
+  const versionRef = useRef<number | null>(null);
 
   // Загрузка данных игры
   useEffect(() => {
@@ -34,27 +46,132 @@ const Game = () => {
     }
   }, [gameSetup.gameId]);
 
-  // Логика таймера
+  // Подписка на события игры вместо повторной загрузки доски и рейтинга
   useEffect(() => {
-    let interval: ReturnType<typeof setInterval>;
-
-    if (timerActive && !isPaused && timeLeft > 0) {
-      interval = setInterval(() => {
-        setTimeLeft((time) => time - 1);
-      }, 1000);
-    } else if (timeLeft === 0 && timerActive) {
-      // Таймер истек - автоматически показываем ответ
-      revealAnswer();
-    }
+    if (!gameSetup.gameId) return;
+
+    const source = new EventSource(
+      `${API_URL}/games/${gameSetup.gameId}/events`,
+    );
+
+    // После переподключения потока догружаются только изменения, пропущенные за время обрыва
+    let reconnecting = false;
+    source.onerror = () => {
+      reconnecting = true;
+    };
+    source.onopen = () => {
+      if (reconnecting) {
+        reconnecting = false;
+        syncChanges();
+      }
+    };
+
+    source.addEventListener("question-answered", (event) => {
+      const { questionId } = JSON.parse((event as MessageEvent).data);
+      setCategories((prev) =>
+        prev.map((category) => ({
+          ...category,
+          questions: category.questions.map((question: IQuestion) =>
+            question.id === questionId
+              ? { ...question, answered: true }
+              : question,
+          ),
+        })),
+      );
+    });
+
+    // Отмена последнего действия ведущим возвращает вопрос на доску
+    source.addEventListener("question-reopened", (event) => {
+      const { questionId } = JSON.parse((event as MessageEvent).data);
+      setCategories((prev) =>
+        prev.map((category) => ({
+          ...category,
+          questions: category.questions.map((question: IQuestion) =>
+            question.id === questionId
+              ? { ...question, answered: false }
+              : question,
+          ),
+        })),
+      );
+    });
+
+    source.addEventListener("buzzer-won", (event) => {
+      const { questionId, teamId } = JSON.parse((event as MessageEvent).data);
+      setBuzz({ questionId, teamId });
+    });
+
+    // Кнопка открыта заново (ответ не засчитан)
+    source.addEventListener("buzzer-opened", () => {
+      setBuzz(null);
+    });
+
+    // Таймер ведёт сервер: события приносят остаток времени, от него и считается отсчёт
+    const onTimer = (running: boolean) => (event: Event) => {
+      const { remainingMs } = JSON.parse((event as MessageEvent).data);
+      localTimerRef.current = false;
+      deadlineRef.current = running ? Date.now() + remainingMs : null;
+      setTimeLeft(Math.ceil(remainingMs / 1000));
+      setTimerActive(true);
+      setIsPaused(!running);
+    };
+    source.addEventListener("timer-started", onTimer(true));
+    source.addEventListener("timer-resumed", onTimer(true));
+    source.addEventListener("timer-paused", onTimer(false));
+
+    // Время вышло: кнопки закрыты, ведущему показывается ответ
+    source.addEventListener("timer-expired", () => {
+      deadlineRef.current = null;
+      setTimeLeft(0);
+      setExpired(true);
+    });
+
+    source.addEventListener("score-changed", (event) => {
+      const { teamId, score } = JSON.parse((event as MessageEvent).data);
+      setTeams((prev) =>
+        prev
+          .map((team) => (team.id === teamId ? { ...team, score } : team))
+          .sort((a, b) => b.score - a.score),
+      );
+    });
+
+    return () => source.close();
+  }, [gameSetup.gameId]);
+
+  // Отображение отсчёта до срока; серверный таймер истекает событием timer-expired, локальный — здесь
+  useEffect(() => {
+    if (!timerActive || isPaused) return;
+
+    const interval = setInterval(() => {
+      if (deadlineRef.current !== null) {
+        const left = Math.max(
+          0,
+          Math.ceil((deadlineRef.current - Date.now()) / 1000),
+        );
+        setTimeLeft(left);
+        if (left === 0 && localTimerRef.current) {
+          deadlineRef.current = null;
+          setExpired(true);
+        }
+      }
+    }, 250);
 
     return () => clearInterval(interval);
-  }, [timerActive, isPaused, timeLeft]);
+  }, [timerActive, isPaused]);
+
+  useEffect(() => {
+    if (expired && timerActive && selectedQuestion) {
+      setExpired(false);
+      revealAnswer();
+    }
+  }, [expired, timerActive, selectedQuestion]);
 
   const fetchGameData = async () => {
     try {
       setIsLoading(true);
       const response = await axios.get(`${API_URL}/games/${gameSetup.gameId}`);
       setCategories(response.data.categories || []);
+      const etag = Number(String(response.headers.etag ?? "").replace(/\D/g, ""));
+      versionRef.current = Number.isFinite(etag) && etag > 0 ? etag : null;
     } catch (error) {
       console.error("Error fetching game data:", error);
     } finally {
@@ -62,6 +179,58 @@ const Game = () => {
     }
   };
 
+  const syncChanges = async () => {
+    if (versionRef.current === null) {
+      fetchGameData();
+      fetchTeams();
+      return;
+    }
+    try {
+      const { data } = await axios.get(
+        `${API_URL}/games/${gameSetup.gameId}/changes`,
+        { params: { since: versionRef.current } },
+      );
+      versionRef.current = data.version;
+      if (data.full) {
+        setCategories(data.game.categories || []);
+        setTeams(
+          [...(data.game.teams || [])].sort(
+            (a: ITeam, b: ITeam) => b.score - a.score,
+          ),
+        );
+        return;
+      }
+      const answered = new Map<number, boolean>(
+        data.questions.map((q: { id: number; answered: boolean }) => [
+          q.id,
+          q.answered,
+        ]),
+      );
+      const scores = new Map<number, number>(
+        data.teams.map((t: ITeam) => [t.id, t.score]),
+      );
+      setCategories((prev) =>
+        prev.map((category) => ({
+          ...category,
+          questions: category.questions.map((question: IQuestion) =>
+            answered.has(question.id)
+              ? { ...question, answered: answered.get(question.id) }
+              : question,
+          ),
+        })),
+      );
+      setTeams((prev) =>
+        prev
+          .map((team) =>
+            scores.has(team.id) ? { ...team, score: scores.get(team.id)! } : team,
+          )
+          .sort((a, b) => b.score - a.score),
+      );
+    } catch (error) {
+      console.error("Error syncing game changes:", error);
+    }
+  };
+
   const fetchTeams = async () => {
     try {
       const response = await axios.get(
@@ -77,21 +246,65 @@ const Game = () => {
     if (question.answered) return;
 
     setSelectedQuestion(question);
+    setBuzz(null);
     setShowAnswer(false);
     setCurrentAnswer("");
-    setTimerActive(true);
+    setExpired(false);
+    // Отсчёт появится с событием timer-started, а без серверного таймера — локально
+    setTimerActive(false);
+    localTimerRef.current = false;
+    try {
+      // Выбор вопроса открывает кнопки команд и запускает серверный таймер
+      await axios.get(`${API_URL}/questions/${question.id}/select`);
+      const timer = await axios.get(
+        `${API_URL}/games/${gameSetup.gameId}/timer`,
+      );
+      // 204: игра идёт мимо движка, таймер ведётся локально
+      if (timer.status === 204) {
+        startLocalTimer();
+      }
+    } catch (error) {
+      console.error("Error selecting question:", error);
+    }
+  };
+
+  const startLocalTimer = () => {
+    localTimerRef.current = true;
+    deadlineRef.current = Date.now() + 60_000;
     setTimeLeft(60);
     setIsPaused(false);
+    setTimerActive(true);
   };
 
   const stopTimer = () => {
+    deadlineRef.current = null;
+    localTimerRef.current = false;
     setTimerActive(false);
     setIsPaused(false);
     setTimeLeft(60);
   };
 
-  const togglePause = () => {
-    setIsPaused(!isPaused);
+  const togglePause = async () => {
+    if (!selectedQuestion) return;
+
+    if (localTimerRef.current) {
+      if (isPaused) {
+        deadlineRef.current = Date.now() + pausedLeftRef.current;
+      } else if (deadlineRef.current !== null) {
+        pausedLeftRef.current = Math.max(0, deadlineRef.current - Date.now());
+        deadlineRef.current = null;
+      }
+      setIsPaused(!isPaused);
+      return;
+    }
+
+    try {
+      await axios.post(
+        `${API_URL}/questions/${selectedQuestion.id}/timer/${isPaused ? "resume" : "pause"}`,
+      );
+    } catch (error) {
+      console.error("Error toggling timer:", error);
+    }
   };
 
   const revealAnswer = async () => {
@@ -125,9 +338,7 @@ const Game = () => {
         resolveData,
       );
 
-      // Обновляем данные
-      await fetchGameData();
-      await fetchTeams();
+      // Доска и счёт обновятся по событиям из /events
 
       setSelectedQuestion(null);
       setShowAnswer(false);
@@ -139,6 +350,22 @@ const Game = () => {
     }
   };
 
+  const rejectBuzz = async () => {
+    if (!selectedQuestion) return;
+
+    try {
+      await axios.post(`${API_URL}/questions/${selectedQuestion.id}/buzzer/reject`);
+      setBuzz(null);
+    } catch (error) {
+      console.error("Error rejecting buzz:", error);
+    }
+  };
+
+  const buzzedTeam =
+    buzz && buzz.questionId === selectedQuestion?.id
+      ? teams.find((team) => team.id === buzz.teamId)
+      : undefined;
+
   const handleLeaderboard = () => {
     navigate("/leaderboard");
   };
@@ -283,6 +510,20 @@ const Game = () => {
                   </p>
                 </div>
 
+                {buzzedTeam && (
+                  <div className="mb-6 rounded-lg bg-green-500/20 p-4 text-center font-mono">
+                    <div className="mb-3 text-2xl font-bold text-green-400">
+                      Отвечает: {buzzedTeam.name}
+                    </div>
+                    <div className="flex justify-center gap-3">
+                      <Button onClick={() => resolveQuestion(buzzedTeam.id)}>
+                        Засчитать
+                      </Button>
+                      <Button onClick={rejectBuzz}>Не засчитать</Button>
+                    </div>
+                  </div>
+                )}
+
                 {showAnswer ? (
                   <>
                     <div className="mb-6 rounded-lg bg-gray-700 p-4">
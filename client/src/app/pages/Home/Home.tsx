@@ -21,146 +21,85 @@ const Home = () => {
   const [selectedCategory, setSelectedCategory] = useState<number | null>(null);
   const [isLoading, setIsLoading] = useState(false);
 
-  // Создание новой игры
-  const createNewGame = async (gameName: string) => {
-    try {
-      setIsLoading(true);
-      const response = await axios.post(`${API_URL}/games`, {
-        title: gameName,
-        status: "CREATED",
-      });
-
-      setSetup((prev: typeof setup) => ({
-        ...prev,
-        gameId: response.data.id,
-        gameName: gameName,
-      }));
-
-      console.log("Game created:", response.data);
-      return response.data.id;
-    } catch (error) {
-      console.error("Error creating new game:", error);
-      throw error;
-    } finally {
-      setIsLoading(false);
-    }
-  };
+  // Доска собирается локально и создаётся одним запросом при старте игры.
+  // До этого у категорий, вопросов и команд временные отрицательные id
 
   // Добавление категории
-  const addCategory = async () => {
-    if (currentValue.trim() && setup.gameId) {
-      try {
-        setIsLoading(true);
-        const response = await axios.post(
-          `${API_URL}/games/${setup.gameId}/categories`,
-          {
-            name: currentValue,
-          },
-        );
-
-        setSetup((prev: typeof setup) => {
-          const currentCategories = Array.isArray(prev.categories)
-            ? prev.categories
-            : [];
-
-          return {
-            ...prev,
-            categories: [
-              ...currentCategories,
-              {
-                id: response.data.id,
-                name: currentValue,
-                questions: [],
-              },
-            ],
-          };
-        });
-        setCurrentValue("");
-        console.log("Category added:", response.data);
-      } catch (error) {
-        console.error("Error adding category:", error);
-      } finally {
-        setIsLoading(false);
-      }
+  const addCategory = () => {
+    if (currentValue.trim()) {
+      setSetup((prev: typeof setup) => {
+        const currentCategories = Array.isArray(prev.categories)
+          ? prev.categories
+          : [];
+
+        return {
+          ...prev,
+          categories: [
+            ...currentCategories,
+            {
+              id: -(currentCategories.length + 1),
+              name: currentValue,
+              questions: [],
+            },
+          ],
+        };
+      });
+      setCurrentValue("");
     }
   };
 
   // Добавление вопроса
-  const addQuestion = async () => {
+  const addQuestion = () => {
     if (
       selectedCategory !== null &&
       currentQuestion.questionText.trim() &&
-      setup.categories[selectedCategory]?.id
+      setup.categories[selectedCategory]
     ) {
-      try {
-        setIsLoading(true);
-        const categoryId = setup.categories[selectedCategory].id;
-
-        const response = await axios.post(
-          `${API_URL}/categories/${categoryId}/questions`,
-          {
-            questionText: currentQuestion.questionText,
-            points: currentQuestion.points,
-            answerText: currentQuestion.answerText,
-          },
+      setSetup((prev: typeof setup) => {
+        const categoryId = prev.categories[selectedCategory].id;
+        const updatedCategories = prev.categories.map((category, index) =>
+          index === selectedCategory
+            ? {
+                ...category,
+                questions: [
+                  ...category.questions,
+                  {
+                    id: -(category.questions.length + 1),
+                    questionText: currentQuestion.questionText,
+                    points: currentQuestion.points,
+                    answerText: currentQuestion.answerText,
+                    answered: false,
+                    categoryId: categoryId,
+                  },
+                ],
+              }
+            : category,
         );
+        return { ...prev, categories: updatedCategories };
+      });
 
-        setSetup((prev: typeof setup) => {
-          const updatedCategories = [...prev.categories];
-          updatedCategories[selectedCategory].questions.push({
-            id: response.data.id,
-            questionText: currentQuestion.questionText,
-            points: currentQuestion.points,
-            answerText: currentQuestion.answerText,
-            answered: false,
-            categoryId: categoryId,
-          });
-          return { ...prev, categories: updatedCategories };
-        });
-
-        setCurrentQuestion({ questionText: "", points: 100, answerText: "" });
-        console.log("Question added:", response.data);
-      } catch (error) {
-        console.error("Error adding question:", error);
-      } finally {
-        setIsLoading(false);
-      }
+      setCurrentQuestion({ questionText: "", points: 100, answerText: "" });
     }
   };
 
   // Добавление команды
-  const addTeam = async () => {
-    if (currentValue.trim() && setup.gameId) {
-      try {
-        setIsLoading(true);
-        const response = await axios.post(
-          `${API_URL}/games/${setup.gameId}/teams`,
-          {
-            name: currentValue,
-          },
-        );
-
-        setSetup((prev: typeof setup) => {
-          const currentTeams = Array.isArray(prev.teams) ? prev.teams : [];
-          return {
-            ...prev,
-            teams: [
-              ...currentTeams,
-              {
-                id: response.data.id,
-                name: currentValue,
-                score: 0,
-              },
-            ],
-          };
-        });
-        setCurrentValue("");
-        console.log("Team added:", response.data);
-      } catch (error) {
-        console.error("Error adding team:", error);
-      } finally {
-        setIsLoading(false);
-      }
+  const addTeam = () => {
+    if (currentValue.trim()) {
+      setSetup((prev: typeof setup) => {
+        const currentTeams = Array.isArray(prev.teams) ? prev.teams : [];
+        return {
+          ...prev,
+          teams: [
+            ...currentTeams,
+            {
+              id: -(currentTeams.length + 1),
+              name: currentValue,
+              score: 0,
+            },
+          ],
+        };
+      });
+      setCurrentValue("");
     }
   };
 
@@ -182,8 +121,30 @@ const Home = () => {
     try {
       setIsLoading(true);
 
+      // Вся доска с командами создаётся одним запросом
+      const created = await axios.post(`${API_URL}/games/setup`, {
+        title: setup.gameName,
+        categories: setup.categories.map((category) => ({
+          name: category.name,
+          questions: category.questions.map((question) => ({
+            questionText: question.questionText,
+            answerText: question.answerText,
+            points: question.points,
+          })),
+        })),
+        teams: setup.teams.map((team) => ({ name: team.name })),
+      });
+
       // Активируем игру (меняем статус на ACTIVE)
-      await axios.post(`${API_URL}/games/${setup.gameId}/start`);
+      await axios.post(`${API_URL}/games/${created.data.id}/start`);
+
+      // Временные id заменяются настоящими
+      setSetup((prev: typeof setup) => ({
+        ...prev,
+        gameId: created.data.id,
+        categories: created.data.categories,
+        teams: created.data.teams,
+      }));
 
       navigate("/start");
     } catch (error) {
@@ -193,17 +154,6 @@ const Home = () => {
     }
   };
 
-  const handleStartGame = async () => {
-    try {
-      const gameId = await createNewGame(setup.gameName);
-      if (gameId) {
-        toCategoriesStep();
-      }
-    } catch (error) {
-      console.error("Failed to start game creation:", error);
-    }
-  };
-
   // Получение общего количества вопросов
   const getTotalQuestions = () => {
     return setup.categories.reduce(
@@ -240,10 +190,10 @@ const Home = () => {
               placeholder="Название игры"
             />
             <Button
-              onClick={handleStartGame}
-              disabled={!setup.gameName.trim() || isLoading}
+              onClick={toCategoriesStep}
+              disabled={!setup.gameName.trim()}
             >
-              {isLoading ? "Создание..." : "Продолжить"}
+              Продолжить
             </Button>
           </motion.div>
         )}
@@ -48,6 +48,20 @@ const LeaderboardPage = () => {
     };
 
     fetchRanking();
+
+    if (!gameSetup.gameId) return;
+
+    const source = new EventSource(
+      `${API_URL}/games/${gameSetup.gameId}/events`,
+    );
+    source.addEventListener("score-changed", (event) => {
+      const { teamId, score } = JSON.parse((event as MessageEvent).data);
+      setTeams((prev) =>
+        prev.map((team) => (team.id === teamId ? { ...team, score } : team)),
+      );
+    });
+
+    return () => source.close();
   }, [gameSetup.gameId]);
 
   const sortedTeams = [...teams].sort((a, b) => b.score - a.score);